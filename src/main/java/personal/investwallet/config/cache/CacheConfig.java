@@ -1,6 +1,7 @@
 package personal.investwallet.config.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -11,12 +12,23 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 public class CacheConfig {
 
+    public static final String YIELDS_CACHE = "yields";
+
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(
+            @Value("${yield.cache.max-size:10000}") long yieldsMaxSize,
+            @Value("${yield.cache.ttl-minutes:10}") long yieldsTtlMinutes) {
 
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("verificationCodes");
         cacheManager.setCaffeine(Caffeine.newBuilder().expireAfterWrite(15, TimeUnit.MINUTES));
 
+        // Consultas de dividendos por usuário; recordStats alimenta as métricas cache.gets de hit e miss
+        cacheManager.registerCustomCache(YIELDS_CACHE, Caffeine.newBuilder()
+                .maximumSize(yieldsMaxSize)
+                .expireAfterWrite(yieldsTtlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build());
+
         return cacheManager;
     }
 }
@@ -11,6 +11,8 @@ import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
@@ -19,6 +21,8 @@ import com.mongodb.client.MongoClients;
 @EnableTransactionManagement
 public class MongoDBConfig extends AbstractMongoClientConfiguration {
 
+    private static final String SCRAPER_PAGES_BUCKET = "scraper_pages";
+
     @Value("${spring.data.mongodb.uri}")
     private String uri;
 
@@ -51,4 +55,9 @@ public class MongoDBConfig extends AbstractMongoClientConfiguration {
     public MongoTransactionManager transactionManager(MongoDatabaseFactory dbFactory) {
         return new MongoTransactionManager(dbFactory);
     }
+
+    @Bean
+    public GridFsTemplate gridFsTemplate(MongoDatabaseFactory dbFactory, MappingMongoConverter converter) {
+        return new GridFsTemplate(dbFactory, converter, SCRAPER_PAGES_BUCKET);
+    }
 }
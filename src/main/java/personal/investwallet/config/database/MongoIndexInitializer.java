@@ -0,0 +1,58 @@
+package personal.investwallet.config.database;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.job.JobLeaseEntity;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.yield.YieldEntity;
+import personal.investwallet.modules.yield.YieldTotalEntity;
+
+import java.util.List;
+
+/*
+ * O MongoDBConfig não liga a criação automática de índices, então os índices declarados nas entidades abaixo são
+ * garantidos aqui na subida. O $merge dos totais exige o índice único de yield_totals, as leituras de dividendos
+ * dependem dos índices compostos de yields, a busca dos donos de um ativo usa o índice curinga de assets e a
+ * reserva e a renovação das partições do job consultam job_leases pelo índice de disputa. O índice único de
+ * announcements impede anúncios repetidos do mesmo mês e atende o $lookup que gera os dividendos.
+ */
+@Component
+@Slf4j
+public class MongoIndexInitializer {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(AnnouncementEntity.class,
+            JobLeaseEntity.class, WalletEntity.class, YieldEntity.class, YieldTotalEntity.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    void ensureIndexes() {
+
+        IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(
+                mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOperations = mongoTemplate.indexOps(entity);
+
+            indexResolver.resolveIndexFor(entity).forEach(index -> {
+                try {
+                    indexOperations.ensureIndex(index);
+                } catch (RuntimeException e) {
+                    // Um índice único sobre dados duplicados não impede a subida; o erro precisa ser corrigido à mão
+                    log.error("Falha ao criar o índice {} da coleção {}: {}", index.getIndexOptions().get("name"),
+                            mongoTemplate.getCollectionName(entity), e.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package personal.investwallet.config.http;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HttpClientConfig {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 " +
+            "(KHTML, like Gecko) Chrome/124.0 Safari/537.36";
+
+    @Value("${scraper.http.max-total:32}")
+    private int maxTotal;
+
+    @Value("${scraper.http.max-per-route:8}")
+    private int maxPerRoute;
+
+    @Value("${scraper.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${scraper.http.response-timeout-ms:15000}")
+    private long responseTimeoutMs;
+
+    @Value("${scraper.http.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    @Bean
+    public CloseableHttpClient scraperHttpClient() {
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(keepAliveSeconds))
+                        .build())
+                .build();
+
+        // A compressão (gzip/deflate) já vem habilitada por padrão no builder. As novas tentativas ficam a cargo
+        // do ScraperEngine, que respeita o orçamento de retries e o circuit breaker
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                        .build())
+                .setUserAgent(USER_AGENT)
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+}
@@ -33,7 +33,8 @@ public class SecurityConfig {
                         "/user/login",
                         "/swagger-ui/**",
                         "/v3/api-docs/**",
-                        "/swagger-ui.html" };
+                        "/swagger-ui.html",
+                        "/actuator/health" };
 
         @Bean
         public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
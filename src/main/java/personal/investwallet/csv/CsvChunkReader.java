@@ -0,0 +1,164 @@
+package personal.investwallet.csv;
+
+import java.io.CharArrayReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/*
+ * Divide o arquivo em blocos de linhas inteiras para serem lidos de forma independente. O corte acontece no primeiro
+ * fim de linha depois de chunkSize caracteres, seguindo as mesmas regras de aspas do CsvRowScanner para não partir
+ * um campo entre aspas que contenha quebra de linha.
+ */
+final class CsvChunkReader implements Closeable {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    record Chunk(char[] chars, int firstRow) {
+
+        CsvRowScanner scanner() {
+            return new CsvRowScanner(new CharArrayReader(chars));
+        }
+    }
+
+    private final Reader reader;
+    private final int chunkSize;
+
+    private char[] buffer;
+    private int length;
+    private boolean eof;
+    private int nextRow;
+
+    CsvChunkReader(Reader reader, int chunkSize) {
+        this.reader = reader;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.buffer = new char[this.chunkSize + 8192];
+    }
+
+    /**
+     * Retorna as colunas da primeira linha, ou null quando o arquivo está vazio. As linhas seguintes são numeradas a
+     * partir de zero.
+     */
+    String[] readHeader() throws IOException {
+
+        char[] header = cut(1);
+
+        if (header == null)
+            return null;
+
+        CsvRowScanner scanner = new CsvRowScanner(new CharArrayReader(header));
+        scanner.next();
+
+        nextRow = 0;
+        return scanner.texts();
+    }
+
+    boolean hasMoreRows() throws IOException {
+
+        while (length == 0 && !eof)
+            fill();
+
+        return length > 0;
+    }
+
+    Chunk next() throws IOException {
+
+        int firstRow = nextRow;
+        char[] chars = cut(chunkSize);
+
+        return chars == null ? null : new Chunk(chars, firstRow);
+    }
+
+    boolean isFinished() {
+        return eof && length == 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Percorre o buffer até o primeiro fim de linha fora de aspas depois de minSize caracteres e retira esse trecho
+    private char[] cut(int minSize) throws IOException {
+
+        if (!hasMoreRows())
+            return null;
+
+        int position = 0;
+        boolean quoted = false;
+        boolean fieldBlank = true;
+
+        while (true) {
+            if (position == length) {
+                if (eof)
+                    break;
+
+                fill();
+                continue;
+            }
+
+            char c = buffer[position++];
+
+            if (quoted) {
+                if (c == QUOTE) {
+                    if (peek(position) == QUOTE)
+                        position++;
+                    else
+                        quoted = false;
+                }
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek(position) == '\n')
+                    position++;
+
+                nextRow++;
+                fieldBlank = true;
+
+                if (position >= minSize)
+                    return take(position);
+            } else if (c == SEPARATOR) {
+                fieldBlank = true;
+            } else if (c == QUOTE && fieldBlank) {
+                quoted = true;
+            } else if (c > ' ') {
+                fieldBlank = false;
+            }
+        }
+
+        // Última linha sem quebra no final (ou campo entre aspas não fechado, que o scanner vai rejeitar)
+        nextRow++;
+        return take(length);
+    }
+
+    private int peek(int position) throws IOException {
+
+        while (position == length && !eof)
+            fill();
+
+        return position < length ? buffer[position] : -1;
+    }
+
+    private char[] take(int count) {
+
+        char[] chars = Arrays.copyOf(buffer, count);
+
+        System.arraycopy(buffer, count, buffer, 0, length - count);
+        length -= count;
+
+        return chars;
+    }
+
+    private void fill() throws IOException {
+
+        if (length == buffer.length)
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+
+        int read = reader.read(buffer, length, buffer.length - length);
+
+        if (read < 0)
+            eof = true;
+        else
+            length += read;
+    }
+}
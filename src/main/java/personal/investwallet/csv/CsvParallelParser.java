@@ -0,0 +1,229 @@
+package personal.investwallet.csv;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import personal.investwallet.exceptions.FileProcessingException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * Converte as linhas dos arquivos CSV de importação em paralelo. O arquivo é dividido em blocos de linhas inteiras,
+ * cada bloco é lido e validado no pool e os resultados são devolvidos na ordem do arquivo. Só alguns blocos ficam em
+ * memória ao mesmo tempo, então o stream continua podendo ser consumido aos poucos.
+ *
+ * Cada bloco para na sua primeira linha inválida e guarda as linhas anteriores a ela. Como os blocos são consumidos
+ * em ordem, o erro lançado é sempre o da primeira linha inválida do arquivo, depois de entregar todas as linhas
+ * válidas que vêm antes dela, exatamente como na leitura sequencial.
+ */
+@Component
+public class CsvParallelParser {
+
+    @FunctionalInterface
+    public interface HeaderValidator {
+
+        // header é null quando o arquivo está vazio
+        void validate(String[] header, boolean hasRows);
+    }
+
+    @FunctionalInterface
+    public interface RowParser<T> {
+
+        // rowNum começa em zero na primeira linha depois do cabeçalho
+        T parse(CsvRowScanner row, int rowNum);
+    }
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public CsvParallelParser(
+            @Value("${csv.import.parallelism:0}") int parallelism,
+            @Value("${csv.import.chunk-size:262144}") int chunkSize) {
+
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    /**
+     * Lê o cabeçalho na thread atual e retorna as linhas convertidas na ordem do arquivo. O stream precisa ser
+     * fechado para liberar o arquivo.
+     */
+    public <T> Stream<T> parse(Reader reader, HeaderValidator headerValidator, RowParser<T> rowParser) {
+
+        CsvChunkReader chunks = new CsvChunkReader(reader, chunkSize);
+
+        try {
+            headerValidator.validate(chunks.readHeader(), chunks.hasMoreRows());
+
+            OrderedRows<T> rows = new OrderedRows<>(chunks, rowParser);
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                    .onClose(rows::close);
+
+        } catch (IOException e) {
+            closeQuietly(chunks);
+            throw new FileProcessingException("Erro ao ler o arquivo CSV");
+        } catch (RuntimeException e) {
+            closeQuietly(chunks);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static <T> ChunkResult<T> parseChunk(CsvChunkReader.Chunk chunk, RowParser<T> rowParser) {
+
+        List<T> rows = new ArrayList<>();
+        CsvRowScanner scanner = chunk.scanner();
+        int rowNum = chunk.firstRow();
+
+        try {
+            while (scanner.next())
+                rows.add(rowParser.parse(scanner, rowNum++));
+        } catch (IOException e) {
+            return new ChunkResult<>(rows, new FileProcessingException("Erro ao ler o arquivo CSV"));
+        } catch (RuntimeException e) {
+            return new ChunkResult<>(rows, e);
+        }
+
+        return new ChunkResult<>(rows, null);
+    }
+
+    private static void closeQuietly(CsvChunkReader chunks) {
+
+        try {
+            chunks.close();
+        } catch (IOException ignored) {
+            // O arquivo já foi lido ou falhou, não há o que fazer aqui
+        }
+    }
+
+    // O erro é devolvido junto das linhas em vez de lançado na thread do pool, preservando a exceção original
+    private record ChunkResult<T>(List<T> rows, RuntimeException error) {
+    }
+
+    private class OrderedRows<T> implements Iterator<T> {
+
+        private final CsvChunkReader chunks;
+        private final RowParser<T> rowParser;
+        private final Deque<Future<ChunkResult<T>>> pending = new ArrayDeque<>();
+
+        private Iterator<T> current = Collections.emptyIterator();
+        private RuntimeException error;
+        private boolean readFailed;
+
+        OrderedRows(CsvChunkReader chunks, RowParser<T> rowParser) {
+            this.chunks = chunks;
+            this.rowParser = rowParser;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            while (!current.hasNext()) {
+                if (error != null) {
+                    RuntimeException thrown = error;
+                    close();
+                    throw thrown;
+                }
+
+                if (!advance())
+                    return false;
+            }
+
+            return true;
+        }
+
+        @Override
+        public T next() {
+
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            return current.next();
+        }
+
+        void close() {
+
+            pending.forEach(future -> future.cancel(true));
+            pending.clear();
+            closeQuietly(chunks);
+        }
+
+        private boolean advance() {
+
+            submitChunks();
+
+            Future<ChunkResult<T>> next = pending.poll();
+
+            if (next == null)
+                return false;
+
+            ChunkResult<T> result = await(next);
+
+            current = result.rows().iterator();
+            error = result.error();
+
+            return true;
+        }
+
+        // Mantém no máximo dois blocos por thread lidos ou em andamento à frente do consumidor
+        private void submitChunks() {
+
+            try {
+                while (pending.size() < parallelism * 2 && !readFailed && !chunks.isFinished()) {
+                    CsvChunkReader.Chunk chunk = chunks.next();
+
+                    if (chunk == null)
+                        break;
+
+                    // Arquivos que cabem em um único bloco são lidos na própria thread, sem passar pelo pool
+                    if (pending.isEmpty() && chunks.isFinished())
+                        pending.add(CompletableFuture.completedFuture(parseChunk(chunk, rowParser)));
+                    else
+                        pending.add(pool.submit(() -> parseChunk(chunk, rowParser)));
+                }
+            } catch (IOException e) {
+                // A falha de leitura entra na fila como um bloco, para que erros das linhas anteriores venham antes
+                readFailed = true;
+                pending.add(CompletableFuture.completedFuture(new ChunkResult<>(List.of(),
+                        new FileProcessingException("Erro ao ler o arquivo CSV"))));
+            }
+        }
+
+        private ChunkResult<T> await(Future<ChunkResult<T>> future) {
+
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new FileProcessingException("Leitura do arquivo CSV interrompida");
+            } catch (ExecutionException e) {
+                close();
+                throw new FileProcessingException("Erro ao processar o arquivo CSV, " + e.getCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package personal.investwallet.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/*
+ * Leitor dos arquivos CSV de importação (colunas fixas separadas por vírgula, campos opcionalmente entre aspas).
+ * Percorre o arquivo direto de um buffer de caracteres e guarda apenas a linha atual, reaproveitando os mesmos
+ * arrays a cada linha. Datas dd/MM/yyyy e números com vírgula ou ponto decimal são lidos dos caracteres da
+ * coluna, sem montar uma String intermediária; apenas o texto pedido por text() vira String.
+ *
+ * As colunas já vêm sem espaços nas pontas, como no trim() que os serviços faziam em cada célula.
+ */
+public final class CsvRowScanner implements Closeable {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    private char[] row = new char[256];
+    private int rowLength;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int columns;
+
+    private char[] scratch = new char[32];
+
+    public CsvRowScanner(Reader reader) {
+        this(reader, 8192);
+    }
+
+    CsvRowScanner(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Avança para a próxima linha do arquivo, retornando false quando ele terminou.
+     */
+    public boolean next() throws IOException {
+
+        int c = read();
+
+        if (c == -1)
+            return false;
+
+        rowLength = 0;
+        columns = 0;
+
+        int fieldStart = 0;
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1)
+                    throw new IOException("Campo entre aspas não foi fechado até o fim do arquivo");
+
+                if (c == QUOTE) {
+                    // Aspas duplicadas dentro de um campo entre aspas representam o próprio caractere
+                    if (peek() == QUOTE) {
+                        read();
+                        append(QUOTE);
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                endField(fieldStart);
+                return true;
+            } else if (c == '\r') {
+                if (peek() == '\n')
+                    read();
+                endField(fieldStart);
+                return true;
+            } else if (c == SEPARATOR) {
+                endField(fieldStart);
+                fieldStart = rowLength;
+            } else if (c == QUOTE && isBlank(fieldStart, rowLength)) {
+                rowLength = fieldStart;
+                quoted = true;
+            } else {
+                append((char) c);
+            }
+
+            c = read();
+        }
+    }
+
+    public int columnCount() {
+        return columns;
+    }
+
+    public boolean isBlank(int column) {
+        return starts[column] == ends[column];
+    }
+
+    public String text(int column) {
+        return new String(row, starts[column], ends[column] - starts[column]);
+    }
+
+    public String[] texts() {
+
+        String[] texts = new String[columns];
+
+        for (int i = 0; i < columns; i++)
+            texts[i] = text(i);
+
+        return texts;
+    }
+
+    /**
+     * Lê um inteiro da coluna com as mesmas regras de Integer.parseInt.
+     */
+    public int integer(int column) {
+
+        int start = starts[column];
+        int end = ends[column];
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (row[i] == '-' || row[i] == '+'))
+            negative = row[i++] == '-';
+
+        if (i == end)
+            throw numberFormatException(column);
+
+        long value = 0;
+        long max = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+
+        for (; i < end; i++) {
+            int digit = row[i] - '0';
+
+            if (digit < 0 || digit > 9)
+                throw numberFormatException(column);
+
+            value = value * 10 + digit;
+
+            if (value > max)
+                throw numberFormatException(column);
+        }
+
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Lê um decimal da coluna aceitando vírgula ou ponto como separador decimal. Valores com até 18 dígitos são
+     * montados direto de um long; o restante (notação científica, muitos dígitos) segue para o construtor do
+     * BigDecimal, que também valida o formato.
+     */
+    public BigDecimal decimal(int column) {
+
+        int start = starts[column];
+        int end = ends[column];
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (row[i] == '-' || row[i] == '+'))
+            negative = row[i++] == '-';
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+
+        for (; i < end; i++) {
+            char c = row[i];
+
+            if (c >= '0' && c <= '9') {
+                if (digits == MAX_FAST_DIGITS)
+                    return slowDecimal(column);
+
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+
+                if (scale >= 0)
+                    scale++;
+            } else if ((c == '.' || c == ',') && scale < 0) {
+                scale = 0;
+            } else {
+                return slowDecimal(column);
+            }
+        }
+
+        if (digits == 0)
+            throw numberFormatException(column);
+
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    /**
+     * Lê uma data dd/MM/yyyy da coluna. Dias além do fim do mês são ajustados para o último dia, como faz o
+     * DateTimeFormatter no modo SMART.
+     */
+    public LocalDate date(int column) {
+
+        int start = starts[column];
+
+        if (ends[column] - start != 10 || row[start + 2] != '/' || row[start + 5] != '/')
+            throw dateTimeParseException(column);
+
+        int day = digits(start, 2);
+        int month = digits(start + 3, 2);
+        int year = digits(start + 6, 4);
+
+        if (day < 1 || day > 31 || month < 1 || month > 12 || year < 1)
+            throw dateTimeParseException(column);
+
+        return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private BigDecimal slowDecimal(int column) {
+
+        int length = ends[column] - starts[column];
+
+        if (scratch.length < length)
+            scratch = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            char c = row[starts[column] + i];
+            scratch[i] = c == ',' ? '.' : c;
+        }
+
+        try {
+            return new BigDecimal(scratch, 0, length);
+        } catch (NumberFormatException e) {
+            throw numberFormatException(column);
+        }
+    }
+
+    // Retorna -1 quando algum dos caracteres não é dígito
+    private int digits(int start, int count) {
+
+        int value = 0;
+
+        for (int i = start; i < start + count; i++) {
+            int digit = row[i] - '0';
+
+            if (digit < 0 || digit > 9)
+                return -1;
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private NumberFormatException numberFormatException(int column) {
+        return new NumberFormatException("For input string: \"" + text(column) + "\"");
+    }
+
+    private DateTimeParseException dateTimeParseException(int column) {
+
+        String text = text(column);
+        return new DateTimeParseException("Text '" + text + "' could not be parsed", text, 0);
+    }
+
+    private void endField(int fieldStart) {
+
+        if (columns == starts.length) {
+            starts = Arrays.copyOf(starts, columns * 2);
+            ends = Arrays.copyOf(ends, columns * 2);
+        }
+
+        int start = fieldStart;
+        int end = rowLength;
+
+        while (start < end && row[start] <= ' ')
+            start++;
+
+        while (end > start && row[end - 1] <= ' ')
+            end--;
+
+        starts[columns] = start;
+        ends[columns] = end;
+        columns++;
+    }
+
+    private boolean isBlank(int start, int end) {
+
+        for (int i = start; i < end; i++) {
+            if (row[i] > ' ')
+                return false;
+        }
+
+        return true;
+    }
+
+    private void append(char c) {
+
+        if (rowLength == row.length)
+            row = Arrays.copyOf(row, row.length * 2);
+
+        row[rowLength++] = c;
+    }
+
+    private int read() throws IOException {
+
+        if (position == limit && !fill())
+            return -1;
+
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+
+        if (position == limit && !fill())
+            return -1;
+
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+
+        int read = reader.read(buffer, 0, buffer.length);
+
+        while (read == 0)
+            read = reader.read(buffer, 0, buffer.length);
+
+        position = 0;
+        limit = Math.max(read, 0);
+
+        return read > 0;
+    }
+}
@@ -0,0 +1,10 @@
+package personal.investwallet.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+public class BackfillProcessingException extends RuntimeException {
+
+    public BackfillProcessingException(String message) { super(message); }
+}
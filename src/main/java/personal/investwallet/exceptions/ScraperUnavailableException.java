@@ -0,0 +1,10 @@
+package personal.investwallet.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ScraperUnavailableException extends ScraperProcessingException {
+
+    public ScraperUnavailableException(String message) { super(message); }
+}
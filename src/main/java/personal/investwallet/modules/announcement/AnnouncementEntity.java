@@ -0,0 +1,45 @@
+package personal.investwallet.modules.announcement;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "announcements")
+@CompoundIndex(name = "asset_yield_at_idx", def = "{'asset_name': 1, 'yield_at': 1}", unique = true)
+public class AnnouncementEntity {
+
+    @MongoId(FieldType.OBJECT_ID)
+    private String id;
+
+    @Field("asset_name")
+    private String assetName;
+
+    @Field("yield_at")
+    private String yieldAt;
+
+    @Field("income_value")
+    private BigDecimal incomeValue;
+
+    @Field("base_price")
+    private BigDecimal basePrice;
+
+    @Field("base_price_date")
+    private Instant basePriceDate;
+
+    @Field("base_payment_date")
+    private Instant basePaymentDate;
+
+    @Field("fetched_at")
+    private Instant fetchedAt;
+}
@@ -0,0 +1,22 @@
+package personal.investwallet.modules.announcement;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnnouncementRepository extends MongoRepository<AnnouncementEntity, String>, AnnouncementRepositoryCustom {
+
+    @Query("{ 'yield_at': ?0, 'asset_name': { $in: ?1 } }")
+    List<AnnouncementEntity> findByYieldAtAndAssetNameIn(String yieldAt, Collection<String> assetNames);
+
+    @Query("{ 'asset_name': ?0 }")
+    List<AnnouncementEntity> findByAssetName(String assetName);
+
+    @Query("{ 'asset_name': ?0, 'base_price_date': { $gte: ?1 } }")
+    List<AnnouncementEntity> findByAssetNameAndBasePriceDateFrom(String assetName, Instant basePriceDate);
+}
@@ -0,0 +1,6 @@
+package personal.investwallet.modules.announcement;
+
+public interface AnnouncementRepositoryCustom {
+
+    void upsertByAssetNameAndYieldAt(AnnouncementEntity announcement);
+}
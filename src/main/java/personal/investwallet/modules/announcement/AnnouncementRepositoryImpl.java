@@ -0,0 +1,33 @@
+package personal.investwallet.modules.announcement;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class AnnouncementRepositoryImpl implements AnnouncementRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public AnnouncementRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void upsertByAssetNameAndYieldAt(AnnouncementEntity announcement) {
+
+        Query query = new Query(Criteria.where("asset_name").is(announcement.getAssetName())
+                .and("yield_at").is(announcement.getYieldAt()));
+
+        Update update = new Update()
+                .set("income_value", announcement.getIncomeValue())
+                .set("base_price", announcement.getBasePrice())
+                .set("base_price_date", announcement.getBasePriceDate())
+                .set("base_payment_date", announcement.getBasePaymentDate())
+                .set("fetched_at", announcement.getFetchedAt());
+
+        mongoTemplate.upsert(query, update, AnnouncementEntity.class);
+    }
+}
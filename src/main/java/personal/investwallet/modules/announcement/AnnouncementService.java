@@ -0,0 +1,48 @@
+package personal.investwallet.modules.announcement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class AnnouncementService {
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    public List<AnnouncementEntity> getAllAnnouncementsByYieldAt(String yieldAt, Collection<String> assetNames) {
+
+        return announcementRepository.findByYieldAtAndAssetNameIn(yieldAt, assetNames);
+    }
+
+    public List<AnnouncementEntity> getAllAnnouncementsByAssetName(String assetName) {
+
+        return announcementRepository.findByAssetName(assetName);
+    }
+
+    public List<AnnouncementEntity> getAllAnnouncementsByAssetNameFrom(String assetName, Instant basePriceDate) {
+
+        return announcementRepository.findByAssetNameAndBasePriceDateFrom(assetName, basePriceDate);
+    }
+
+    public AnnouncementEntity registerScrapedAnnouncement(String assetName, ScraperResponseDto scraper) {
+
+        AnnouncementEntity announcement = new AnnouncementEntity(
+                null,
+                assetName,
+                scraper.yieldAt(),
+                scraper.incomeValue(),
+                scraper.basePrice(),
+                scraper.basePriceDate(),
+                scraper.basePaymentDate(),
+                Instant.now());
+
+        announcementRepository.upsertByAssetNameAndYieldAt(announcement);
+
+        return announcement;
+    }
+}
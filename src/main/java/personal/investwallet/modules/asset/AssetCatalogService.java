@@ -0,0 +1,94 @@
+package personal.investwallet.modules.asset;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import personal.investwallet.modules.asset.dto.AssetCatalogRefreshDto;
+import personal.investwallet.modules.job.JobCoordinator;
+import personal.investwallet.modules.webscraper.ScraperEngine;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+@Slf4j
+public class AssetCatalogService {
+
+    private static final String ASSET_CATALOG_REFRESH_JOB = "asset-catalog-refresh";
+
+    @Autowired
+    private ScraperEngine scraperEngine;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Value("${scraper.catalog.asset-types:fundos-imobiliarios,acoes}")
+    private List<String> assetTypes;
+
+    @Value("${scraper.catalog.max-pages:10}")
+    private int maxPages;
+
+    @Scheduled(cron = "${scraper.catalog.cron:0 0 5 * * MON}")
+    public void refreshCatalogOnSchedule() {
+
+        // Só um nó assume a partição com os tipos de ativo; os demais apenas aguardam a conclusão
+        jobCoordinator.runPartitioned(ASSET_CATALOG_REFRESH_JOB, LocalDate.now().toString(), assetTypes,
+                partition -> refreshCatalog(partition));
+    }
+
+    public AssetCatalogRefreshDto refreshCatalog(List<String> catalogAssetTypes) {
+
+        // Um ticker listado em mais de um tipo fica com o primeiro tipo configurado
+        Map<String, String> scrapedAssets = new LinkedHashMap<>();
+        for (String assetType : catalogAssetTypes) {
+            scraperEngine.assetCatalogScrapingMany(assetType, maxPages)
+                    .forEach(assetName -> scrapedAssets.putIfAbsent(assetName, assetType));
+        }
+
+        Map<String, String> existingAssets = new HashMap<>();
+        assetRepository.findAllAssetNamesAndTypes()
+                .forEach(asset -> existingAssets.put(asset.getAssetName(), asset.getAssetType()));
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetEntity.class);
+        int inserted = 0;
+        int typeChanged = 0;
+
+        for (Map.Entry<String, String> scraped : scrapedAssets.entrySet()) {
+            String existingType = existingAssets.get(scraped.getKey());
+            Query byAssetName = new Query(where("asset_name").is(scraped.getKey()));
+
+            if (existingType == null) {
+                bulkOperations.upsert(byAssetName, new Update().setOnInsert("asset_type", scraped.getValue()));
+                inserted++;
+            } else if (!existingType.equals(scraped.getValue())) {
+                bulkOperations.updateOne(byAssetName, new Update().set("asset_type", scraped.getValue()));
+                typeChanged++;
+            }
+        }
+
+        if (inserted + typeChanged > 0)
+            bulkOperations.execute();
+
+        log.info("Catálogo de ativos atualizado: {} lidos, {} novos e {} com tipo alterado", scrapedAssets.size(),
+                inserted, typeChanged);
+
+        return new AssetCatalogRefreshDto(scrapedAssets.size(), inserted, typeChanged);
+    }
+}
@@ -1,5 +1,6 @@
 package personal.investwallet.modules.asset;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -16,4 +17,7 @@ public interface AssetRepository extends MongoRepository<AssetEntity, String> {
 
     @Query(value = "{}", fields = "{ 'assetName' : 1, '_id' : 0}")
     Stream<String> findAllAssetNames();
+
+    @Query(value = "{}", fields = "{ 'assetName' : 1, 'assetType' : 1, '_id' : 0}")
+    List<AssetEntity> findAllAssetNamesAndTypes();
 }
@@ -0,0 +1,8 @@
+package personal.investwallet.modules.asset.dto;
+
+public record AssetCatalogRefreshDto(
+        int scraped,
+        int inserted,
+        int typeChanged
+) {
+}
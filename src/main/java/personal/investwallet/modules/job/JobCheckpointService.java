@@ -0,0 +1,85 @@
+package personal.investwallet.modules.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class JobCheckpointService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Reaproveita o documento da execução se ele já existir, então um nó que reinicia retoma de onde parou
+    public String startRun(String jobName, String runKey) {
+
+        String runId = jobName + ":" + runKey;
+
+        Update update = new Update()
+                .setOnInsert("job_name", jobName)
+                .setOnInsert("run_key", runKey)
+                .setOnInsert("started_at", Instant.now())
+                .set("status", JobRunEntity.RUNNING);
+
+        mongoTemplate.upsert(byId(runId), update, JobRunEntity.class);
+
+        return runId;
+    }
+
+    public boolean isRunning(String jobName, String runKey) {
+
+        Query query = new Query(Criteria.where("_id").is(jobName + ":" + runKey).and("status").is(JobRunEntity.RUNNING));
+        return mongoTemplate.exists(query, JobRunEntity.class);
+    }
+
+    public Set<String> getCompletedItems(String runId) {
+
+        Query query = byId(runId);
+        query.fields().include("items");
+
+        JobRunEntity run = mongoTemplate.findOne(query, JobRunEntity.class);
+        if (run == null || run.getItems() == null)
+            return Set.of();
+
+        return run.getItems().entrySet().stream()
+                .filter(item -> JobRunEntity.ItemCheckpoint.DONE.equals(item.getValue().getStatus()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    public void markItem(String runId, String item, String status, String message) {
+
+        Update update = new Update().set("items." + item, new JobRunEntity.ItemCheckpoint(status, message,
+                Instant.now()));
+
+        try {
+            mongoTemplate.updateFirst(byId(runId), update, JobRunEntity.class);
+        } catch (RuntimeException e) {
+            // Perder um checkpoint só faz o item ser reprocessado na retomada
+            log.warn("Falha ao registrar o checkpoint do item {} na execução {}: {}", item, runId, e.getMessage());
+        }
+    }
+
+    public void finishRun(String runId) {
+
+        Update update = new Update()
+                .set("status", JobRunEntity.COMPLETED)
+                .set("finished_at", Instant.now());
+
+        mongoTemplate.updateFirst(byId(runId), update, JobRunEntity.class);
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+}
@@ -0,0 +1,203 @@
+package personal.investwallet.modules.job;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+public class JobCoordinator {
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId;
+    private final int partitionSize;
+    private final Duration leaseTtl;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    public JobCoordinator(
+            MongoTemplate mongoTemplate,
+            @Value("${job.node-id:}") String nodeId,
+            @Value("${job.partition.size:25}") int partitionSize,
+            @Value("${job.lease.ttl-seconds:120}") long leaseTtlSeconds,
+            @Value("${job.lease.poll-interval-seconds:5}") long pollIntervalSeconds,
+            @Value("${job.lease.max-attempts:3}") int maxAttempts) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.nodeId = nodeId.isBlank() ? generateNodeId() : nodeId;
+        this.partitionSize = partitionSize;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+        this.pollInterval = Duration.ofSeconds(pollIntervalSeconds);
+        this.maxAttempts = maxAttempts;
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void runPartitioned(String jobName, String runKey, List<String> items, Consumer<List<String>> worker) {
+
+        String jobRun = jobName + ":" + runKey;
+        registerPartitions(jobRun, items);
+
+        int processed = 0;
+
+        while (true) {
+            JobLeaseEntity lease = claim(jobRun);
+
+            if (lease != null) {
+                process(lease, worker);
+                processed++;
+                continue;
+            }
+
+            // Partições ainda com lease ativo de outro nó podem voltar a ficar disponíveis se ele morrer
+            if (!hasPendingPartitions(jobRun))
+                break;
+
+            sleep(pollInterval);
+        }
+
+        log.info("Nó {} finalizou {} partições da execução {}", nodeId, processed, jobRun);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeatExecutor.shutdownNow();
+    }
+
+    private void registerPartitions(String jobRun, List<String> items) {
+
+        List<String> sortedItems = items.stream().distinct().sorted().toList();
+
+        for (int start = 0, partition = 0; start < sortedItems.size(); start += partitionSize, partition++) {
+            List<String> partitionItems = sortedItems.subList(start, Math.min(start + partitionSize, sortedItems.size()));
+
+            Update update = new Update()
+                    .setOnInsert("job_run", jobRun)
+                    .setOnInsert("partition", partition)
+                    .setOnInsert("items", partitionItems)
+                    .setOnInsert("status", JobLeaseEntity.PENDING)
+                    .setOnInsert("attempts", 0)
+                    .setOnInsert("expires_at", Instant.EPOCH);
+
+            mongoTemplate.upsert(byId(jobRun + ":" + partition), update, JobLeaseEntity.class);
+        }
+    }
+
+    private JobLeaseEntity claim(String jobRun) {
+
+        Instant now = Instant.now();
+
+        Query query = new Query(Criteria.where("job_run").is(jobRun)
+                .and("status").is(JobLeaseEntity.PENDING)
+                .and("expires_at").lt(now));
+
+        Update update = new Update()
+                .set("owner", nodeId)
+                .set("expires_at", now.plus(leaseTtl))
+                .set("heartbeat_at", now)
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                JobLeaseEntity.class);
+    }
+
+    private void process(JobLeaseEntity lease, Consumer<List<String>> worker) {
+
+        long heartbeatMillis = Math.max(1, leaseTtl.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeatExecutor.scheduleAtFixedRate(
+                () -> heartbeat(lease), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        try {
+            worker.accept(lease.getItems());
+            heartbeat.cancel(false);
+            finish(lease, new Update().set("status", JobLeaseEntity.DONE).set("completed_at", Instant.now()));
+
+        } catch (RuntimeException e) {
+            heartbeat.cancel(false);
+            log.error("Falha ao processar a partição {} (tentativa {})", lease.getId(), lease.getAttempts(), e);
+
+            if (lease.getAttempts() >= maxAttempts) {
+                finish(lease, new Update().set("status", JobLeaseEntity.FAILED).set("completed_at", Instant.now()));
+            } else {
+                finish(lease, new Update().unset("owner").set("expires_at", Instant.EPOCH));
+            }
+        }
+    }
+
+    private void heartbeat(JobLeaseEntity lease) {
+
+        Instant now = Instant.now();
+        Update update = new Update().set("expires_at", now.plus(leaseTtl)).set("heartbeat_at", now);
+
+        try {
+            long renewed = mongoTemplate.updateFirst(ownedBy(lease), update, JobLeaseEntity.class).getModifiedCount();
+
+            if (renewed == 0)
+                log.warn("Lease da partição {} foi perdido pelo nó {}", lease.getId(), nodeId);
+
+        } catch (RuntimeException e) {
+            log.warn("Falha ao renovar o lease da partição {}: {}", lease.getId(), e.getMessage());
+        }
+    }
+
+    private void finish(JobLeaseEntity lease, Update update) {
+        mongoTemplate.updateFirst(ownedBy(lease), update, JobLeaseEntity.class);
+    }
+
+    private boolean hasPendingPartitions(String jobRun) {
+
+        Query query = new Query(Criteria.where("job_run").is(jobRun).and("status").is(JobLeaseEntity.PENDING));
+        return mongoTemplate.exists(query, JobLeaseEntity.class);
+    }
+
+    private Query ownedBy(JobLeaseEntity lease) {
+        return new Query(Criteria.where("_id").is(lease.getId()).and("owner").is(nodeId));
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+
+    private static void sleep(Duration duration) {
+
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Coordenação do job interrompida", e);
+        }
+    }
+
+    private static String generateNodeId() {
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + suffix;
+        } catch (UnknownHostException e) {
+            return "node-" + suffix;
+        }
+    }
+}
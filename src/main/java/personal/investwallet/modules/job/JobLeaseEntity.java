@@ -0,0 +1,54 @@
+package personal.investwallet.modules.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "job_leases")
+@CompoundIndex(name = "job_run_claim_idx", def = "{'job_run': 1, 'status': 1, 'expires_at': 1}")
+public class JobLeaseEntity {
+
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private String id;
+
+    @Field("job_run")
+    private String jobRun;
+
+    @Field("partition")
+    private int partition;
+
+    @Field("items")
+    private List<String> items;
+
+    @Field("status")
+    private String status;
+
+    @Field("owner")
+    private String owner;
+
+    @Field("attempts")
+    private int attempts;
+
+    @Field("expires_at")
+    private Instant expiresAt;
+
+    @Field("heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Field("completed_at")
+    private Instant completedAt;
+}
@@ -0,0 +1,60 @@
+package personal.investwallet.modules.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "job_runs")
+public class JobRunEntity {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    private String id;
+
+    @Field("job_name")
+    private String jobName;
+
+    @Field("run_key")
+    private String runKey;
+
+    @Field("status")
+    private String status;
+
+    @Field("started_at")
+    private Instant startedAt;
+
+    @Field("finished_at")
+    private Instant finishedAt;
+
+    @Field("items")
+    private Map<String, ItemCheckpoint> items;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemCheckpoint {
+
+        public static final String DONE = "DONE";
+        public static final String FAILED = "FAILED";
+
+        @Field("status")
+        private String status;
+
+        @Field("message")
+        private String message;
+
+        @Field("updated_at")
+        private Instant updatedAt;
+    }
+}
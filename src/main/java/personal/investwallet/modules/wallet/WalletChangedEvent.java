@@ -0,0 +1,13 @@
+package personal.investwallet.modules.wallet;
+
+import java.time.Instant;
+import java.util.List;
+
+// Publicado após uma escrita de compra ou venda; posições anteriores a effectiveFrom não mudaram
+public record WalletChangedEvent(
+        String userId,
+        String assetName,
+        Instant effectiveFrom,
+        List<WalletEntity.Asset.PositionEntry> positionIndex
+) {
+}
@@ -7,6 +7,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.WildcardIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.FieldType;
@@ -36,6 +37,7 @@ public class WalletEntity {
     @Field("user_id")
     private String userId;
 
+    @WildcardIndexed
     private Map<String, Asset> assets = new HashMap<>();
 
     @Data
@@ -55,6 +57,18 @@ public class WalletEntity {
         @Field("sales_info")
         private List<SalesInfo> salesInfo;
 
+        // Sem valor padrão: um ativo antigo lido sem o índice não pode voltar ao banco com uma lista vazia no lugar
+        @Field("position_index")
+        private List<PositionEntry> positionIndex;
+
+        // Incrementada a cada movimentação, para que o índice de posição só seja gravado a partir da versão mais nova
+        @Field("revision")
+        private long revision;
+
+        public Asset(String assetName, int quotaAmount, List<PurchasesInfo> purchasesInfo, List<SalesInfo> salesInfo) {
+            this(assetName, quotaAmount, purchasesInfo, salesInfo, WalletPositionIndex.build(purchasesInfo, salesInfo), 0);
+        }
+
         @Data
         @AllArgsConstructor
         @NoArgsConstructor
@@ -96,5 +110,18 @@ public class WalletEntity {
             @Field("sale_date")
             private Instant saleDate;
         }
+
+        // Posição acumulada do ativo após as movimentações de uma data, em ordem crescente de data
+        @Data
+        @AllArgsConstructor
+        @NoArgsConstructor
+        public static class PositionEntry {
+
+            @Field("date")
+            private Instant date;
+
+            @Field("quota_amount")
+            private int quotaAmount;
+        }
     }
 }
@@ -0,0 +1,61 @@
+package personal.investwallet.modules.wallet;
+
+import personal.investwallet.modules.wallet.WalletEntity.Asset.PositionEntry;
+import personal.investwallet.modules.wallet.WalletEntity.Asset.PurchasesInfo;
+import personal.investwallet.modules.wallet.WalletEntity.Asset.SalesInfo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class WalletPositionIndex {
+
+    private WalletPositionIndex() {
+    }
+
+    public static List<PositionEntry> build(List<PurchasesInfo> purchasesInfo, List<SalesInfo> salesInfo) {
+
+        // Movimentações da mesma data viram uma única entrada com o saldo do fim daquela data
+        TreeMap<Instant, Integer> movementsByDate = new TreeMap<>();
+
+        if (purchasesInfo != null)
+            purchasesInfo.forEach(purchase -> movementsByDate.merge(purchase.getPurchaseDate(),
+                    purchase.getPurchaseAmount(), Integer::sum));
+
+        if (salesInfo != null)
+            salesInfo.forEach(sale -> movementsByDate.merge(sale.getSaleDate(), -sale.getSaleAmount(), Integer::sum));
+
+        List<PositionEntry> positionIndex = new ArrayList<>(movementsByDate.size());
+        int quotaAmount = 0;
+
+        for (Map.Entry<Instant, Integer> movement : movementsByDate.entrySet()) {
+            quotaAmount += movement.getValue();
+            positionIndex.add(new PositionEntry(movement.getKey(), quotaAmount));
+        }
+
+        return positionIndex;
+    }
+
+    public static int quotaAmountAt(List<PositionEntry> positionIndex, Instant date) {
+
+        // Busca binária pela última entrada com data menor ou igual à informada
+        int low = 0;
+        int high = positionIndex.size() - 1;
+        int found = -1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (positionIndex.get(middle).getDate().isAfter(date)) {
+                high = middle - 1;
+            } else {
+                found = middle;
+                low = middle + 1;
+            }
+        }
+
+        return found < 0 ? 0 : positionIndex.get(found).getQuotaAmount();
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -25,12 +24,4 @@ public interface WalletRepository extends MongoRepository<WalletEntity, String>,
     @Query("{ 'userId': ?0, 'assets.?1.assetName': ?1 }")
     @Update("{ '$inc': { 'assets.?1.quotaAmount': ?2 } }")
     void restoreAmountOfQuotasInAsset(String userId, String assetName, int previousPurchaseAmount);
-
-    @Query("{ 'userId': ?0, 'assets.?1.assetName': ?1 }")
-    @Update("{ '$set': { 'assets.?1.purchasesInfo': ?2 }, '$inc': { 'assets.?1.quotaAmount': ?3 } }")
-    void updatePurchaseInAssetByPurchaseId(String userId, String assetName, List<WalletEntity.Asset.PurchasesInfo> purchasesInfo, int quotaDecrease);
-
-    @Query("{ 'userId': ?0, 'assets.?1.assetName': ?1 }")
-    @Update("{ '$set': { 'assets.?1.salesInfo': ?2 }, '$inc': { 'assets.?1.quotaAmount': ?3 } }")
-    void updateSaleInAssetBySaleId(String userId, String assetName, List<WalletEntity.Asset.SalesInfo> salesInfo, int quotaIncrement);
 }
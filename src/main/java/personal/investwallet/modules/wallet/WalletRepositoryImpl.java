@@ -1,15 +1,19 @@
 package personal.investwallet.modules.wallet;
 
 import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.*;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
+import personal.investwallet.modules.wallet.dto.AssetHolderDto;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
 
@@ -45,6 +49,12 @@ public class WalletRepositoryImpl implements WalletRespositoryCustom {
                                 .toList();
         }
 
+        @Override
+        public List<String> findAllUserIds() {
+
+                return mongoTemplate.findDistinct(new Query(), "user_id", WalletEntity.class, String.class);
+        }
+
         @Override
         public List<String> findUserIdsByAssetKey(String assetKey) {
                 Aggregation aggregation = newAggregation(
@@ -66,28 +76,177 @@ public class WalletRepositoryImpl implements WalletRespositoryCustom {
         }
 
         @Override
-        public void addPurchaseToAsset(String userId, String assetName, WalletEntity.Asset.PurchasesInfo newPurchase,
-                        int quotaIncrement) {
+        public List<AssetHolderDto> findHoldersByAssetKey(String assetKey) {
+
+                String quotaAmountPath = "assets." + assetKey + ".quota_amount";
+
+                Query query = new Query(Criteria.where(quotaAmountPath).gt(0));
+                query.fields().include("user_id").include(quotaAmountPath);
+
+                return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(WalletEntity.class))
+                                .stream()
+                                .map(doc -> {
+                                        Document asset = doc.get("assets", Document.class).get(assetKey,
+                                                        Document.class);
+
+                                        return new AssetHolderDto(doc.getString("user_id"),
+                                                        asset.getInteger("quota_amount"));
+                                })
+                                .toList();
+        }
+
+        @Override
+        public List<AssetHolderDto> findHoldersByAssetKeyAt(String assetKey, Instant date) {
+
+                String assetPath = "assets." + assetKey;
+
+                // Quem já vendeu tudo ainda pode ter cotas na data, então o filtro considera qualquer compra registrada
+                Query query = new Query(new Criteria().orOperator(
+                                Criteria.where(assetPath + ".quota_amount").gt(0),
+                                Criteria.where(assetPath + ".purchases_info.purchase_amount").gt(0)));
+                query.fields()
+                                .include("user_id")
+                                .include(assetPath + ".quota_amount")
+                                .include(assetPath + ".position_index")
+                                .include(assetPath + ".purchases_info.purchase_date")
+                                .include(assetPath + ".purchases_info.purchase_amount")
+                                .include(assetPath + ".sales_info.sale_date")
+                                .include(assetPath + ".sales_info.sale_amount");
+
+                return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(WalletEntity.class))
+                                .stream()
+                                .map(doc -> {
+                                        Document asset = doc.get("assets", Document.class).get(assetKey,
+                                                        Document.class);
+
+                                        return new AssetHolderDto(doc.getString("user_id"),
+                                                        quotaAmountAt(asset, date));
+                                })
+                                .filter(holder -> holder.quotaAmount() > 0)
+                                .toList();
+        }
+
+        @Override
+        public Optional<WalletEntity.Asset> findAssetByUserIdAndAssetKey(String userId, String assetKey) {
+
+                String assetPath = "assets." + assetKey;
+
+                Query query = new Query(Criteria.where("user_id").is(userId).and(assetPath).exists(true));
+                query.fields().include("user_id").include(assetPath);
 
-                Query query = new Query(Criteria.where("user_id").is(userId).and("assets." + assetName).exists(true));
+                return Optional.ofNullable(mongoTemplate.findOne(query, WalletEntity.class))
+                                .map(wallet -> wallet.getAssets().get(assetKey));
+        }
+
+        @Override
+        public List<WalletEntity.Asset.PositionEntry> addPurchaseToAsset(String userId, String assetName,
+                        WalletEntity.Asset.PurchasesInfo newPurchase, int quotaIncrement) {
 
                 Update update = new Update()
                                 .push("assets." + assetName + ".purchases_info", newPurchase)
                                 .inc("assets." + assetName + ".quota_amount", quotaIncrement);
 
-                mongoTemplate.updateFirst(query, update, WalletEntity.class);
+                return modifyAsset(userId, assetName, update);
         }
 
         @Override
-        public void addSaleToAsset(String userId, String assetName, WalletEntity.Asset.SalesInfo newSale,
-                        int quotaIncrement) {
+        public List<WalletEntity.Asset.PositionEntry> updatePurchaseInAssetByPurchaseId(String userId,
+                        String assetName, List<WalletEntity.Asset.PurchasesInfo> purchasesInfo, int quotaDecrease) {
 
-                Query query = new Query(Criteria.where("user_id").is(userId).and("assets." + assetName).exists(true));
+                Update update = new Update()
+                                .set("assets." + assetName + ".purchases_info", purchasesInfo)
+                                .inc("assets." + assetName + ".quota_amount", quotaDecrease);
+
+                return modifyAsset(userId, assetName, update);
+        }
+
+        @Override
+        public List<WalletEntity.Asset.PositionEntry> addSaleToAsset(String userId, String assetName,
+                        WalletEntity.Asset.SalesInfo newSale, int quotaIncrement) {
 
                 Update update = new Update()
                                 .push("assets." + assetName + ".sales_info", newSale)
                                 .inc("assets." + assetName + ".quota_amount", quotaIncrement);
 
-                mongoTemplate.updateFirst(query, update, WalletEntity.class);
+                return modifyAsset(userId, assetName, update);
+        }
+
+        @Override
+        public List<WalletEntity.Asset.PositionEntry> updateSaleInAssetBySaleId(String userId, String assetName,
+                        List<WalletEntity.Asset.SalesInfo> salesInfo, int quotaIncrement) {
+
+                Update update = new Update()
+                                .set("assets." + assetName + ".sales_info", salesInfo)
+                                .inc("assets." + assetName + ".quota_amount", quotaIncrement);
+
+                return modifyAsset(userId, assetName, update);
+        }
+
+        /*
+         * Aplica a movimentação incrementando a revisão do ativo e refaz o índice de posição a partir do documento já
+         * alterado. O índice só é gravado se a revisão ainda for a mesma: se outra movimentação entrou no meio, quem a
+         * gravou refaz o índice a partir de um documento que já contém esta, então nenhuma entrada se perde.
+         */
+        private List<WalletEntity.Asset.PositionEntry> modifyAsset(String userId, String assetName, Update update) {
+
+                String assetPath = "assets." + assetName;
+
+                Query query = new Query(Criteria.where("user_id").is(userId).and(assetPath).exists(true));
+                query.fields().include("user_id").include(assetPath);
+
+                WalletEntity wallet = mongoTemplate.findAndModify(query, update.inc(assetPath + ".revision", 1),
+                                FindAndModifyOptions.options().returnNew(true), WalletEntity.class);
+
+                if (wallet == null || wallet.getAssets().get(assetName) == null)
+                        return List.of();
+
+                WalletEntity.Asset asset = wallet.getAssets().get(assetName);
+                List<WalletEntity.Asset.PositionEntry> positionIndex = WalletPositionIndex.build(
+                                asset.getPurchasesInfo(), asset.getSalesInfo());
+
+                Query sameRevision = new Query(Criteria.where("user_id").is(userId)
+                                .and(assetPath + ".revision").is(asset.getRevision()));
+
+                mongoTemplate.updateFirst(sameRevision, new Update().set(assetPath + ".position_index", positionIndex),
+                                WalletEntity.class);
+
+                return positionIndex;
+        }
+
+        private static int quotaAmountAt(Document asset, Instant date) {
+
+                List<Document> positionIndex = asset.getList("position_index", Document.class);
+
+                if (positionIndex != null && !positionIndex.isEmpty()) {
+                        List<WalletEntity.Asset.PositionEntry> entries = positionIndex.stream()
+                                        .map(entry -> new WalletEntity.Asset.PositionEntry(
+                                                        entry.getDate("date").toInstant(),
+                                                        entry.getInteger("quota_amount")))
+                                        .toList();
+
+                        return WalletPositionIndex.quotaAmountAt(entries, date);
+                }
+
+                // Ativos gravados antes do índice de posição refazem a posição pelas movimentações; sem elas, vale a
+                // quantidade atual
+                List<Document> purchases = asset.getList("purchases_info", Document.class);
+
+                if (purchases == null || purchases.isEmpty())
+                        return asset.getInteger("quota_amount", 0);
+
+                return amountUntil(purchases, "purchase_date", "purchase_amount", date)
+                                - amountUntil(asset.getList("sales_info", Document.class), "sale_date", "sale_amount",
+                                                date);
+        }
+
+        private static int amountUntil(List<Document> movements, String dateField, String amountField, Instant date) {
+
+                if (movements == null)
+                        return 0;
+
+                return movements.stream()
+                                .filter(movement -> !movement.getDate(dateField).toInstant().isAfter(date))
+                                .mapToInt(movement -> movement.getInteger(amountField, 0))
+                                .sum();
         }
 }
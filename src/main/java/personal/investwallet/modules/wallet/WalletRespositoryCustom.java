@@ -1,14 +1,39 @@
 package personal.investwallet.modules.wallet;
 
+import personal.investwallet.modules.wallet.dto.AssetHolderDto;
+
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface WalletRespositoryCustom {
 
     List<String> findDistinctAssetNames();
 
+    List<String> findAllUserIds();
+
     List<String> findUserIdsByAssetKey(String assetKey);
 
-    void addPurchaseToAsset(String userId, String assetName, WalletEntity.Asset.PurchasesInfo newPurchase, int quotaIncrement);
+    List<AssetHolderDto> findHoldersByAssetKey(String assetKey);
+
+    List<AssetHolderDto> findHoldersByAssetKeyAt(String assetKey, Instant date);
+
+    Optional<WalletEntity.Asset> findAssetByUserIdAndAssetKey(String userId, String assetKey);
+
+    // As escritas de movimentação retornam o índice de posição refeito a partir do ativo já alterado
+
+    List<WalletEntity.Asset.PositionEntry> addPurchaseToAsset(String userId, String assetName,
+                                                              WalletEntity.Asset.PurchasesInfo newPurchase,
+                                                              int quotaIncrement);
+
+    List<WalletEntity.Asset.PositionEntry> updatePurchaseInAssetByPurchaseId(String userId, String assetName,
+                                                                             List<WalletEntity.Asset.PurchasesInfo> purchasesInfo,
+                                                                             int quotaDecrease);
+
+    List<WalletEntity.Asset.PositionEntry> addSaleToAsset(String userId, String assetName,
+                                                          WalletEntity.Asset.SalesInfo newSale, int quotaIncrement);
 
-    void addSaleToAsset(String userId, String assetName, WalletEntity.Asset.SalesInfo newSale, int quotaIncrement);
+    List<WalletEntity.Asset.PositionEntry> updateSaleInAssetBySaleId(String userId, String assetName,
+                                                                     List<WalletEntity.Asset.SalesInfo> salesInfo,
+                                                                     int quotaIncrement);
 }
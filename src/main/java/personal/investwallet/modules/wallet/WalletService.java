@@ -1,15 +1,13 @@
 package personal.investwallet.modules.wallet;
 
-import com.opencsv.CSVParser;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvException;
 import lombok.SneakyThrows;
 import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import personal.investwallet.csv.CsvParallelParser;
+import personal.investwallet.csv.CsvRowScanner;
 import personal.investwallet.exceptions.*;
 import personal.investwallet.modules.asset.AssetService;
 import personal.investwallet.modules.wallet.dto.*;
@@ -22,9 +20,9 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static personal.investwallet.modules.wallet.WalletEntity.*;
 import static personal.investwallet.modules.wallet.WalletEntity.Asset.*;
@@ -41,16 +39,50 @@ public class WalletService {
     @Autowired
     private AssetService assetService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CsvParallelParser csvParallelParser;
+
     public List<String> getAllAssetNames() {
 
         return walletRepository.findDistinctAssetNames();
     }
 
+    public List<String> getAllUserIds() {
+
+        return walletRepository.findAllUserIds();
+    }
+
+    public Optional<WalletEntity> getWalletByUserId(String userId) {
+
+        return walletRepository.findByUserId(userId);
+    }
+
     public List<String> getAllUserIdsWithWalletCreatedByAssetName(String assetName) {
 
         return walletRepository.findUserIdsByAssetKey(assetName);
     }
 
+    public List<AssetHolderDto> getAllHoldersByAssetName(String assetName) {
+
+        return walletRepository.findHoldersByAssetKey(assetName);
+    }
+
+    public List<AssetHolderDto> getAllHoldersByAssetNameAt(String assetName, Instant date) {
+
+        return walletRepository.findHoldersByAssetKeyAt(assetName, date);
+    }
+
+    // Refeito das compras e vendas gravadas, então já reflete uma movimentação cujo índice ainda não foi regravado
+    public List<PositionEntry> getPositionIndexOfUserAsset(String userId, String assetName) {
+
+        return walletRepository.findAssetByUserIdAndAssetKey(userId, assetName)
+                .map(asset -> WalletPositionIndex.build(asset.getPurchasesInfo(), asset.getSalesInfo()))
+                .orElse(List.of());
+    }
+
     public Integer getQuotaAmountOfAssetByUserId(String userId, String assetName) {
 
         Optional<Document> result = walletRepository.findQuotaAmountByUserIdAndAssetKey(userId, assetName);
@@ -120,7 +152,15 @@ public class WalletService {
                 payload.purchaseDate()
         );
 
-        walletRepository.addPurchaseToAsset(userId, asset.getAssetName(), newPurchase, payload.purchaseAmount());
+        if (asset.getPurchasesInfo() == null)
+            asset.setPurchasesInfo(new ArrayList<>());
+
+        asset.getPurchasesInfo().add(newPurchase);
+
+        List<PositionEntry> positionIndex = walletRepository.addPurchaseToAsset(userId, asset.getAssetName(),
+                newPurchase, payload.purchaseAmount());
+
+        publishWalletChanged(userId, asset.getAssetName(), payload.purchaseDate(), positionIndex);
 
         return "A compra do seu ativo " + asset.getAssetName() + " foi cadastrada com sucesso" ;
     }
@@ -131,6 +171,7 @@ public class WalletService {
         String userId = tokenService.extractUserIdFromToken(token);
 
         Map<String, List<InfoGenericDto>> purchaseList = readCSVFile(file);
+        List<WalletChangedEvent> events = new ArrayList<>();
 
         Optional<WalletEntity> wallet = walletRepository.findByUserId(userId);
 
@@ -167,10 +208,13 @@ public class WalletService {
                 }
 
                 asset.setQuotaAmount(totalAmount);
+                asset.setPositionIndex(WalletPositionIndex.build(asset.getPurchasesInfo(), asset.getSalesInfo()));
                 wallet.get().getAssets().put(assetName, asset);
+                events.add(walletChangedEvent(userId, asset, infoDtoList));
             }
 
             walletRepository.save(wallet.get());
+            events.forEach(eventPublisher::publishEvent);
             return "Os registros de compras foram cadastrados na carteira com sucesso";
 
         } else {
@@ -207,10 +251,13 @@ public class WalletService {
                 }
 
                 asset.setQuotaAmount(totalAmount);
+                asset.setPositionIndex(WalletPositionIndex.build(asset.getPurchasesInfo(), asset.getSalesInfo()));
                 newWallet.getAssets().put(assetName, asset);
+                events.add(walletChangedEvent(userId, asset, infoDtoList));
             }
 
             walletRepository.save(newWallet);
+            events.forEach(eventPublisher::publishEvent);
             return "Uma carteira foi criada e os registros de compras foram cadastrados com sucesso";
         }
 
@@ -241,6 +288,7 @@ public class WalletService {
         int purchaseAmount = payload.purchaseAmount() != null ? payload.purchaseAmount() : purchaseSelected.get().getPurchaseAmount();
         BigDecimal purchasePrice = payload.purchasePrice() != null ? payload.purchasePrice() : purchaseSelected.get().getPurchasePrice();
         Instant purchaseDate = payload.purchaseDate() != null ? payload.purchaseDate() : purchaseSelected.get().getPurchaseDate();
+        Instant previousPurchaseDate = purchaseSelected.get().getPurchaseDate();
 
         if (payload.purchaseAmount() != null && purchaseSelected.get().getPurchaseAmount() != payload.purchaseAmount()) {
             int purchaseAmountRestored = purchaseSelected.get().getPurchaseAmount() * - 1;
@@ -249,6 +297,7 @@ public class WalletService {
 
         BigDecimal purchaseQuotaValue = purchasePrice.divideToIntegralValue(new BigDecimal(purchaseAmount));
 
+        asset.getPurchasesInfo().removeIf(purchase -> purchase.getPurchaseId().equals(purchaseId));
         asset.getPurchasesInfo().add(new PurchasesInfo(
                 purchaseId,
                 purchaseAmount,
@@ -257,7 +306,10 @@ public class WalletService {
                 purchaseDate
         ));
 
-        walletRepository.updatePurchaseInAssetByPurchaseId(userId, assetName, asset.getPurchasesInfo(), purchaseAmount);
+        List<PositionEntry> positionIndex = walletRepository.updatePurchaseInAssetByPurchaseId(userId, assetName,
+                asset.getPurchasesInfo(), purchaseAmount);
+
+        publishWalletChanged(userId, assetName, earliest(previousPurchaseDate, purchaseDate), positionIndex);
 
         return "A compra " + purchaseId + " do ativo " + assetName + " foi atualizada com sucesso";
     }
@@ -268,17 +320,21 @@ public class WalletService {
 
         Asset asset = getAssetVerified(assetName,userId);
 
-        int purchaseAmount = asset.getPurchasesInfo().stream()
+        PurchasesInfo purchaseRemoved = asset.getPurchasesInfo().stream()
                 .filter(purchase -> purchase.getPurchaseId().equals(purchaseId))
                 .findFirst()
-                .map(purchase -> -1 * purchase.getPurchaseAmount())
                 .orElseThrow(() -> new ResourceNotFoundException("Compra com o ID fornecido não encontrada"));
 
+        int purchaseAmount = -1 * purchaseRemoved.getPurchaseAmount();
+
         asset.getPurchasesInfo().removeIf(purchase -> purchase.getPurchaseId().equals(purchaseId));
 
         asset.setQuotaAmount(asset.getQuotaAmount() + purchaseAmount);
 
-        walletRepository.updatePurchaseInAssetByPurchaseId(userId, assetName, asset.getPurchasesInfo(), purchaseAmount);
+        List<PositionEntry> positionIndex = walletRepository.updatePurchaseInAssetByPurchaseId(userId, assetName,
+                asset.getPurchasesInfo(), purchaseAmount);
+
+        publishWalletChanged(userId, assetName, purchaseRemoved.getPurchaseDate(), positionIndex);
 
         return "A compra " + purchaseId + " do ativo " + assetName + " foi removida com sucesso";
     }
@@ -304,7 +360,15 @@ public class WalletService {
                 payload.saleDate()
         );
 
-        walletRepository.addSaleToAsset(userId, asset.getAssetName(), newSale, saleAmount);
+        if (asset.getSalesInfo() == null)
+            asset.setSalesInfo(new ArrayList<>());
+
+        asset.getSalesInfo().add(newSale);
+
+        List<PositionEntry> positionIndex = walletRepository.addSaleToAsset(userId, asset.getAssetName(), newSale,
+                saleAmount);
+
+        publishWalletChanged(userId, asset.getAssetName(), payload.saleDate(), positionIndex);
 
         return "A venda do seu ativo " + asset.getAssetName() + " foi cadastrada com sucesso" ;
     }
@@ -315,6 +379,7 @@ public class WalletService {
         String userId = tokenService.extractUserIdFromToken(token);
 
         Map<String, List<InfoGenericDto>> saleList = readCSVFile(file);
+        List<WalletChangedEvent> events = new ArrayList<>();
 
         Optional<WalletEntity> wallet = walletRepository.findByUserId(userId);
 
@@ -361,10 +426,13 @@ public class WalletService {
 
 
                 asset.setQuotaAmount(totalAmount);
+                asset.setPositionIndex(WalletPositionIndex.build(asset.getPurchasesInfo(), asset.getSalesInfo()));
                 wallet.get().getAssets().put(assetName, asset);
+                events.add(walletChangedEvent(userId, asset, infoDtoList));
             }
 
             walletRepository.save(wallet.get());
+            events.forEach(eventPublisher::publishEvent);
             return "Os registros de vendas foram cadastrados na carteira com sucesso";
 
         } else {
@@ -397,6 +465,7 @@ public class WalletService {
         int saleAmount = payload.saleAmount() != null ? payload.saleAmount() : saleSelected.get().getSaleAmount();
         BigDecimal salePrice = payload.salePrice() != null ? payload.salePrice() : saleSelected.get().getSalePrice();
         Instant saleDate = payload.saleDate() != null ? payload.saleDate() : saleSelected.get().getSaleDate();
+        Instant previousSaleDate = saleSelected.get().getSaleDate();
         BigDecimal saleQuotaValue = salePrice.divideToIntegralValue(new BigDecimal(saleAmount));
 
         if (payload.saleAmount() != null && saleSelected.get().getSaleAmount() != payload.saleAmount()) {
@@ -404,6 +473,7 @@ public class WalletService {
             walletRepository.restoreAmountOfQuotasInAsset(userId, assetName, saleAmountRestored);
         }
 
+        asset.getSalesInfo().removeIf(sale -> sale.getSaleId().equals(saleId));
         asset.getSalesInfo().add(new SalesInfo(
                 saleId,
                 saleAmount,
@@ -412,7 +482,10 @@ public class WalletService {
                 saleDate
         ));
 
-        walletRepository.updateSaleInAssetBySaleId(userId, assetName, asset.getSalesInfo(), saleAmount);
+        List<PositionEntry> positionIndex = walletRepository.updateSaleInAssetBySaleId(userId, assetName,
+                asset.getSalesInfo(), saleAmount);
+
+        publishWalletChanged(userId, assetName, earliest(previousSaleDate, saleDate), positionIndex);
 
         return "A venda " + saleId + " do ativo " + assetName + " foi atualizada com sucesso";
     }
@@ -423,21 +496,46 @@ public class WalletService {
 
         Asset asset = getAssetVerified(assetName, userId);
 
-        int saleAmount = asset.getSalesInfo().stream()
+        SalesInfo saleRemoved = asset.getSalesInfo().stream()
                 .filter(sale -> sale.getSaleId().equals(saleId))
                 .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Venda com o ID fornecido não encontrada"))
-                .getSaleAmount();
+                .orElseThrow(() -> new ResourceNotFoundException("Venda com o ID fornecido não encontrada"));
+
+        int saleAmount = saleRemoved.getSaleAmount();
 
         asset.getSalesInfo().removeIf(sale -> sale.getSaleId().equals(saleId));
 
         asset.setQuotaAmount(asset.getQuotaAmount() + saleAmount);
 
-        walletRepository.updateSaleInAssetBySaleId(userId, assetName, asset.getSalesInfo(), saleAmount);
+        List<PositionEntry> positionIndex = walletRepository.updateSaleInAssetBySaleId(userId, assetName,
+                asset.getSalesInfo(), saleAmount);
+
+        publishWalletChanged(userId, assetName, saleRemoved.getSaleDate(), positionIndex);
 
         return "A venda " + saleId + " do ativo " + assetName + " foi removida com sucesso";
     }
 
+    // Dividendos já registrados a partir da data da movimentação são recalculados por quem escuta o evento
+    private void publishWalletChanged(String userId, String assetName, Instant effectiveFrom,
+                                      List<PositionEntry> positionIndex) {
+
+        eventPublisher.publishEvent(new WalletChangedEvent(userId, assetName, effectiveFrom, positionIndex));
+    }
+
+    private static WalletChangedEvent walletChangedEvent(String userId, Asset asset, List<InfoGenericDto> infoDtoList) {
+
+        Instant effectiveFrom = infoDtoList.stream()
+                .map(InfoGenericDto::date)
+                .min(Comparator.naturalOrder())
+                .orElse(Instant.EPOCH);
+
+        return new WalletChangedEvent(userId, asset.getAssetName(), effectiveFrom, asset.getPositionIndex());
+    }
+
+    private static Instant earliest(Instant first, Instant second) {
+        return first.isBefore(second) ? first : second;
+    }
+
     private String getUserId(String token) {
         return tokenService.extractUserIdFromToken(token);
     }
@@ -461,76 +559,62 @@ public class WalletService {
         return asset;
     }
 
-    private static Map<String, List<InfoGenericDto>> readCSVFile(MultipartFile file) {
-
-        try {
-            // Verifica se o arquivo está vazio ou em um formato inválido
-            validateFile(file);
-
-            Reader reader = new InputStreamReader(file.getInputStream());
-
-            CSVParser parser = new CSVParserBuilder().withSeparator(',').build();
-            CSVReader csvReader = new CSVReaderBuilder(reader).withCSVParser(parser).build();
-
-            List<String[]> rows = csvReader.readAll();
+    private Map<String, List<InfoGenericDto>> readCSVFile(MultipartFile file) {
 
-            // Verifica se cabeçalho segue o padrão desejado
-            validateHeader(rows.get(0));
+        // Verifica se o arquivo está vazio ou em um formato inválido
+        validateFile(file);
 
-            // Remove o cabeçalho
-            rows.remove(0);
-
-            Map<String, List<InfoGenericDto>> groupedInfoByAssetName = processRows(rows);
-            csvReader.close();
-
-            return groupedInfoByAssetName;
+        Reader reader;
 
+        try {
+            reader = new InputStreamReader(file.getInputStream());
         } catch (IOException e) {
             throw new FileProcessingException("Erro ao ler o arquivo CSV");
-        } catch (CsvException e) {
-            throw new InvalidFileFormatException("Erro ao processar o arquivo CSV");
         }
-    }
-
-    private static Map<String, List<InfoGenericDto>> processRows(List<String[]> rows) {
 
+        ZoneId zone = ZoneId.systemDefault();
         Map<String, List<InfoGenericDto>> groupedInfoByAssetName = new HashMap<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-        for (int rowNum = 0; rowNum < rows.size(); rowNum++) {
-            String[] row = rows.get(rowNum);
-            for (int i = 0; i < row.length; i++)
-                row[i] = row[i]
-                        .replace(",", ".");
+        // Verifica se cabeçalho segue o padrão desejado; as linhas são convertidas em paralelo e agrupadas na ordem
+        try (Stream<Map.Entry<String, InfoGenericDto>> rows = csvParallelParser.parse(reader,
+                (header, hasRows) -> validateHeader(header != null ? header : new String[0]),
+                (row, rowNum) -> processRow(row, rowNum, zone))) {
 
-            // Verifica a quantidade colunas de cada linha
-            validateRowData(row, rowNum);
+            rows.forEach(row -> groupedInfoByAssetName
+                    .computeIfAbsent(row.getKey(), k -> new ArrayList<>())
+                    .add(row.getValue()));
+        }
 
-            String assetName = row[0].trim();
+        return groupedInfoByAssetName;
+    }
 
-            LocalDate date = parseDate(row[1].trim(), formatter, rowNum);
-            Instant dateInstant = date.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    private static Map.Entry<String, InfoGenericDto> processRow(CsvRowScanner row, int rowNum, ZoneId zone) {
 
-            // Verifica se data informada é menor ou igual a data corrente
-            validateDate(date);
+        // Verifica a quantidade colunas de cada linha
+        validateRowData(row, rowNum);
 
-            int amountInt = parseInteger(row[2].trim(), rowNum);
+        String assetName = row.text(0);
 
-            BigDecimal priceDecimal = parseBigDecimal(row[3].trim(), "Preço", rowNum);
-            BigDecimal quotaValueDecimal = parseBigDecimal(row[4].trim(), "Valor da cota", rowNum);
+        LocalDate date = parseDate(row, 1, rowNum);
+        Instant dateInstant = date.atStartOfDay(zone).toInstant();
 
-            InfoGenericDto infoDto = new InfoGenericDto(
-                    UUID.randomUUID().toString(),
-                    amountInt,
-                    priceDecimal,
-                    quotaValueDecimal,
-                    dateInstant
-            );
+        // Verifica se data informada é menor ou igual a data corrente
+        validateDate(date);
 
-            groupedInfoByAssetName.computeIfAbsent(assetName, k -> new ArrayList<>()).add(infoDto);
-        }
+        int amountInt = parseInteger(row, 2, rowNum);
 
-        return groupedInfoByAssetName;
+        BigDecimal priceDecimal = parseBigDecimal(row, 3, "Preço", rowNum);
+        BigDecimal quotaValueDecimal = parseBigDecimal(row, 4, "Valor da cota", rowNum);
+
+        InfoGenericDto infoDto = new InfoGenericDto(
+                UUID.randomUUID().toString(),
+                amountInt,
+                priceDecimal,
+                quotaValueDecimal,
+                dateInstant
+        );
+
+        return Map.entry(assetName, infoDto);
     }
 
     private static void validateFile(MultipartFile file) {
@@ -567,16 +651,16 @@ public class WalletService {
         }
     }
 
-    private static void validateRowData(String[] row, int rowNum) {
+    private static void validateRowData(CsvRowScanner row, int rowNum) {
 
-        if (row.length != 5)
+        if (row.columnCount() != 5)
             throw new InvalidFileFormatException(
                     "A linha " + (rowNum + 2) + " possui número incorreto de colunas"
             );
 
 
-        for (int i = 0; i < row.length; i++) {
-            if (row[i].trim().isEmpty()) {
+        for (int i = 0; i < row.columnCount(); i++) {
+            if (row.isBlank(i)) {
                 throw new InvalidFileFormatException(
                         "Na linha " + (rowNum + 2) + ", a coluna " + (i + 1) + " está vazia"
                 );
@@ -594,11 +678,10 @@ public class WalletService {
             );
     }
 
-    private static LocalDate parseDate(String dateStr, DateTimeFormatter formatter,
-                                       int rowNum) {
+    private static LocalDate parseDate(CsvRowScanner row, int column, int rowNum) {
 
         try {
-            return LocalDate.parse(dateStr.trim(), formatter);
+            return row.date(column);
         } catch (DateTimeParseException e) {
             throw new InvalidDateFormatException(
                     "Erro na linha " + (rowNum + 2) + ", " + "Data" +
@@ -607,10 +690,10 @@ public class WalletService {
         }
     }
 
-    private static Integer parseInteger(String value, int rowNum) {
+    private static int parseInteger(CsvRowScanner row, int column, int rowNum) {
 
         try {
-            return Integer.parseInt(value);
+            return row.integer(column);
         } catch (NumberFormatException e) {
             throw new InvalidNumberFormatException(
                     "Erro na linha " + (rowNum + 2) + ", Quantidade: valor numérico inválido"
@@ -618,10 +701,10 @@ public class WalletService {
         }
     }
 
-    private static BigDecimal parseBigDecimal(String value, String fieldName, int rowNum) {
+    private static BigDecimal parseBigDecimal(CsvRowScanner row, int column, String fieldName, int rowNum) {
 
         try {
-            return new BigDecimal(value.trim());
+            return row.decimal(column);
         } catch (NumberFormatException e) {
             throw new InvalidNumberFormatException(
                     "Erro na linha " + (rowNum + 2) + ", " + fieldName +
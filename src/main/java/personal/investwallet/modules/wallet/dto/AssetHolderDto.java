@@ -0,0 +1,7 @@
+package personal.investwallet.modules.wallet.dto;
+
+public record AssetHolderDto(
+        String userId,
+        int quotaAmount
+) {
+}
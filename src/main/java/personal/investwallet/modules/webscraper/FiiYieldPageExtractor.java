@@ -0,0 +1,76 @@
+package personal.investwallet.modules.webscraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.springframework.stereotype.Component;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+@Component
+public class FiiYieldPageExtractor implements YieldPageExtractor {
+
+    private static final String ASSET_TYPE = "fundos-imobiliarios";
+
+    private static final HtmlSectionReader SECTION_READER = new HtmlSectionReader("dy-info");
+
+    private static final Evaluator INCOME_VALUE = QueryParser.parse(
+            "#dy-info > div > div.d-flex.align-items-center > strong");
+    private static final Evaluator BASE_PRICE = QueryParser.parse(
+            "#dy-info > div > div:nth-child(2) > div:nth-child(1) > div:nth-child(2) > div > b");
+    private static final Evaluator BASE_PRICE_DATE = QueryParser.parse(
+            "#dy-info > div > div:nth-child(2) > div:nth-child(3) > div:nth-child(1) > div > b");
+    private static final Evaluator BASE_PAYMENT_DATE = QueryParser.parse(
+            "#dy-info > div > div:nth-child(2) > div:nth-child(3) > div:nth-child(2) > div > b");
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    @Override
+    public String assetType() {
+        return ASSET_TYPE;
+    }
+
+    @Override
+    public ScraperResponseDto extract(Reader page, String baseUri, String assetAcronym) throws IOException {
+
+        String section = SECTION_READER.read(page);
+        if (section == null)
+            throw new IOException("bloco #dy-info não encontrado em " + baseUri);
+
+        Element body = Jsoup.parseBodyFragment(section, baseUri).body();
+
+        String incomeValueText = body.select(INCOME_VALUE).text().replace(",", ".");
+        String basePriceText = body.select(BASE_PRICE).text().replace(",", ".");
+        String basePriceDateText = body.select(BASE_PRICE_DATE).text();
+        String basePaymentDateText = body.select(BASE_PAYMENT_DATE).text();
+
+        LocalDate basePriceLocalDate = LocalDate.parse(basePriceDateText, DATE_FORMATTER);
+        LocalDate basePaymentLocalDate = LocalDate.parse(basePaymentDateText, DATE_FORMATTER);
+
+        int year = basePaymentLocalDate.getYear();
+        int month = basePaymentLocalDate.getMonthValue();
+
+        String yieldAt = String.format("%04d%02d", year, month);
+        BigDecimal incomeValue = new BigDecimal(incomeValueText);
+        BigDecimal basePrice = new BigDecimal(basePriceText);
+        Instant basePriceDate = basePriceLocalDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant basePaymentDate = basePaymentLocalDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+
+        return new ScraperResponseDto(
+                assetAcronym,
+                incomeValue,
+                basePrice,
+                basePriceDate,
+                basePaymentDate,
+                yieldAt
+        );
+    }
+}
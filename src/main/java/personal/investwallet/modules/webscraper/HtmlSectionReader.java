@@ -0,0 +1,143 @@
+package personal.investwallet.modules.webscraper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Devolve só o HTML do elemento com o id informado, parando a leitura quando a tag dele fecha
+public class HtmlSectionReader {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int TAIL_SIZE = 1024;
+
+    private final Pattern idPattern;
+
+    public HtmlSectionReader(String elementId) {
+        // O id precisa vir depois de um espaço, senão atributos como data-id="..." também casariam
+        this.idPattern = Pattern.compile("(?<=\\s)id\\s*=\\s*([\"']?)" + Pattern.quote(elementId) + "\\1[\\s/>]",
+                Pattern.CASE_INSENSITIVE);
+    }
+
+    public String read(Reader reader) throws IOException {
+
+        StringBuilder buffer = new StringBuilder(CHUNK_SIZE * 2);
+        char[] chunk = new char[CHUNK_SIZE];
+
+        int start = findSectionStart(reader, buffer, chunk);
+        if (start < 0)
+            return null;
+
+        buffer.delete(0, start);
+
+        String tagName = readTagName(buffer);
+        int depth = 0;
+        int pos = 0;
+
+        while (true) {
+            int lt = buffer.indexOf("<", pos);
+
+            // Garante caracteres suficientes depois do '<' para identificar a tag
+            if (lt < 0 || lt + tagName.length() + 2 >= buffer.length()) {
+                pos = lt < 0 ? buffer.length() : lt;
+                if (!fill(reader, buffer, chunk))
+                    return null;
+                continue;
+            }
+
+            if ("<!--".contentEquals(buffer.subSequence(lt, lt + 4))) {
+                int commentEnd = buffer.indexOf("-->", lt + 4);
+                if (commentEnd < 0) {
+                    pos = lt;
+                    if (!fill(reader, buffer, chunk))
+                        return null;
+                    continue;
+                }
+                pos = commentEnd + 3;
+                continue;
+            }
+
+            boolean closing = buffer.charAt(lt + 1) == '/';
+            int nameStart = lt + (closing ? 2 : 1);
+
+            if (!matchesTagName(buffer, nameStart, tagName)) {
+                pos = lt + 1;
+                continue;
+            }
+
+            int gt = buffer.indexOf(">", nameStart);
+            if (gt < 0) {
+                pos = lt;
+                if (!fill(reader, buffer, chunk))
+                    return null;
+                continue;
+            }
+
+            if (closing)
+                depth--;
+            else if (buffer.charAt(gt - 1) != '/')
+                depth++;
+
+            if (depth <= 0)
+                return buffer.substring(0, gt + 1);
+
+            pos = gt + 1;
+        }
+    }
+
+    private int findSectionStart(Reader reader, StringBuilder buffer, char[] chunk) throws IOException {
+
+        while (fill(reader, buffer, chunk)) {
+            Matcher matcher = idPattern.matcher(buffer);
+
+            if (matcher.find()) {
+                int tagStart = buffer.lastIndexOf("<", matcher.start());
+                if (tagStart >= 0)
+                    return tagStart;
+            }
+
+            // Mantém só o final do buffer, onde uma tag pode ter ficado pela metade
+            if (buffer.length() > TAIL_SIZE)
+                buffer.delete(0, buffer.length() - TAIL_SIZE);
+        }
+
+        return -1;
+    }
+
+    private static String readTagName(StringBuilder buffer) {
+
+        int end = 1;
+        while (end < buffer.length() && isNameChar(buffer.charAt(end)))
+            end++;
+
+        return buffer.substring(1, end).toLowerCase();
+    }
+
+    private static boolean matchesTagName(StringBuilder buffer, int nameStart, String tagName) {
+
+        int nameEnd = nameStart + tagName.length();
+        if (nameEnd >= buffer.length())
+            return false;
+
+        for (int i = 0; i < tagName.length(); i++) {
+            if (Character.toLowerCase(buffer.charAt(nameStart + i)) != tagName.charAt(i))
+                return false;
+        }
+
+        return !isNameChar(buffer.charAt(nameEnd));
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == ':';
+    }
+
+    private static boolean fill(Reader reader, StringBuilder buffer, char[] chunk) throws IOException {
+
+        int read = reader.read(chunk);
+        if (read < 0)
+            return false;
+
+        buffer.append(chunk, 0, read);
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package personal.investwallet.modules.webscraper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import personal.investwallet.exceptions.ScraperProcessingException;
+import personal.investwallet.modules.announcement.AnnouncementService;
+import personal.investwallet.modules.webscraper.dto.ArchivedPageDto;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+// Reprocessa as páginas arquivadas quando a aplicação sobe com --reextract-archive[=tipo-de-ativo]
+@Component
+@Slf4j
+public class PageArchiveReextractionRunner implements ApplicationRunner {
+
+    static final String REEXTRACT_OPTION = "reextract-archive";
+    private static final String DEFAULT_ASSET_TYPE = "fundos-imobiliarios";
+
+    @Autowired
+    private PageArchiveService pageArchiveService;
+
+    @Autowired
+    private ScraperService scraperService;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Value("${scraper.archive.reextract-parallelism:0}")
+    private int parallelism;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+
+        if (!args.containsOption(REEXTRACT_OPTION))
+            return;
+
+        List<String> values = args.getOptionValues(REEXTRACT_OPTION);
+        String assetType = values.isEmpty() || values.get(0).isBlank() ? DEFAULT_ASSET_TYPE : values.get(0);
+
+        reextract(assetType);
+    }
+
+    public int reextract(String assetType) throws InterruptedException {
+
+        List<ArchivedPageDto> pages = pageArchiveService.getAllArchivedPages(assetType);
+
+        // As páginas vêm ordenadas por fetched_at, então cada ativo é reprocessado da mais antiga para a mais nova
+        Map<String, List<ArchivedPageDto>> pagesByAsset = pages.stream()
+                .collect(Collectors.groupingBy(ArchivedPageDto::assetName, LinkedHashMap::new, Collectors.toList()));
+
+        log.info("Reprocessando {} páginas arquivadas de {} ativos do tipo {}", pages.size(), pagesByAsset.size(),
+                assetType);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        try {
+            int registered = pool.submit(() -> pagesByAsset.values().parallelStream()
+                    .mapToInt(this::reextractAssetPages)
+                    .sum()).get();
+
+            log.info("Reprocessamento finalizado: {} anúncios registrados a partir do arquivo", registered);
+
+            return registered;
+        } catch (ExecutionException e) {
+            throw new ScraperProcessingException("Erro ao reprocessar páginas arquivadas, " + e.getCause().getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int reextractAssetPages(List<ArchivedPageDto> pages) {
+
+        int registered = 0;
+
+        for (ArchivedPageDto page : pages) {
+            try (Reader content = pageArchiveService.openArchivedPage(page)) {
+                ScraperResponseDto response = scraperService.extractArchivedYield(page.assetType(), page.assetName(),
+                        content, page.url());
+
+                announcementService.registerScrapedAnnouncement(page.assetName(), response);
+                registered++;
+            } catch (IOException | ScraperProcessingException e) {
+                log.warn("Página arquivada {} do ativo {} não reprocessada: {}", page.id(), page.assetName(),
+                        e.getMessage());
+            }
+        }
+
+        return registered;
+    }
+}
@@ -0,0 +1,113 @@
+package personal.investwallet.modules.webscraper;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+import personal.investwallet.modules.webscraper.dto.ArchivedPageDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+@Slf4j
+public class PageArchiveService {
+
+    private static final String HTML_CONTENT_TYPE = "text/html";
+
+    @Autowired
+    private GridFsTemplate gridFsTemplate;
+
+    public void archive(String assetType, String assetName, String url, byte[] page, Charset charset) {
+
+        // O arquivo é endereçado pelo hash do conteúdo, então uma página que não mudou não é gravada de novo
+        String contentHash = sha256(page);
+
+        if (gridFsTemplate.findOne(new Query(where("filename").is(contentHash))) != null)
+            return;
+
+        Document metadata = new Document("asset_type", assetType)
+                .append("asset_name", assetName)
+                .append("url", url)
+                .append("charset", charset.name())
+                .append("content_encoding", "gzip")
+                .append("fetched_at", Date.from(Instant.now()));
+
+        try {
+            gridFsTemplate.store(new ByteArrayInputStream(gzip(page)), contentHash, HTML_CONTENT_TYPE, metadata);
+        } catch (IOException e) {
+            log.warn("Falha ao arquivar a página do ativo {}: {}", assetName, e.getMessage());
+        }
+    }
+
+    public List<ArchivedPageDto> getAllArchivedPages(String assetType) {
+
+        Query query = new Query(where("metadata.asset_type").is(assetType))
+                .with(Sort.by("metadata.fetched_at"));
+
+        List<ArchivedPageDto> pages = new ArrayList<>();
+
+        for (GridFSFile file : gridFsTemplate.find(query)) {
+            Document metadata = file.getMetadata();
+            pages.add(new ArchivedPageDto(
+                    file.getObjectId(),
+                    metadata.getString("asset_type"),
+                    metadata.getString("asset_name"),
+                    metadata.getString("url"),
+                    metadata.getString("charset"),
+                    metadata.getDate("fetched_at").toInstant()));
+        }
+
+        return pages;
+    }
+
+    public Reader openArchivedPage(ArchivedPageDto page) throws IOException {
+
+        GridFSFile file = gridFsTemplate.findOne(new Query(where("_id").is(page.id())));
+        if (file == null)
+            throw new IOException("página arquivada não encontrada: " + page.id());
+
+        GridFsResource resource = gridFsTemplate.getResource(file);
+
+        return new InputStreamReader(new GZIPInputStream(resource.getInputStream()), Charset.forName(page.charset()));
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private static String sha256(byte[] content) {
+
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package personal.investwallet.modules.webscraper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+@Component
+@Slf4j
+public class ScraperCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    @Autowired
+    public ScraperCircuitBreaker(
+            @Value("${scraper.resilience.failure-threshold:5}") int failureThreshold,
+            @Value("${scraper.resilience.open-seconds:60}") long openSeconds) {
+
+        this(failureThreshold, Duration.ofSeconds(openSeconds), System::nanoTime);
+    }
+
+    ScraperCircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openNanos)
+                    return false;
+
+                // Depois do tempo aberto, uma única chamada de teste decide se o circuito fecha
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight)
+                    return false;
+
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+
+        if (state != State.CLOSED)
+            log.info("Circuito do web scraping fechado");
+
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+
+        consecutiveFailures++;
+        probeInFlight = false;
+
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            log.warn("Circuito do web scraping aberto após {} falhas consecutivas", consecutiveFailures);
+        }
+    }
+
+    // Devolve a vaga da chamada de teste que terminou sem sucesso nem falha, para que o circuito não fique preso
+    public synchronized void releasePermission() {
+        probeInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
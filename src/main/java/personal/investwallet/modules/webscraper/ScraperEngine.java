@@ -0,0 +1,266 @@
+package personal.investwallet.modules.webscraper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import personal.investwallet.exceptions.ScraperProcessingException;
+import personal.investwallet.exceptions.ScraperUnavailableException;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+import personal.investwallet.modules.webscraper.dto.ScraperResultDto;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class ScraperEngine {
+
+    private final ScraperService scraperService;
+    private final ScraperCircuitBreaker circuitBreaker;
+    private final ScraperRetryPolicy retryPolicy;
+    private final ExecutorService executor;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final String yieldHost;
+    private final String assetsHost;
+    private final int maxPerHost;
+    private final long bulkheadWaitMs;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public ScraperEngine(
+            ScraperService scraperService,
+            ScraperCircuitBreaker circuitBreaker,
+            ScraperRetryPolicy retryPolicy,
+            @Value("${url.base.yield}") String yieldBaseUrl,
+            @Value("${url.base.assets}") String assetsBaseUrl,
+            @Value("${scraper.engine.pool-size:16}") int poolSize,
+            @Value("${scraper.engine.max-per-host:4}") int maxPerHost,
+            @Value("${scraper.engine.rate-per-second:5}") double ratePerSecond,
+            @Value("${scraper.engine.burst:5}") int burst,
+            @Value("${scraper.resilience.bulkhead-wait-ms:30000}") long bulkheadWaitMs) {
+
+        this.scraperService = scraperService;
+        this.circuitBreaker = circuitBreaker;
+        this.retryPolicy = retryPolicy;
+        this.yieldHost = extractHost(yieldBaseUrl);
+        this.assetsHost = extractHost(assetsBaseUrl);
+        this.maxPerHost = maxPerHost;
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.rateLimiter = new TokenBucketRateLimiter(ratePerSecond, burst);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "scraper-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<ScraperResultDto> fiiYieldScrapingMany(String assetType, List<String> assetNames) {
+        return fiiYieldScrapingMany(assetType, assetNames, result -> { });
+    }
+
+    /*
+     * O callback roda na thread do scraping assim que cada ativo termina, antes dos demais serem concluídos. Uma falha
+     * do callback não vira falha de scraping do ativo: os demais ativos terminam normalmente e a falha é lançada no
+     * final, para que quem chamou possa tentar de novo.
+     */
+    public List<ScraperResultDto> fiiYieldScrapingMany(String assetType, List<String> assetNames,
+                                                       Consumer<ScraperResultDto> onResult) {
+
+        List<Future<ScraperResultDto>> futures = new ArrayList<>(assetNames.size());
+        ScraperRetryPolicy.RetryBudget retryBudget = retryPolicy.newBudget(assetNames.size());
+        Map<String, RuntimeException> callbackFailures = new ConcurrentHashMap<>();
+
+        for (String assetName : assetNames) {
+            futures.add(executor.submit(() -> {
+                ScraperResultDto result = scrape(assetType, assetName, retryBudget);
+
+                try {
+                    onResult.accept(result);
+                } catch (RuntimeException e) {
+                    callbackFailures.put(assetName, e);
+                }
+
+                return result;
+            }));
+        }
+
+        List<ScraperResultDto> results = new ArrayList<>(assetNames.size());
+
+        for (int i = 0; i < futures.size(); i++) {
+            String assetName = assetNames.get(i);
+
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new ScraperProcessingException("Web scraping interrompido durante o ativo " + assetName);
+            } catch (ExecutionException e) {
+                results.add(ScraperResultDto.failure(assetName, e.getCause().getMessage()));
+            }
+        }
+
+        long failures = results.stream().filter(result -> !result.isSuccess()).count();
+        log.info("Web scraping finalizado: {} ativos com sucesso e {} com falha", results.size() - failures, failures);
+
+        if (!callbackFailures.isEmpty()) {
+            List<String> failedAssetNames = assetNames.stream().filter(callbackFailures::containsKey).toList();
+            ScraperProcessingException exception = new ScraperProcessingException(
+                    "Erro ao processar o resultado do web scraping dos ativos " + failedAssetNames);
+            failedAssetNames.forEach(assetName -> exception.addSuppressed(callbackFailures.get(assetName)));
+            throw exception;
+        }
+
+        return results;
+    }
+
+    public List<String> assetCatalogScrapingMany(String assetType, int pages) {
+
+        List<Future<Outcome<List<String>>>> futures = new ArrayList<>(pages);
+        ScraperRetryPolicy.RetryBudget retryBudget = retryPolicy.newBudget(pages);
+
+        for (int page = 1; page <= pages; page++) {
+            int currentPage = page;
+            futures.add(executor.submit(() -> callResiliently(assetsHost, "catálogo " + assetType + " página " +
+                    currentPage, retryBudget, () -> scraperService.assetCatalogScraping(assetType, currentPage))));
+        }
+
+        // As páginas são juntadas na ordem, descartando tickers repetidos entre elas
+        Set<String> assetNames = new LinkedHashSet<>();
+        int failures = 0;
+
+        for (Future<Outcome<List<String>>> future : futures) {
+            try {
+                Outcome<List<String>> outcome = future.get();
+                if (outcome.isSuccess())
+                    assetNames.addAll(outcome.value());
+                else
+                    failures++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                throw new ScraperProcessingException("Web scraping do catálogo " + assetType + " interrompido");
+            } catch (ExecutionException e) {
+                failures++;
+            }
+        }
+
+        log.info("Catálogo {} lido: {} ativos em {} páginas, {} com falha", assetType, assetNames.size(), pages,
+                failures);
+
+        return new ArrayList<>(assetNames);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ScraperResultDto scrape(String assetType, String assetName, ScraperRetryPolicy.RetryBudget retryBudget)
+            throws InterruptedException {
+
+        long start = System.nanoTime();
+        Outcome<ScraperResponseDto> outcome = callResiliently(yieldHost, "ativo " + assetName, retryBudget,
+                () -> scraperService.fiiYieldScraping(assetType, assetName));
+
+        ScraperResultDto result = outcome.isSuccess()
+                ? ScraperResultDto.success(assetName, outcome.value())
+                : ScraperResultDto.failure(assetName, outcome.errorMessage());
+
+        return result.withElapsed(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private <T> Outcome<T> callResiliently(String host, String label, ScraperRetryPolicy.RetryBudget retryBudget,
+                                           Supplier<T> call) throws InterruptedException {
+
+        // Bulkhead: limita as chamadas simultâneas ao host sem prender threads indefinidamente
+        Semaphore permits = hostPermits.computeIfAbsent(host, key -> new Semaphore(maxPerHost, true));
+
+        for (int attempt = 1; ; attempt++) {
+
+            // A permissão vale só para a tentativa, para que a espera do backoff não bloqueie outros ativos do host
+            if (!permits.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS))
+                return Outcome.failure("Limite de chamadas simultâneas ao host " + host + " atingido");
+
+            long backoffMillis;
+
+            try {
+                if (!circuitBreaker.tryAcquirePermission())
+                    return Outcome.failure("Web scraping suspenso, circuito aberto para " + host);
+
+                try {
+                    rateLimiter.acquire();
+                    T value = call.get();
+                    circuitBreaker.onSuccess();
+                    return Outcome.success(value);
+
+                } catch (ScraperUnavailableException e) {
+                    circuitBreaker.onFailure();
+
+                    if (attempt >= retryPolicy.maxAttempts() || !retryBudget.tryConsume()) {
+                        log.warn("Falha no web scraping do {} após {} tentativa(s): {}", label, attempt,
+                                e.getMessage());
+                        return Outcome.failure(e.getMessage());
+                    }
+
+                    backoffMillis = retryPolicy.backoffMillis(attempt);
+
+                } catch (ScraperProcessingException e) {
+                    // O site respondeu, então a falha é da página e não conta para o circuito
+                    circuitBreaker.onSuccess();
+                    log.warn("Falha no web scraping do {}: {}", label, e.getMessage());
+                    return Outcome.failure(e.getMessage());
+
+                } catch (RuntimeException e) {
+                    circuitBreaker.onFailure();
+                    throw e;
+
+                } catch (InterruptedException | Error e) {
+                    // Sem resposta do site não há resultado para o circuito, só a permissão a devolver
+                    circuitBreaker.releasePermission();
+                    throw e;
+                }
+            } finally {
+                permits.release();
+            }
+
+            Thread.sleep(backoffMillis);
+        }
+    }
+
+    private static String extractHost(String baseUrl) {
+
+        try {
+            String host = URI.create(baseUrl).getHost();
+            return host != null ? host : baseUrl;
+        } catch (IllegalArgumentException e) {
+            return baseUrl;
+        }
+    }
+
+    private record Outcome<T>(T value, String errorMessage) {
+
+        static <T> Outcome<T> success(T value) {
+            return new Outcome<>(value, null);
+        }
+
+        static <T> Outcome<T> failure(String errorMessage) {
+            return new Outcome<>(null, errorMessage);
+        }
+
+        boolean isSuccess() {
+            return errorMessage == null;
+        }
+    }
+}
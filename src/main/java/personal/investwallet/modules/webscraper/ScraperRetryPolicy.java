@@ -0,0 +1,63 @@
+package personal.investwallet.modules.webscraper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class ScraperRetryPolicy {
+
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final double retryBudgetRatio;
+    private final int retryBudgetMin;
+
+    public ScraperRetryPolicy(
+            @Value("${scraper.resilience.max-attempts:3}") int maxAttempts,
+            @Value("${scraper.resilience.backoff-base-ms:200}") long backoffBaseMs,
+            @Value("${scraper.resilience.backoff-max-ms:5000}") long backoffMaxMs,
+            @Value("${scraper.resilience.retry-budget-ratio:0.1}") double retryBudgetRatio,
+            @Value("${scraper.resilience.retry-budget-min:3}") int retryBudgetMin) {
+
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.retryBudgetRatio = retryBudgetRatio;
+        this.retryBudgetMin = retryBudgetMin;
+    }
+
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    // Backoff exponencial com jitter completo: um valor aleatório entre zero e base * 2^(tentativa - 1)
+    public long backoffMillis(int attempt) {
+
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public RetryBudget newBudget(int calls) {
+        return new RetryBudget(Math.max(retryBudgetMin, (int) Math.ceil(calls * retryBudgetRatio)));
+    }
+
+    public static class RetryBudget {
+
+        private final AtomicInteger remaining;
+
+        RetryBudget(int retries) {
+            this.remaining = new AtomicInteger(retries);
+        }
+
+        public boolean tryConsume() {
+            return remaining.getAndUpdate(current -> current > 0 ? current - 1 : 0) > 0;
+        }
+
+        public int remaining() {
+            return remaining.get();
+        }
+    }
+}
@@ -1,70 +1,369 @@
 package personal.investwallet.modules.webscraper;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import personal.investwallet.exceptions.ScraperProcessingException;
+import personal.investwallet.exceptions.ScraperUnavailableException;
 import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
 
-import java.math.BigDecimal;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
+@Slf4j
 public class ScraperService {
 
+    private static final int VALIDATOR_CACHE_SIZE = 10_000;
+    private static final Duration VALIDATOR_CACHE_TTL = Duration.ofDays(7);
+    private static final ScheduledThreadPoolExecutor DEADLINE_SCHEDULER = newDeadlineScheduler();
+    private static final Evaluator ASSET_LINKS = QueryParser.parse("a[href]");
+    private static final int REUSABLE_TAIL_BYTES = 16 * 1024;
+
     @Value("${url.base.yield}")
     private String yieldBaseUrl;
 
     @Value("${url.base.assets}")
     private String assetsBaseUrl;
 
+    @Value("${scraper.catalog.page-path:/{assetType}?page={page}}")
+    private String catalogPagePath;
+
+    @Autowired
+    private CloseableHttpClient scraperHttpClient;
+
+    @Autowired
+    private List<YieldPageExtractor> yieldPageExtractors;
+
+    @Autowired
+    private PageArchiveService pageArchiveService;
+
+    @Value("${scraper.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${scraper.resilience.call-timeout-ms:20000}")
+    private long callTimeoutMs;
+
+    // Validadores (ETag/Last-Modified) e o resultado já extraído de cada URL
+    private final Cache<String, CachedPage> validatorCache = Caffeine.newBuilder()
+            .maximumSize(VALIDATOR_CACHE_SIZE)
+            .expireAfterWrite(VALIDATOR_CACHE_TTL)
+            .build();
+
     public ScraperResponseDto fiiYieldScraping(String assetType, String assetAcronym) {
 
+        String path = yieldBaseUrl + "/" + assetType + "/" + assetAcronym;
+        CachedPage cached = validatorCache.getIfPresent(path);
+
+        HttpGet request = new HttpGet(path);
+        if (cached != null) {
+            if (cached.etag() != null)
+                request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.etag());
+            if (cached.lastModified() != null)
+                request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+
+        return fetch(request, path, cached != null ? cached::response : null, response -> {
+
+            ScraperResponseDto result = extractYield(response, request, path, assetType, assetAcronym);
+            cacheValidators(path, response, result);
+
+            return result;
+        });
+    }
+
+    public List<String> assetCatalogScraping(String assetType, int page) {
+
+        String path = assetsBaseUrl + catalogPagePath
+                .replace("{assetType}", assetType)
+                .replace("{page}", String.valueOf(page));
+
+        return fetch(new HttpGet(path), path, null, response -> extractCatalogAssetNames(response, path, assetType));
+    }
+
+    private <T> T fetch(HttpGet request, String path, Supplier<T> notModified, PageHandler<T> pageHandler) {
+
+        // Prazo total da chamada: ao vencer, a requisição é cancelada e a conexão abortada
+        ScheduledFuture<?> deadline = callTimeoutMs > 0
+                ? DEADLINE_SCHEDULER.schedule(() -> request.cancel(), callTimeoutMs, TimeUnit.MILLISECONDS)
+                : null;
+
         try {
 
-            String path = yieldBaseUrl + "/" + assetType + "/" + assetAcronym;
-            Document doc = Jsoup.connect(path).get();
-
-            Elements incomeValueTag = doc.select("#dy-info > div > div.d-flex.align-items-center > strong");
-            Elements basePriceTag = doc.select("#dy-info > div > div:nth-child(2) > div:nth-child(1) > div:nth-child(2) > div > b");
-            Elements basePriceDateTag = doc.select("#dy-info > div > div:nth-child(2) > div:nth-child(3) > div:nth-child(1) > div > b");
-            Elements basePaymentDateTag = doc.select("#dy-info > div > div:nth-child(2) > div:nth-child(3) > div:nth-child(2) > div > b");
-
-            String incomeValueText = incomeValueTag.text().replace(",", ".");
-            String basePriceText = basePriceTag.text().replace(",", ".");
-            String basePriceDateText = basePriceDateTag.text();
-            String basePaymentDateText = basePaymentDateTag.text();
-
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            LocalDate basePriceLocalDate = LocalDate.parse(basePriceDateText, formatter);
-            LocalDate basePaymentLocalDate = LocalDate.parse(basePaymentDateText, formatter);
-
-            int year = basePaymentLocalDate.getYear();
-            int month = basePaymentLocalDate.getMonthValue();
-
-            String yieldAt = String.format("%04d%02d", year, month);
-            BigDecimal incomeValue = new BigDecimal(incomeValueText);
-            BigDecimal basePrice = new BigDecimal(basePriceText);
-            Instant basePriceDate = basePriceLocalDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant basePaymentDate = basePaymentLocalDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-
-            return new ScraperResponseDto(
-                    assetAcronym,
-                    incomeValue,
-                    basePrice,
-                    basePriceDate,
-                    basePaymentDate,
-                    yieldAt
-            );
+            return scraperHttpClient.execute(request, response -> {
 
+                if (response.getCode() == HttpStatus.SC_NOT_MODIFIED && notModified != null)
+                    return notModified.get();
+
+                if (response.getCode() >= HttpStatus.SC_SERVER_ERROR || response.getCode() == HttpStatus.SC_TOO_MANY_REQUESTS)
+                    throw new ScraperUnavailableException("Erro ao realizar web scraping, status HTTP " +
+                            response.getCode() + " para " + path);
+
+                if (response.getCode() != HttpStatus.SC_OK)
+                    throw new ScraperProcessingException("Erro ao realizar web scraping, status HTTP " +
+                            response.getCode() + " para " + path);
+
+                try {
+                    return pageHandler.handle(response);
+                } catch (Exception ex) {
+                    if (request.isCancelled())
+                        throw ex;
+
+                    throw new ScraperProcessingException("Erro ao realizar web scraping, " + ex.getMessage());
+                }
+            });
+
+        } catch (ScraperProcessingException ex) {
+            throw ex;
         } catch (Exception ex) {
-           throw new ScraperProcessingException("Erro ao realizar web scraping, " + ex.getMessage());
+            // Falhas de rede e prazo excedido indicam instabilidade do site e podem ser repetidas
+            if (request.isCancelled())
+                throw new ScraperUnavailableException("Erro ao realizar web scraping, prazo de " + callTimeoutMs +
+                        "ms excedido para " + path);
+
+            throw new ScraperUnavailableException("Erro ao realizar web scraping, " + ex.getMessage());
+        } finally {
+            if (deadline != null)
+                deadline.cancel(false);
+        }
+    }
+
+    // A listagem aponta para as páginas dos ativos no formato /{assetType}/{ticker}
+    private List<String> extractCatalogAssetNames(ClassicHttpResponse response, String path, String assetType)
+            throws IOException {
+
+        HttpEntity entity = response.getEntity();
+        if (entity == null)
+            throw new IOException("resposta sem conteúdo para " + path);
+
+        Document doc;
+        try (InputStream body = entity.getContent()) {
+            doc = Jsoup.parse(body, charsetOf(entity).name(), path);
+        }
+
+        Pattern assetLink = Pattern.compile("/" + Pattern.quote(assetType) + "/([A-Za-z]{4}[0-9]{1,2})(?:[/?#]|$)");
+        Set<String> assetNames = new LinkedHashSet<>();
+
+        for (Element anchor : doc.select(ASSET_LINKS)) {
+            Matcher matcher = assetLink.matcher(anchor.attr("href"));
+            if (matcher.find())
+                assetNames.add(matcher.group(1).toUpperCase());
+        }
+
+        return new ArrayList<>(assetNames);
+    }
+
+    /*
+     * O extrator para de ler no fim do #dy-info. Fechar o corpo pelo HttpClient leria o resto da página para devolver
+     * a conexão ao pool, então só um restante pequeno é lido; acima disso a requisição é cancelada e a conexão
+     * descartada. Com o arquivo ligado só o trecho entregue ao extrator é guardado, que é o que a re-extração precisa.
+     */
+    private ScraperResponseDto extractYield(ClassicHttpResponse response, HttpGet request, String path,
+                                            String assetType, String assetAcronym) throws IOException {
+
+        HttpEntity entity = response.getEntity();
+        if (entity == null)
+            throw new IOException("resposta sem conteúdo para " + path);
+
+        YieldPageExtractor extractor = extractorFor(assetType);
+        Charset charset = charsetOf(entity);
+        ReadTrackingInputStream body = new ReadTrackingInputStream(entity.getContent(), archiveEnabled);
+        Reader page = new InputStreamReader(body, charset);
+        ScraperResponseDto result = null;
+
+        try {
+            result = extractor.extract(page, path, assetAcronym);
+
+            if (!body.finishWithin(REUSABLE_TAIL_BYTES))
+                request.cancel();
+
+            return result;
+        } finally {
+            // Uma página interrompida no meio sem extração não serve para reprocessar e não é arquivada
+            if (archiveEnabled && (result != null || body.isFinished()))
+                archivePage(assetType, assetAcronym, path, body.readBytes(), charset);
+
+            closeQuietly(page);
+        }
+    }
+
+    public ScraperResponseDto extractArchivedYield(String assetType, String assetAcronym, Reader page, String url) {
+
+        try {
+            return extractorFor(assetType).extract(page, url, assetAcronym);
+        } catch (Exception ex) {
+            throw new ScraperProcessingException("Erro ao reprocessar página arquivada, " + ex.getMessage());
+        }
+    }
+
+    private void archivePage(String assetType, String assetAcronym, String path, byte[] content, Charset charset) {
+
+        try {
+            pageArchiveService.archive(assetType, assetAcronym, path, content, charset);
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao arquivar a página do ativo {}: {}", assetAcronym, ex.getMessage());
+        }
+    }
+
+    private YieldPageExtractor extractorFor(String assetType) throws IOException {
+
+        for (YieldPageExtractor extractor : yieldPageExtractors) {
+            if (extractor.assetType().equals(assetType))
+                return extractor;
+        }
+
+        throw new IOException("nenhum extrator para o tipo de ativo " + assetType);
+    }
+
+    private void cacheValidators(String path, ClassicHttpResponse response, ScraperResponseDto result) {
+
+        Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+        Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+
+        if (etag == null && lastModified == null) {
+            validatorCache.invalidate(path);
+            return;
+        }
+
+        validatorCache.put(path, new CachedPage(
+                etag != null ? etag.getValue() : null,
+                lastModified != null ? lastModified.getValue() : null,
+                result));
+    }
+
+    private static Charset charsetOf(HttpEntity entity) {
+
+        ContentType contentType = ContentType.parseLenient(entity.getContentType());
+
+        return contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset()
+                : StandardCharsets.UTF_8;
+    }
+
+    private static void closeQuietly(Reader page) {
+
+        try {
+            page.close();
+        } catch (IOException ignored) {
+            // A conexão já foi descartada ou devolvida, o resultado da página não depende do fechamento
         }
     }
 
+    private static ScheduledThreadPoolExecutor newDeadlineScheduler() {
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "scraper-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        return scheduler;
+    }
+
+    @FunctionalInterface
+    private interface PageHandler<T> {
+        T handle(ClassicHttpResponse response) throws IOException;
+    }
+
+    // Marca se o corpo foi lido até o fim e, com o arquivo ligado, guarda os bytes entregues ao extrator
+    private static final class ReadTrackingInputStream extends FilterInputStream {
+
+        private final ByteArrayOutputStream readBytes;
+        private boolean finished;
+
+        ReadTrackingInputStream(InputStream in, boolean keepBytes) {
+            super(in);
+            this.readBytes = keepBytes ? new ByteArrayOutputStream() : null;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            int read = in.read();
+
+            if (read < 0)
+                finished = true;
+            else if (readBytes != null)
+                readBytes.write(read);
+
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+
+            int read = in.read(buffer, offset, length);
+
+            if (read < 0)
+                finished = true;
+            else if (readBytes != null)
+                readBytes.write(buffer, offset, read);
+
+            return read;
+        }
+
+        boolean isFinished() {
+            return finished;
+        }
+
+        // Lê sem guardar até limit bytes do restante, retornando se o corpo chegou ao fim
+        boolean finishWithin(int limit) throws IOException {
+
+            byte[] discarded = new byte[Math.min(limit, 8192)];
+            int remaining = limit;
+
+            while (!finished && remaining > 0) {
+                int read = in.read(discarded, 0, discarded.length);
+
+                if (read < 0)
+                    finished = true;
+                else
+                    remaining -= read;
+            }
+
+            return finished;
+        }
+
+        byte[] readBytes() {
+            return readBytes.toByteArray();
+        }
+    }
+
+    private record CachedPage(String etag, String lastModified, ScraperResponseDto response) {
+    }
+
 }
@@ -0,0 +1,46 @@
+package personal.investwallet.modules.webscraper;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(double tokensPerSecond, int capacity) {
+
+        if (tokensPerSecond <= 0 || capacity <= 0)
+            throw new IllegalArgumentException("A taxa e a capacidade do rate limiter devem ser maiores que zero");
+
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+
+        long waitNanos = reserve();
+
+        if (waitNanos > 0)
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    // Reserva um token e devolve quanto tempo o chamador precisa aguardar até que ele esteja disponível
+    private synchronized long reserve() {
+
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+
+        tokens -= 1;
+
+        if (tokens >= 0)
+            return 0;
+
+        return (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
@@ -0,0 +1,13 @@
+package personal.investwallet.modules.webscraper;
+
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface YieldPageExtractor {
+
+    String assetType();
+
+    ScraperResponseDto extract(Reader page, String baseUri, String assetAcronym) throws IOException;
+}
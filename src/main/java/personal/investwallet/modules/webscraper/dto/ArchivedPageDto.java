@@ -0,0 +1,15 @@
+package personal.investwallet.modules.webscraper.dto;
+
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+public record ArchivedPageDto(
+        ObjectId id,
+        String assetType,
+        String assetName,
+        String url,
+        String charset,
+        Instant fetchedAt
+) {
+}
@@ -0,0 +1,27 @@
+package personal.investwallet.modules.webscraper.dto;
+
+import java.time.Duration;
+
+public record ScraperResultDto(
+        String assetName,
+        ScraperResponseDto response,
+        String errorMessage,
+        Duration elapsed
+) {
+
+    public static ScraperResultDto success(String assetName, ScraperResponseDto response) {
+        return new ScraperResultDto(assetName, response, null, Duration.ZERO);
+    }
+
+    public static ScraperResultDto failure(String assetName, String errorMessage) {
+        return new ScraperResultDto(assetName, null, errorMessage, Duration.ZERO);
+    }
+
+    public ScraperResultDto withElapsed(Duration elapsed) {
+        return new ScraperResultDto(assetName, response, errorMessage, elapsed);
+    }
+
+    public boolean isSuccess() {
+        return response != null;
+    }
+}
@@ -0,0 +1,23 @@
+package personal.investwallet.modules.yield;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Gera o histórico de dividendos de todas as carteiras quando a aplicação sobe com --backfill-yields
+@Component
+public class YieldBackfillRunner implements ApplicationRunner {
+
+    static final String BACKFILL_OPTION = "backfill-yields";
+
+    @Autowired
+    private YieldBackfillService yieldBackfillService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        if (args.containsOption(BACKFILL_OPTION))
+            yieldBackfillService.backfillAllUsers();
+    }
+}
@@ -0,0 +1,192 @@
+package personal.investwallet.modules.yield;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import personal.investwallet.exceptions.BackfillProcessingException;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.announcement.AnnouncementService;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.wallet.WalletPositionIndex;
+import personal.investwallet.modules.wallet.WalletService;
+import personal.investwallet.modules.yield.dto.YieldBackfillResultDto;
+import personal.investwallet.modules.yield.dto.YieldWriteResultDto;
+import personal.investwallet.security.TokenService;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class YieldBackfillService {
+
+    private static final int PROGRESS_LOG_INTERVAL = 50;
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    AnnouncementService announcementService;
+
+    @Autowired
+    YieldBulkWriter yieldBulkWriter;
+
+    @Autowired
+    YieldTotalService yieldTotalService;
+
+    @Autowired
+    YieldCache yieldCache;
+
+    @Autowired
+    TokenService tokenService;
+
+    // Pool único do serviço: requisições simultâneas dividem as mesmas threads em vez de criar um pool cada
+    private final ForkJoinPool pool;
+
+    public YieldBackfillService(@Value("${yield.backfill.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public YieldBackfillResultDto backfillByToken(String token) {
+
+        return backfill(List.of(tokenService.extractUserIdFromToken(token)));
+    }
+
+    public YieldBackfillResultDto backfillAllUsers() {
+
+        return backfill(walletService.getAllUserIds());
+    }
+
+    public YieldBackfillResultDto backfill(List<String> userIds) {
+
+        log.info("Gerando histórico de dividendos de {} usuários", userIds.size());
+
+        // Os anúncios de cada ativo são buscados uma única vez e compartilhados entre os usuários
+        Map<String, List<AnnouncementEntity>> announcementsByAsset = new ConcurrentHashMap<>();
+
+        try {
+            // Um único usuário, como no backfill pela requisição HTTP, roda na própria thread sem passar pelo pool
+            YieldWriteResultDto result = userIds.size() > 1
+                    ? pool.submit(() -> backfillUsers(userIds.parallelStream(), userIds.size(), announcementsByAsset))
+                            .get()
+                    : backfillUsers(userIds.stream(), userIds.size(), announcementsByAsset);
+
+            log.info("Histórico de dividendos gerado: {} inseridos e {} já registrados para {} usuários",
+                    result.inserted(), result.alreadyRegistered(), userIds.size());
+
+            return new YieldBackfillResultDto(userIds.size(), result.inserted(), result.alreadyRegistered());
+        } catch (ExecutionException e) {
+            throw backfillFailure(e.getCause());
+        } catch (RuntimeException e) {
+            throw backfillFailure(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackfillProcessingException("Geração do histórico de dividendos interrompida");
+        }
+    }
+
+    private YieldWriteResultDto backfillUsers(Stream<String> userIds, int userCount,
+                                              Map<String, List<AnnouncementEntity>> announcementsByAsset) {
+
+        AtomicInteger processedUsers = new AtomicInteger();
+        AtomicInteger insertedYields = new AtomicInteger();
+
+        return userIds
+                .map(userId -> {
+                    YieldWriteResultDto userResult = backfillUser(userId, announcementsByAsset);
+                    reportProgress(processedUsers.incrementAndGet(), userCount,
+                            insertedYields.addAndGet(userResult.inserted()));
+                    return userResult;
+                })
+                .reduce(new YieldWriteResultDto(0, 0), YieldBackfillService::sum);
+    }
+
+    // O ForkJoinPool relança uma cópia da exceção da tarefa, então a mensagem útil fica na causa mais interna
+    private static BackfillProcessingException backfillFailure(Throwable failure) {
+
+        Throwable cause = failure;
+        while (cause.getCause() != null)
+            cause = cause.getCause();
+
+        return new BackfillProcessingException("Erro ao gerar o histórico de dividendos, " + cause.getMessage());
+    }
+
+    private YieldWriteResultDto backfillUser(String userId, Map<String, List<AnnouncementEntity>> announcementsByAsset) {
+
+        WalletEntity wallet = walletService.getWalletByUserId(userId).orElse(null);
+
+        if (wallet == null || wallet.getAssets().isEmpty())
+            return new YieldWriteResultDto(0, 0);
+
+        Set<String> yieldAts = new HashSet<>();
+        Stream<YieldEntity> yields = wallet.getAssets().entrySet().stream()
+                .flatMap(asset -> assetYields(userId, asset.getKey(), asset.getValue(), announcementsByAsset))
+                .map(yield -> {
+                    yieldAts.add(yield.getYieldAt());
+                    return yield;
+                });
+
+        // Dividendos já existentes são preservados, então só os meses que faltam são inseridos
+        YieldWriteResultDto result = yieldBulkWriter.write(yields);
+
+        if (result.inserted() > 0) {
+            yieldTotalService.refreshUserMonths(List.of(userId), yieldAts);
+            yieldCache.evictUsers(List.of(userId));
+        }
+
+        return result;
+    }
+
+    private Stream<YieldEntity> assetYields(String userId, String assetName, WalletEntity.Asset asset,
+                                            Map<String, List<AnnouncementEntity>> announcementsByAsset) {
+
+        List<WalletEntity.Asset.PositionEntry> positionIndex = asset.getPositionIndex() == null
+                || asset.getPositionIndex().isEmpty()
+                ? WalletPositionIndex.build(asset.getPurchasesInfo(), asset.getSalesInfo())
+                : asset.getPositionIndex();
+
+        if (positionIndex.isEmpty())
+            return Stream.empty();
+
+        Instant firstMovement = positionIndex.get(0).getDate();
+
+        return announcementsByAsset.computeIfAbsent(assetName, announcementService::getAllAnnouncementsByAssetName)
+                .stream()
+                .filter(announcement -> !announcement.getBasePriceDate().isBefore(firstMovement))
+                .flatMap(announcement -> {
+                    int quotaAmount = WalletPositionIndex.quotaAmountAt(positionIndex, announcement.getBasePriceDate());
+
+                    return quotaAmount > 0
+                            ? Stream.of(YieldService.toFIIYieldEntity(announcement, userId, quotaAmount))
+                            : Stream.empty();
+                });
+    }
+
+    private static void reportProgress(int processedUsers, int totalUsers, int insertedYields) {
+
+        if (processedUsers % PROGRESS_LOG_INTERVAL == 0 || processedUsers == totalUsers)
+            log.info("Histórico de dividendos: {}/{} usuários processados, {} dividendos inseridos", processedUsers,
+                    totalUsers, insertedYields);
+    }
+
+    private static YieldWriteResultDto sum(YieldWriteResultDto first, YieldWriteResultDto second) {
+
+        return new YieldWriteResultDto(first.inserted() + second.inserted(),
+                first.alreadyRegistered() + second.alreadyRegistered());
+    }
+}
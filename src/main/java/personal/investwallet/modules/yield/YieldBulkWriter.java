@@ -0,0 +1,163 @@
+package personal.investwallet.modules.yield;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import personal.investwallet.modules.yield.dto.YieldWriteResultDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class YieldBulkWriter {
+
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final int chunkSize;
+
+    public YieldBulkWriter(MongoTemplate mongoTemplate, @Value("${yield.writer.chunk-size:500}") int chunkSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public YieldWriteResultDto write(Stream<YieldEntity> yields) {
+
+        int inserted = 0;
+        int alreadyRegistered = 0;
+
+        List<YieldEntity> chunk = new ArrayList<>(chunkSize);
+        Iterator<YieldEntity> iterator = yields.iterator();
+
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+
+            if (chunk.size() >= chunkSize || !iterator.hasNext()) {
+                YieldWriteResultDto result = flush(chunk);
+                inserted += result.inserted();
+                alreadyRegistered += result.alreadyRegistered();
+                chunk.clear();
+            }
+        }
+
+        log.info("Gravação de dividendos concluída: {} inseridos e {} já registrados", inserted, alreadyRegistered);
+
+        return new YieldWriteResultDto(inserted, alreadyRegistered);
+    }
+
+    /*
+     * Regrava os dividendos gerados pelo anúncio e remove os que deixaram de ter cotas. Tanto a regravação quanto a
+     * remoção só alcançam o dividendo que ainda tem a data base e o valor por cota do anúncio: um dividendo importado
+     * manualmente com outros valores para o mesmo mês não casa com o filtro, o upsert esbarra no índice único e o
+     * dividendo importado é mantido.
+     */
+    public int overwrite(List<YieldEntity> yields, Collection<YieldEntity> removedYields) {
+
+        if (yields.isEmpty() && removedYields.isEmpty())
+            return 0;
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, YieldEntity.class);
+
+        for (YieldEntity yield : yields) {
+            bulkOps.upsert(generatedFromAnnouncement(yield), toSet(yield));
+        }
+
+        for (YieldEntity removed : removedYields) {
+            bulkOps.remove(generatedFromAnnouncement(removed));
+        }
+
+        BulkWriteResult result;
+
+        try {
+            result = bulkOps.execute();
+
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY_CODE))
+                throw e;
+
+            result = e.getResult();
+        }
+
+        return result.getUpserts().size() + result.getModifiedCount() + result.getDeletedCount();
+    }
+
+    private YieldWriteResultDto flush(List<YieldEntity> chunk) {
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, YieldEntity.class);
+
+        for (YieldEntity yield : chunk) {
+            bulkOps.upsert(
+                    byUserAssetYieldAt(yield.getUserAssetYieldAt()),
+                    toSetOnInsert(yield));
+        }
+
+        try {
+            BulkWriteResult result = bulkOps.execute();
+            return new YieldWriteResultDto(result.getUpserts().size(), result.getMatchedCount());
+
+        } catch (BulkOperationException e) {
+            // Upserts concorrentes da mesma chave esbarram no índice único de user_asset_yield_at, garantido pelo
+            // MongoIndexInitializer na subida: o dividendo já foi registrado
+            List<BulkWriteError> failures = e.getErrors().stream()
+                    .filter(error -> error.getCode() != DUPLICATE_KEY_CODE)
+                    .toList();
+
+            if (!failures.isEmpty())
+                throw e;
+
+            BulkWriteResult result = e.getResult();
+            return new YieldWriteResultDto(
+                    result.getUpserts().size(),
+                    result.getMatchedCount() + e.getErrors().size());
+        }
+    }
+
+    private Update toSetOnInsert(YieldEntity yield) {
+
+        Update update = new Update();
+        toDocument(yield).forEach(update::setOnInsert);
+
+        return update;
+    }
+
+    private Update toSet(YieldEntity yield) {
+
+        Update update = new Update();
+        toDocument(yield).forEach(update::set);
+
+        return update;
+    }
+
+    private Document toDocument(YieldEntity yield) {
+
+        Document document = new Document();
+        mongoTemplate.getConverter().write(yield, document);
+        document.remove("_id");
+
+        return document;
+    }
+
+    private static Query generatedFromAnnouncement(YieldEntity yield) {
+        return new Query(Criteria.where("user_asset_yield_at").is(yield.getUserAssetYieldAt())
+                .and("base_date").is(yield.getBaseDate())
+                .and("income_value").is(yield.getIncomeValue()));
+    }
+
+    private static Query byUserAssetYieldAt(String userAssetYieldAt) {
+        return new Query(Criteria.where("user_asset_yield_at").is(userAssetYieldAt));
+    }
+}
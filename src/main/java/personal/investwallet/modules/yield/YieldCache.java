@@ -0,0 +1,67 @@
+package personal.investwallet.modules.yield;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static personal.investwallet.config.cache.CacheConfig.YIELDS_CACHE;
+
+@Component
+public class YieldCache {
+
+    private final Cache cache;
+
+    // Chaves em cache de cada usuário, para que a invalidação de uma escrita não percorra o cache inteiro
+    final Map<String, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+
+    public YieldCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(YIELDS_CACHE));
+    }
+
+    public <T> T get(String userId, String query, Supplier<T> loader) {
+
+        Key key = new Key(userId, query);
+
+        return cache.get(key, () -> {
+            index(key);
+            return loader.get();
+        });
+    }
+
+    public void evictUsers(Collection<String> userIds) {
+
+        for (String userId : Set.copyOf(userIds)) {
+            Set<Key> keys = keysByUser.remove(userId);
+
+            if (keys != null)
+                keys.forEach(cache::evict);
+        }
+    }
+
+    /*
+     * Registra a chave carregada no índice do usuário. As chaves que o Caffeine já expirou ou removeu por tamanho
+     * são descartadas aqui, só nos misses, para o índice não crescer com consultas que não estão mais em cache.
+     */
+    private void index(Key key) {
+
+        keysByUser.compute(key.userId(), (userId, keys) -> {
+            Set<Key> userKeys = keys != null ? keys : ConcurrentHashMap.newKeySet();
+
+            if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)
+                userKeys.removeIf(cached -> !nativeCache.asMap().containsKey(cached));
+
+            userKeys.add(key);
+            return userKeys;
+        });
+    }
+
+    record Key(String userId, String query) {
+    }
+}
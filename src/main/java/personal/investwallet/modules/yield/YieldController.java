@@ -2,18 +2,24 @@ package personal.investwallet.modules.yield;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import personal.investwallet.modules.yield.dto.YieldAssetNameRequestDto;
+import personal.investwallet.modules.yield.dto.YieldBackfillResultDto;
 import personal.investwallet.modules.yield.dto.YieldInfoByAssetNameResponseDto;
 import personal.investwallet.modules.yield.dto.YieldInfoByYieldAtResponseDto;
+import personal.investwallet.modules.yield.dto.YieldPageResponseDto;
 import personal.investwallet.modules.yield.dto.YieldRequestDto;
 import personal.investwallet.modules.yield.dto.YieldSuccessResponseDto;
+import personal.investwallet.modules.yield.dto.YieldSummaryResponseDto;
 import personal.investwallet.modules.yield.dto.YieldTimeIntervalRequestDto;
+import personal.investwallet.modules.yield.dto.YieldTotalsResponseDto;
 
 import java.util.List;
 import java.util.Map;
@@ -25,6 +31,15 @@ public class YieldController {
     @Autowired
     private YieldService yieldService;
 
+    @Autowired
+    private YieldBackfillService yieldBackfillService;
+
+    @Autowired
+    private YieldTotalService yieldTotalService;
+
+    @Autowired
+    private YieldHistoryService yieldHistoryService;
+
     @Operation(summary = "Registrar diversos dividendos", security = @SecurityRequirement(name = "access_token"))
     @PostMapping()
     public ResponseEntity<YieldSuccessResponseDto> createMany(
@@ -65,6 +80,24 @@ public class YieldController {
                 .body(new YieldSuccessResponseDto(message));
     }
 
+    @Operation(summary = "Gerar o histórico de dividendos de FIIs a partir das compras da carteira", security = @SecurityRequirement(name = "access_token"))
+    @PostMapping("/backfill")
+    public ResponseEntity<YieldSuccessResponseDto> backfill(
+            @CookieValue(value = "access_token") String token) {
+
+        YieldBackfillResultDto result = yieldBackfillService.backfillByToken(token);
+
+        String message;
+
+        if (result.inserted() == 1) {
+            message = "Foi gerado " + result.inserted() + " dividendo do histórico da carteira.";
+        } else {
+            message = "Foram gerados " + result.inserted() + " dividendos do histórico da carteira.";
+        }
+
+        return ResponseEntity.ok(new YieldSuccessResponseDto(message));
+    }
+
     @Operation(summary = "Busca diversos dividendos do usuário dentro de um intervalo de tempo", security = @SecurityRequirement(name = "access_token"))
     @GetMapping("/yield-at")
     public ResponseEntity<Map<String, List<YieldInfoByYieldAtResponseDto>>> getManyByUserIdAndYieldAt(
@@ -76,6 +109,26 @@ public class YieldController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Busca os totais mensais e anuais de dividendos do usuário dentro de um intervalo de tempo", security = @SecurityRequirement(name = "access_token"))
+    @GetMapping("/totals")
+    public ResponseEntity<YieldTotalsResponseDto> getTotalsByUserIdAndYieldAt(
+            @CookieValue(value = "access_token") String token,
+            @Valid @RequestBody YieldTimeIntervalRequestDto payload) {
+
+        YieldTotalsResponseDto response = yieldTotalService.fetchTotalsByTimeInterval(token, payload);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Busca o resumo de dividendos do usuário por mês, ano e ativo com o rendimento sobre o custo", security = @SecurityRequirement(name = "access_token"))
+    @GetMapping("/summary")
+    public ResponseEntity<YieldSummaryResponseDto> getSummaryByUserIdAndYieldAt(
+            @CookieValue(value = "access_token") String token,
+            @Valid @RequestBody YieldTimeIntervalRequestDto payload) {
+
+        YieldSummaryResponseDto response = yieldTotalService.fetchSummaryByTimeInterval(token, payload);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "Busca diversos dividendos do usuário de um ativo específico", security = @SecurityRequirement(name = "access_token"))
     @GetMapping("/asset-name")
     public ResponseEntity<Map<String, List<YieldInfoByAssetNameResponseDto>>> getManyByUserIdAndAssetName(
@@ -86,4 +139,51 @@ public class YieldController {
                 payload);
         return ResponseEntity.ok(response);
     }
+
+    @Operation(summary = "Busca uma página dos dividendos do usuário dentro de um intervalo de tempo", security = @SecurityRequirement(name = "access_token"))
+    @GetMapping("/yield-at/page")
+    public ResponseEntity<YieldPageResponseDto> getPageByUserIdAndYieldAt(
+            @CookieValue(value = "access_token") String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size,
+            @Valid @RequestBody YieldTimeIntervalRequestDto payload) {
+
+        YieldPageResponseDto response = yieldHistoryService.fetchYieldsPageByTimeInterval(token, payload, cursor,
+                size);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Busca uma página dos dividendos do usuário de um ativo específico", security = @SecurityRequirement(name = "access_token"))
+    @GetMapping("/asset-name/page")
+    public ResponseEntity<YieldPageResponseDto> getPageByUserIdAndAssetName(
+            @CookieValue(value = "access_token") String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size,
+            @Valid @RequestBody YieldAssetNameRequestDto payload) {
+
+        YieldPageResponseDto response = yieldHistoryService.fetchYieldsPageByAssetName(token, payload, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Transmite todos os dividendos do usuário dentro de um intervalo de tempo", security = @SecurityRequirement(name = "access_token"))
+    @GetMapping("/yield-at/stream")
+    public ResponseEntity<StreamingResponseBody> streamByUserIdAndYieldAt(
+            @CookieValue(value = "access_token") String token,
+            @Valid @RequestBody YieldTimeIntervalRequestDto payload) {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(yieldHistoryService.streamYieldsByTimeInterval(token, payload));
+    }
+
+    @Operation(summary = "Transmite todos os dividendos do usuário de um ativo específico", security = @SecurityRequirement(name = "access_token"))
+    @GetMapping("/asset-name/stream")
+    public ResponseEntity<StreamingResponseBody> streamByUserIdAndAssetName(
+            @CookieValue(value = "access_token") String token,
+            @Valid @RequestBody YieldAssetNameRequestDto payload) {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(yieldHistoryService.streamYieldsByAssetName(token, payload));
+    }
 }
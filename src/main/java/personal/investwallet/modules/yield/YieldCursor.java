@@ -0,0 +1,39 @@
+package personal.investwallet.modules.yield;
+
+import personal.investwallet.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Posição da última linha entregue na ordenação (yield_at, asset_name), serializada como token opaco
+record YieldCursor(String yieldAt, String assetName) {
+
+    private static final String SEPARATOR = "|";
+
+    static YieldCursor of(YieldEntity yield) {
+        return new YieldCursor(yield.getYieldAt(), yield.getAssetName());
+    }
+
+    static YieldCursor decode(String token) {
+
+        if (token == null || token.isBlank())
+            return null;
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+
+            if (separator <= 0 || separator == value.length() - 1)
+                throw new IllegalArgumentException(value);
+
+            return new YieldCursor(value.substring(0, separator), value.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor de paginação inválido");
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((yieldAt + SEPARATOR + assetName).getBytes(StandardCharsets.UTF_8));
+    }
+}
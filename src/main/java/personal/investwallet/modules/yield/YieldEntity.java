@@ -3,6 +3,8 @@ package personal.investwallet.modules.yield;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -16,12 +18,16 @@ import java.time.Instant;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "yields")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_yield_at_asset_value_idx",
+                def = "{'user_id': 1, 'yield_at': 1, 'asset_name': 1, 'yield_value': 1}"),
+        @CompoundIndex(name = "user_asset_name_yield_at_idx", def = "{'user_id': 1, 'asset_name': 1, 'yield_at': 1}")
+})
 public class YieldEntity {
 
     @MongoId(FieldType.OBJECT_ID)
     private String id;
 
-    @Indexed(useGeneratedName = true)
     @Field("user_id")
     private String userId;
 
@@ -0,0 +1,123 @@
+package personal.investwallet.modules.yield;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import personal.investwallet.exceptions.BadRequestException;
+import personal.investwallet.modules.yield.dto.YieldAssetNameRequestDto;
+import personal.investwallet.modules.yield.dto.YieldInfoResponseDto;
+import personal.investwallet.modules.yield.dto.YieldPageResponseDto;
+import personal.investwallet.modules.yield.dto.YieldTimeIntervalRequestDto;
+import personal.investwallet.security.TokenService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Service
+public class YieldHistoryService {
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    YieldRepository yieldRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    public YieldPageResponseDto fetchYieldsPageByTimeInterval(String token, YieldTimeIntervalRequestDto payload,
+                                                              String cursor, int size) {
+
+        String userId = tokenService.extractUserIdFromToken(token);
+        validatePageSize(size);
+
+        // Uma linha a mais indica se existe próxima página sem precisar de count
+        List<YieldEntity> yields = yieldRepository.findPageByUserIdAndYieldAtBetween(userId,
+                YieldService.toIntervalYieldAt(payload.startAt()), YieldService.toIntervalYieldAt(payload.endAt()),
+                YieldCursor.decode(cursor), size + 1);
+
+        return toPage(yields, size);
+    }
+
+    public YieldPageResponseDto fetchYieldsPageByAssetName(String token, YieldAssetNameRequestDto payload,
+                                                           String cursor, int size) {
+
+        String userId = tokenService.extractUserIdFromToken(token);
+        validatePageSize(size);
+
+        List<YieldEntity> yields = yieldRepository.findPageByUserIdAndAssetName(userId, payload.assetName(),
+                YieldCursor.decode(cursor), size + 1);
+
+        return toPage(yields, size);
+    }
+
+    public StreamingResponseBody streamYieldsByTimeInterval(String token, YieldTimeIntervalRequestDto payload) {
+
+        String userId = tokenService.extractUserIdFromToken(token);
+        String startYieldAt = YieldService.toIntervalYieldAt(payload.startAt());
+        String endYieldAt = YieldService.toIntervalYieldAt(payload.endAt());
+
+        return outputStream -> writeJsonArray(
+                () -> yieldRepository.streamByUserIdAndYieldAtBetween(userId, startYieldAt, endYieldAt), outputStream);
+    }
+
+    public StreamingResponseBody streamYieldsByAssetName(String token, YieldAssetNameRequestDto payload) {
+
+        String userId = tokenService.extractUserIdFromToken(token);
+
+        return outputStream -> writeJsonArray(
+                () -> yieldRepository.streamByUserIdAndAssetName(userId, payload.assetName()), outputStream);
+    }
+
+    // Cada dividendo é serializado assim que sai do cursor, então nenhuma lista do histórico fica em memória
+    private void writeJsonArray(Supplier<Stream<YieldEntity>> yields, OutputStream outputStream) throws IOException {
+
+        try (Stream<YieldEntity> stream = yields.get();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+
+            generator.writeStartArray();
+
+            for (Iterator<YieldEntity> iterator = stream.iterator(); iterator.hasNext(); ) {
+                generator.writeObject(toYieldInfo(iterator.next()));
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+    private static YieldPageResponseDto toPage(List<YieldEntity> yields, int size) {
+
+        boolean hasNext = yields.size() > size;
+        List<YieldEntity> page = hasNext ? yields.subList(0, size) : yields;
+
+        return new YieldPageResponseDto(
+                page.stream().map(YieldHistoryService::toYieldInfo).toList(),
+                hasNext ? YieldCursor.of(page.get(page.size() - 1)).encode() : null);
+    }
+
+    private static YieldInfoResponseDto toYieldInfo(YieldEntity entity) {
+
+        return new YieldInfoResponseDto(
+                entity.getAssetName(),
+                entity.getYieldAt(),
+                entity.getBaseDate(),
+                entity.getPaymentDate(),
+                entity.getBasePrice(),
+                entity.getIncomeValue(),
+                entity.getYieldValue());
+    }
+
+    private static void validatePageSize(int size) {
+
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new BadRequestException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,52 @@
+package personal.investwallet.modules.yield;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import personal.investwallet.modules.wallet.WalletChangedEvent;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class YieldRecomputationListener {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private YieldService yieldService;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public YieldRecomputationListener() {
+        for (int i = 0; i < LOCK_STRIPES; i++)
+            locks[i] = new ReentrantLock();
+    }
+
+    /*
+     * Eventos do mesmo ativo do mesmo usuário são recalculados um de cada vez. Como o recálculo relê a posição da
+     * carteira, a ordem em que os eventos pegam o lock não importa: o último sempre grava a posição mais nova.
+     */
+    @Async
+    @EventListener
+    public void onWalletChanged(WalletChangedEvent event) {
+
+        ReentrantLock lock = lockOf(event.userId(), event.assetName());
+        lock.lock();
+
+        try {
+            yieldService.recomputeFIIYieldsOfUserAsset(event);
+        } catch (RuntimeException e) {
+            log.error("Falha ao recalcular os dividendos do ativo {} do usuário {}", event.assetName(),
+                    event.userId(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockOf(String userId, String assetName) {
+        return locks[Math.floorMod((userId + ":" + assetName).hashCode(), LOCK_STRIPES)];
+    }
+}
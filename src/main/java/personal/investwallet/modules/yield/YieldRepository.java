@@ -7,12 +7,12 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface YieldRepository extends MongoRepository<YieldEntity, String> {
+public interface YieldRepository extends MongoRepository<YieldEntity, String>, YieldRepositoryCustom {
 
     boolean existsByUserAssetYieldAt(String userAssetYieldAt);
 
-    @Query("{ 'user_id': ?0, 'yield_at': ?1 }")
-    List<YieldEntity> findByUserIdAndYieldAt(String userId, String yieldAt);
+    @Query("{ 'user_id': ?0, 'yield_at': { $gte: ?1, $lte: ?2 } }")
+    List<YieldEntity> findByUserIdAndYieldAtBetween(String userId, String startYieldAt, String endYieldAt);
 
     @Query("{ 'user_id': ?0, 'asset_name': ?1 }")
     List<YieldEntity> findByUserIdAndAssetName(String userId, String assetName);
@@ -0,0 +1,26 @@
+package personal.investwallet.modules.yield;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface YieldRepositoryCustom {
+
+    Set<String> findExistingUserAssetYieldAt(Collection<String> userAssetYieldAtKeys);
+
+    void mergeYieldsFromAnnouncements(String yieldAt, Collection<String> assetNames);
+
+    List<String> findUserIdsByYieldAtAndAssetName(String yieldAt, String assetName);
+
+    YieldSummaryFacets summarizeByUserIdAndYieldAtBetween(String userId, String startYieldAt, String endYieldAt);
+
+    List<YieldEntity> findPageByUserIdAndYieldAtBetween(String userId, String startYieldAt, String endYieldAt,
+                                                        YieldCursor after, int limit);
+
+    List<YieldEntity> findPageByUserIdAndAssetName(String userId, String assetName, YieldCursor after, int limit);
+
+    Stream<YieldEntity> streamByUserIdAndYieldAtBetween(String userId, String startYieldAt, String endYieldAt);
+
+    Stream<YieldEntity> streamByUserIdAndAssetName(String userId, String assetName);
+}
@@ -0,0 +1,271 @@
+package personal.investwallet.modules.yield;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.yield.dto.YieldPeriodSummaryDto;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+@Repository
+public class YieldRepositoryImpl implements YieldRepositoryCustom {
+
+    private static final int IN_CHUNK_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final String USER_ASSET_YIELD_AT = "user_asset_yield_at";
+    private static final String YIELD_AT = "yield_at";
+    private static final String ASSET_NAME = "asset_name";
+
+    private final MongoTemplate mongoTemplate;
+
+    public YieldRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Set<String> findExistingUserAssetYieldAt(Collection<String> userAssetYieldAtKeys) {
+
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(userAssetYieldAtKeys));
+        Set<String> existingKeys = new HashSet<>();
+        String collectionName = mongoTemplate.getCollectionName(YieldEntity.class);
+
+        for (int start = 0; start < keys.size(); start += IN_CHUNK_SIZE) {
+            List<String> chunk = keys.subList(start, Math.min(start + IN_CHUNK_SIZE, keys.size()));
+
+            // Projeta apenas a chave única para que a consulta seja respondida pelo próprio índice
+            Query query = new Query(Criteria.where(USER_ASSET_YIELD_AT).in(chunk));
+            query.fields().include(USER_ASSET_YIELD_AT).exclude("_id");
+
+            mongoTemplate.find(query, Document.class, collectionName)
+                    .forEach(doc -> existingKeys.add(doc.getString(USER_ASSET_YIELD_AT)));
+        }
+
+        return existingKeys;
+    }
+
+    @Override
+    public void mergeYieldsFromAnnouncements(String yieldAt, Collection<String> assetNames) {
+
+        if (assetNames.isEmpty())
+            return;
+
+        String yieldsCollection = mongoTemplate.getCollectionName(YieldEntity.class);
+
+        // O primeiro filtro usa o índice curinga de assets, então só as carteiras que já tiveram cotas dos ativos
+        // são lidas
+        List<Document> holdsAnyAsset = assetNames.stream()
+                .flatMap(assetName -> Stream.of(
+                        new Document("assets." + assetName + ".quota_amount", new Document("$gt", 0)),
+                        new Document("assets." + assetName + ".purchases_info.purchase_amount", new Document("$gt", 0))))
+                .toList();
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                stage(new Document("$match", new Document("$or", holdsAnyAsset))),
+                stage(new Document("$project", new Document("_id", 0)
+                        .append("user_id", 1)
+                        .append("asset", new Document("$objectToArray", "$assets")))),
+                stage(new Document("$unwind", "$asset")),
+                stage(new Document("$match", new Document("asset.k", new Document("$in", assetNames)))),
+                stage(new Document("$lookup", new Document("from",
+                        mongoTemplate.getCollectionName(AnnouncementEntity.class))
+                        .append("localField", "asset.k")
+                        .append("foreignField", "asset_name")
+                        .append("pipeline", List.of(new Document("$match", new Document("yield_at", yieldAt))))
+                        .append("as", "announcement"))),
+                stage(new Document("$unwind", "$announcement")),
+                stage(new Document("$set", new Document("quota_amount", quotaAmountAtBaseDate()))),
+                stage(new Document("$match", new Document("quota_amount", new Document("$gt", 0)))),
+                stage(new Document("$project", yieldProjection())),
+                // O $merge exige um índice único só sobre o campo do on, garantido pelo MongoIndexInitializer
+                Aggregation.merge()
+                        .intoCollection(yieldsCollection)
+                        .on(USER_ASSET_YIELD_AT)
+                        .whenMatched(MergeOperation.WhenDocumentsMatch.keepExistingDocument())
+                        .whenDocumentsDontMatch(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                        .build());
+
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(WalletEntity.class), Document.class);
+    }
+
+    @Override
+    public List<String> findUserIdsByYieldAtAndAssetName(String yieldAt, String assetName) {
+
+        Query query = new Query(Criteria.where(YIELD_AT).is(yieldAt).and(ASSET_NAME).is(assetName));
+
+        return mongoTemplate.findDistinct(query, "user_id", YieldEntity.class, String.class);
+    }
+
+    @Override
+    public YieldSummaryFacets summarizeByUserIdAndYieldAtBetween(String userId, String startYieldAt,
+                                                                 String endYieldAt) {
+
+        // A projeção usa só campos do índice (user_id, yield_at, asset_name, yield_value), então o $match é coberto
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(byUserIdAndYieldAtBetween(userId, startYieldAt, endYieldAt)),
+                stage(new Document("$project", new Document("_id", 0)
+                        .append(YIELD_AT, 1)
+                        .append(ASSET_NAME, 1)
+                        .append("yield_value", new Document("$toDecimal", "$yield_value")))),
+                stage(new Document("$facet", new Document("months", sumBy("$" + YIELD_AT))
+                        .append("years", sumBy(new Document("$substrBytes", List.of("$" + YIELD_AT, 0, 4))))
+                        .append("assets", sumBy("$" + ASSET_NAME)))));
+
+        Document facets = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(YieldEntity.class),
+                Document.class).getUniqueMappedResult();
+
+        if (facets == null)
+            return new YieldSummaryFacets(List.of(), List.of(), List.of());
+
+        return new YieldSummaryFacets(toPeriodSummaries(facets, "months"), toPeriodSummaries(facets, "years"),
+                toPeriodSummaries(facets, "assets"));
+    }
+
+    private static List<Document> sumBy(Object groupKey) {
+
+        return List.of(
+                new Document("$group", new Document("_id", groupKey)
+                        .append("yield_value", new Document("$sum", "$yield_value"))
+                        .append("yield_count", new Document("$sum", 1))),
+                new Document("$sort", new Document("_id", 1)));
+    }
+
+    private static List<YieldPeriodSummaryDto> toPeriodSummaries(Document facets, String facet) {
+
+        return facets.getList(facet, Document.class).stream()
+                .map(group -> new YieldPeriodSummaryDto(
+                        group.getString("_id"),
+                        group.get("yield_value", Decimal128.class).bigDecimalValue(),
+                        group.getInteger("yield_count")))
+                .toList();
+    }
+
+    @Override
+    public List<YieldEntity> findPageByUserIdAndYieldAtBetween(String userId, String startYieldAt, String endYieldAt,
+                                                               YieldCursor after, int limit) {
+
+        Criteria criteria = byUserIdAndYieldAtBetween(userId, startYieldAt, endYieldAt);
+
+        // Continua a partir da última linha entregue em vez de pular as anteriores com skip
+        if (after != null)
+            criteria.orOperator(
+                    Criteria.where(YIELD_AT).gt(after.yieldAt()),
+                    Criteria.where(YIELD_AT).is(after.yieldAt()).and(ASSET_NAME).gt(after.assetName()));
+
+        return mongoTemplate.find(new Query(criteria).with(byYieldAtAndAssetName()).limit(limit), YieldEntity.class);
+    }
+
+    @Override
+    public List<YieldEntity> findPageByUserIdAndAssetName(String userId, String assetName, YieldCursor after,
+                                                          int limit) {
+
+        Criteria criteria = Criteria.where("user_id").is(userId).and(ASSET_NAME).is(assetName);
+
+        if (after != null)
+            criteria.and(YIELD_AT).gt(after.yieldAt());
+
+        return mongoTemplate.find(new Query(criteria).with(byYieldAtAndAssetName()).limit(limit), YieldEntity.class);
+    }
+
+    @Override
+    public Stream<YieldEntity> streamByUserIdAndYieldAtBetween(String userId, String startYieldAt, String endYieldAt) {
+
+        Query query = new Query(byUserIdAndYieldAtBetween(userId, startYieldAt, endYieldAt))
+                .with(byYieldAtAndAssetName())
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+
+        return mongoTemplate.stream(query, YieldEntity.class);
+    }
+
+    @Override
+    public Stream<YieldEntity> streamByUserIdAndAssetName(String userId, String assetName) {
+
+        Query query = new Query(Criteria.where("user_id").is(userId).and(ASSET_NAME).is(assetName))
+                .with(byYieldAtAndAssetName())
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+
+        return mongoTemplate.stream(query, YieldEntity.class);
+    }
+
+    private static Criteria byUserIdAndYieldAtBetween(String userId, String startYieldAt, String endYieldAt) {
+        return Criteria.where("user_id").is(userId).and(YIELD_AT).gte(startYieldAt).lte(endYieldAt);
+    }
+
+    private static Sort byYieldAtAndAssetName() {
+        return Sort.by(Sort.Order.asc(YIELD_AT), Sort.Order.asc(ASSET_NAME));
+    }
+
+    // Última posição do índice com data até a data base do anúncio; carteiras sem o índice usam a quantidade atual
+    /*
+     * Mesma regra do WalletRepositoryImpl: o índice de posição quando existe e não está vazio, senão a soma das compras
+     * menos as vendas até a data base e, para ativos sem movimentações, a quantidade atual.
+     */
+    private static Document quotaAmountAtBaseDate() {
+
+        Document positionsUntilBaseDate = new Document("$filter", new Document("input", "$asset.v.position_index")
+                .append("cond", new Document("$lte", List.of("$$this.date", "$announcement.base_price_date"))));
+
+        Document quotaAmountAt = new Document("$ifNull", List.of(
+                new Document("$getField", new Document("field", "quota_amount")
+                        .append("input", new Document("$last", positionsUntilBaseDate))),
+                0));
+
+        Document quotaAmountFromMovements = new Document("$subtract", List.of(
+                amountUntilBaseDate("$asset.v.purchases_info", "purchase_date", "purchase_amount"),
+                amountUntilBaseDate("$asset.v.sales_info", "sale_date", "sale_amount")));
+
+        return new Document("$switch", new Document("branches", List.of(
+                new Document("case", isNotEmpty("$asset.v.position_index")).append("then", quotaAmountAt),
+                new Document("case", isNotEmpty("$asset.v.purchases_info")).append("then", quotaAmountFromMovements)))
+                .append("default", "$asset.v.quota_amount"));
+    }
+
+    private static Document amountUntilBaseDate(String movements, String dateField, String amountField) {
+
+        Document untilBaseDate = new Document("$filter", new Document("input", new Document("$ifNull",
+                List.of(movements, List.of())))
+                .append("cond", new Document("$lte", List.of("$$this." + dateField, "$announcement.base_price_date"))));
+
+        return new Document("$sum", new Document("$map", new Document("input", untilBaseDate)
+                .append("in", "$$this." + amountField)));
+    }
+
+    private static Document isNotEmpty(String array) {
+        return new Document("$gt", List.of(new Document("$size", new Document("$ifNull", List.of(array, List.of()))),
+                0));
+    }
+
+    // Monta o documento no mesmo formato gravado pelo conversor, com os BigDecimal armazenados como texto
+    private static Document yieldProjection() {
+
+        Document yieldValue = new Document("$multiply", List.of(
+                new Document("$toDecimal", "$announcement.income_value"),
+                "$quota_amount"));
+
+        return new Document("_id", 0)
+                .append("user_id", 1)
+                .append("asset_name", "$asset.k")
+                .append("yield_at", "$announcement.yield_at")
+                .append(USER_ASSET_YIELD_AT, new Document("$concat",
+                        List.of("$user_id", "$asset.k", "$announcement.yield_at")))
+                .append("base_date", "$announcement.base_price_date")
+                .append("payment_date", "$announcement.base_payment_date")
+                .append("base_price", "$announcement.base_price")
+                .append("income_value", "$announcement.income_value")
+                .append("yield_value", new Document("$toString", yieldValue))
+                .append("_class", new Document("$literal", YieldEntity.class.getName()));
+    }
+
+    private static AggregationOperation stage(Document stage) {
+        return context -> stage;
+    }
+}
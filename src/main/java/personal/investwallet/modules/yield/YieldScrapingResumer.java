@@ -0,0 +1,28 @@
+package personal.investwallet.modules.yield;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class YieldScrapingResumer {
+
+    @Autowired
+    private YieldService yieldService;
+
+    // Roda fora da thread principal, porque esperar os leases de um nó que caiu expirarem pode levar minutos
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+
+        try {
+            yieldService.resumeUnfinishedFIIYieldScraping();
+        } catch (RuntimeException e) {
+            log.error("Falha ao retomar o web scraping de dividendos", e);
+        }
+    }
+}
@@ -1,43 +1,73 @@
 package personal.investwallet.modules.yield;
 
-import com.opencsv.CSVParser;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvException;
-import lombok.SneakyThrows;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import personal.investwallet.csv.CsvParallelParser;
+import personal.investwallet.csv.CsvRowScanner;
 import personal.investwallet.exceptions.*;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.announcement.AnnouncementService;
 import personal.investwallet.modules.asset.AssetService;
+import personal.investwallet.modules.job.JobCheckpointService;
+import personal.investwallet.modules.job.JobCoordinator;
+import personal.investwallet.modules.job.JobRunEntity;
+import personal.investwallet.modules.wallet.WalletChangedEvent;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.wallet.WalletPositionIndex;
 import personal.investwallet.modules.wallet.WalletService;
-import personal.investwallet.modules.webscraper.ScraperService;
-import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+import personal.investwallet.modules.wallet.dto.AssetHolderDto;
+import personal.investwallet.modules.webscraper.ScraperEngine;
+import personal.investwallet.modules.webscraper.dto.ScraperResultDto;
 import personal.investwallet.modules.yield.dto.YieldAssetNameRequestDto;
 import personal.investwallet.modules.yield.dto.YieldInfoByAssetNameResponseDto;
 import personal.investwallet.modules.yield.dto.YieldInfoByYieldAtResponseDto;
 import personal.investwallet.modules.yield.dto.YieldRequestDto;
 import personal.investwallet.modules.yield.dto.YieldTimeIntervalRequestDto;
+import personal.investwallet.modules.yield.dto.YieldWriteResultDto;
 import personal.investwallet.security.TokenService;
 
 import java.io.*;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Slf4j
 public class YieldService {
 
+    private static final String FII_ASSET_TYPE = "fundos-imobiliarios";
+    private static final String FII_YIELD_SCRAPING_JOB = "fii-yield-scraping";
+    private static final String AGGREGATION_ENGINE = "aggregation";
+
     @Autowired
     YieldRepository yieldRepository;
 
+    @Autowired
+    YieldBulkWriter yieldBulkWriter;
+
+    @Autowired
+    YieldTotalService yieldTotalService;
+
+    @Autowired
+    YieldCache yieldCache;
+
+    @Autowired
+    CsvParallelParser csvParallelParser;
+
     @Autowired
     AssetService assetService;
 
@@ -45,23 +75,43 @@ public class YieldService {
     WalletService walletService;
 
     @Autowired
-    ScraperService scraperService;
+    ScraperEngine scraperEngine;
+
+    @Autowired
+    AnnouncementService announcementService;
+
+    @Autowired
+    JobCoordinator jobCoordinator;
+
+    @Autowired
+    JobCheckpointService jobCheckpointService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
 
     @Autowired
     TokenService tokenService;
 
+    @Value("${yield.generation.engine:jvm}")
+    String yieldGenerationEngine;
+
     public Map<String, List<YieldInfoByYieldAtResponseDto>> fetchAllYieldsByTimeInterval(String token,
             YieldTimeIntervalRequestDto payload) {
 
         String userId = tokenService.extractUserIdFromToken(token);
+        String startYieldAt = toIntervalYieldAt(payload.startAt());
+        String endYieldAt = toIntervalYieldAt(payload.endAt());
 
-        List<YieldEntity> yieldList = new ArrayList<>();
-        List<String> yields = getYieldsAt(payload);
+        return yieldCache.get(userId, "yield-at:" + startYieldAt + ":" + endYieldAt,
+                () -> groupByYieldAt(userId, startYieldAt, endYieldAt));
+    }
 
-        for (String yield : yields) {
-            List<YieldEntity> result = yieldRepository.findByUserIdAndYieldAt(userId, yield);
-            yieldList.addAll(result);
-        }
+    private Map<String, List<YieldInfoByYieldAtResponseDto>> groupByYieldAt(String userId, String startYieldAt,
+            String endYieldAt) {
+
+        // yield_at segue o formato yyyyMM, então o intervalo de meses é uma única faixa lexicográfica
+        List<YieldEntity> yieldList = yieldRepository.findByUserIdAndYieldAtBetween(userId, startYieldAt,
+                endYieldAt);
 
         Map<String, List<YieldInfoByYieldAtResponseDto>> resultMap = new HashMap<>();
 
@@ -85,7 +135,13 @@ public class YieldService {
 
         String userId = tokenService.extractUserIdFromToken(token);
 
-        List<YieldEntity> yield = yieldRepository.findByUserIdAndAssetName(userId, payload.assetName());
+        return yieldCache.get(userId, "asset-name:" + payload.assetName(),
+                () -> groupByAssetName(userId, payload.assetName()));
+    }
+
+    private Map<String, List<YieldInfoByAssetNameResponseDto>> groupByAssetName(String userId, String assetName) {
+
+        List<YieldEntity> yield = yieldRepository.findByUserIdAndAssetName(userId, assetName);
 
         Map<String, List<YieldInfoByAssetNameResponseDto>> resultMap = new HashMap<>();
 
@@ -114,187 +170,372 @@ public class YieldService {
             throw new BadRequestException("O(s) dividendo(s) enviado(s) já estão registrados.");
 
         yieldRepository.saveAll(yieldList);
+        yieldTotalService.refreshUserMonths(List.of(userId), yieldAtsOf(yieldList));
+        yieldCache.evictUsers(List.of(userId));
 
         return yieldList.size();
     }
 
-    @SneakyThrows
     public int registerManyYieldsReceivedByCsv(String token, MultipartFile file) {
 
         String userId = tokenService.extractUserIdFromToken(token);
 
         validateFile(file);
 
-        List<YieldRequestDto> yields = readCSVFile(file);
-        List<YieldEntity> yieldList = getYieldEntities(yields, userId);
+        // A primeira leitura só valida o arquivo inteiro, então um erro em qualquer linha não deixa parte gravada
+        Set<String> verifiedAssetNames = new HashSet<>();
 
-        if (yieldList.size() == 0)
+        try (Stream<YieldRequestDto> yields = readCSVFile(file)) {
+            yields.forEach(yield -> {
+                if (verifiedAssetNames.add(yield.assetName()))
+                    assetService.getAssetTypeByAssetName(yield.assetName());
+            });
+        }
+
+        // A segunda leitura converte linha a linha e grava em lotes; chaves repetidas ou já registradas são ignoradas
+        Set<String> yieldAts = new HashSet<>();
+        YieldWriteResultDto result;
+
+        try (Stream<YieldRequestDto> yields = readCSVFile(file)) {
+            result = yieldBulkWriter.write(yields
+                    .map(yield -> {
+                        YieldEntity entity = toYieldEntity(yield, userId);
+                        yieldAts.add(entity.getYieldAt());
+                        return entity;
+                    }));
+        }
+
+        if (result.inserted() == 0)
             throw new BadRequestException("O(s) dividendo(s) enviado(s) já estão registrados.");
 
-        yieldRepository.saveAll(yieldList);
+        yieldTotalService.refreshUserMonths(List.of(userId), yieldAts);
+        yieldCache.evictUsers(List.of(userId));
 
-        return yieldList.size();
+        return result.inserted();
     }
 
+    @Scheduled(cron = "${yield.scraping.cron:0 0 9 * * *}")
     public void registerManyFIIYieldsReceivedInCurrentMonthByWebScraping() {
 
         List<String> assetNames = walletService.getAllAssetNames();
         String yieldCorrentAt = generateYieldAt(Instant.now());
 
-        List<YieldEntity> yieldList = new ArrayList<>();
+        Timer.Sample runSample = Timer.start(meterRegistry);
+        String outcome = "error";
+
+        try {
+            // Os checkpoints valem para o mês inteiro, então qualquer execução do mês pula os ativos já concluídos.
+            // As partições são do dia, porque os ativos ainda sem anúncio precisam ser consultados de novo amanhã
+            String runId = jobCheckpointService.startRun(FII_YIELD_SCRAPING_JOB, yieldCorrentAt);
+
+            jobCoordinator.runPartitioned(FII_YIELD_SCRAPING_JOB, LocalDate.now().toString(), assetNames,
+                    partition -> registerFIIYieldsByAssetNames(runId, partition, yieldCorrentAt));
+
+            // Uma execução que falhou fica em andamento para ser retomada, então só a concluída é encerrada
+            jobCheckpointService.finishRun(runId);
+            outcome = "success";
+        } finally {
+            runSample.stop(meterRegistry.timer("yield.scraping.run", "outcome", outcome));
+        }
+    }
+
+    // Chamado na subida da aplicação para terminar a execução do mês que uma queda ou redeploy deixou pela metade
+    public void resumeUnfinishedFIIYieldScraping() {
+
+        String yieldCorrentAt = generateYieldAt(Instant.now());
+
+        if (!jobCheckpointService.isRunning(FII_YIELD_SCRAPING_JOB, yieldCorrentAt))
+            return;
+
+        log.info("Retomando o web scraping de dividendos de {} interrompido", yieldCorrentAt);
+        registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+    }
+
+    private void registerFIIYieldsByAssetNames(String runId, List<String> assetNames, String yieldCorrentAt) {
+
+        // Ativos concluídos antes de uma queda ou redeploy não são processados de novo
+        Set<String> completedAssetNames = jobCheckpointService.getCompletedItems(runId);
+
+        List<String> fiiAssetNames = assetNames.stream()
+                .filter(assetName -> !completedAssetNames.contains(assetName))
+                .filter(assetName -> assetService.getAssetTypeByAssetName(assetName).equals(FII_ASSET_TYPE))
+                .toList();
+
+        if (fiiAssetNames.isEmpty())
+            return;
+
+        // Os dividendos de ativos já anunciados são gerados a partir do anúncio armazenado, sem novo web scraping
+        Set<String> announcedAssetNames = new HashSet<>();
+        for (AnnouncementEntity announcement : announcementService.getAllAnnouncementsByYieldAt(yieldCorrentAt,
+                fiiAssetNames)) {
+            announcedAssetNames.add(announcement.getAssetName());
+            registerAssetYields(runId, announcement, Duration.ZERO);
+        }
 
-        for (String assetName : assetNames) {
-            String assetType = assetService.getAssetTypeByAssetName(assetName);
-            List<String> userIds = walletService.getAllUserIdsWithWalletCreatedByAssetName(assetName);
-
-            if (assetType.equals("fundos-imobiliarios")) {
-                ScraperResponseDto scraper = scraperService.fiiYieldScraping(assetType, assetName);
-
-                if (scraper.yieldAt().equals(yieldCorrentAt)) {
-                    for (String userId : userIds) {
-                        String userAssetYieldAt = userId + assetName + yieldCorrentAt;
-
-                        if (!yieldRepository.existsByUserAssetYieldAt(userAssetYieldAt)) {
-                            Integer quotaAmount = walletService.getQuotaAmountOfAssetByUserId(userId, assetName);
-
-                            if (quotaAmount != null && quotaAmount > 0) {
-                                BigDecimal yieldValue = scraper.incomeValue().multiply(BigDecimal.valueOf(quotaAmount));
-
-                                yieldList.add(new YieldEntity(
-                                        UUID.randomUUID().toString(),
-                                        userId,
-                                        assetName,
-                                        yieldCorrentAt,
-                                        userAssetYieldAt,
-                                        scraper.basePriceDate(),
-                                        scraper.basePaymentDate(),
-                                        scraper.basePrice(),
-                                        scraper.incomeValue(),
-                                        yieldValue));
-                            }
-                        }
-                    }
-                }
+        List<String> assetNamesToScrape = fiiAssetNames.stream()
+                .filter(assetName -> !announcedAssetNames.contains(assetName))
+                .toList();
+
+        if (assetNamesToScrape.isEmpty())
+            return;
+
+        scraperEngine.fiiYieldScrapingMany(FII_ASSET_TYPE, assetNamesToScrape,
+                scraperResult -> registerScrapedAssetYields(runId, scraperResult, yieldCorrentAt));
+    }
+
+    private void registerScrapedAssetYields(String runId, ScraperResultDto scraperResult, String yieldCorrentAt) {
+
+        String assetName = scraperResult.assetName();
+
+        if (!scraperResult.isSuccess()) {
+            log.warn("Dividendos do ativo {} não registrados: {}", assetName, scraperResult.errorMessage());
+            jobCheckpointService.markItem(runId, assetName, JobRunEntity.ItemCheckpoint.FAILED,
+                    scraperResult.errorMessage());
+            meterRegistry.timer("yield.scraping.asset", "outcome", "failure").record(scraperResult.elapsed());
+            return;
+        }
+
+        try {
+            AnnouncementEntity announcement = announcementService.registerScrapedAnnouncement(assetName,
+                    scraperResult.response());
+
+            if (announcement.getYieldAt().equals(yieldCorrentAt)) {
+                registerAssetYields(runId, announcement, scraperResult.elapsed());
+            } else {
+                // O último anúncio ainda é de outro mês, então o ativo volta a ser consultado na próxima execução
+                jobCheckpointService.markItem(runId, assetName, JobRunEntity.ItemCheckpoint.FAILED,
+                        "Sem anúncio para " + yieldCorrentAt);
+                meterRegistry.timer("yield.scraping.asset", "outcome", "not_announced").record(scraperResult.elapsed());
             }
+
+        } catch (RuntimeException e) {
+            // A falha volta para o ScraperEngine, que a lança ao final e faz a partição ser tentada de novo
+            jobCheckpointService.markItem(runId, assetName, JobRunEntity.ItemCheckpoint.FAILED, e.getMessage());
+            meterRegistry.timer("yield.scraping.asset", "outcome", "error").record(scraperResult.elapsed());
+            throw e;
         }
+    }
 
-        yieldRepository.saveAll(yieldList);
+    private void registerAssetYields(String runId, AnnouncementEntity announcement, Duration scrapingElapsed) {
+
+        long start = System.nanoTime();
+        String checkpointMessage;
+
+        if (AGGREGATION_ENGINE.equals(yieldGenerationEngine)) {
+            // Os dividendos de todos os cotistas são calculados e gravados pelo próprio Mongo em um único pipeline
+            yieldRepository.mergeYieldsFromAnnouncements(announcement.getYieldAt(),
+                    List.of(announcement.getAssetName()));
+            yieldTotalService.refreshAssetMonth(announcement.getYieldAt(), List.of(announcement.getAssetName()));
+            // O pipeline não devolve os dividendos gravados, então os afetados são lidos do próprio mês do ativo
+            yieldCache.evictUsers(yieldRepository.findUserIdsByYieldAtAndAssetName(announcement.getYieldAt(),
+                    announcement.getAssetName()));
+            checkpointMessage = "dividendos gerados por agregação";
+        } else {
+            List<YieldEntity> yields = getFIIYieldEntities(announcement);
+            YieldWriteResultDto result = yieldBulkWriter.write(yields.stream());
+
+            if (result.inserted() > 0) {
+                yieldTotalService.refreshAssetMonth(announcement.getYieldAt(), List.of(announcement.getAssetName()));
+                yieldCache.evictUsers(yields.stream().map(YieldEntity::getUserId).toList());
+            }
+
+            checkpointMessage = result.inserted() + " dividendos registrados";
+        }
+
+        jobCheckpointService.markItem(runId, announcement.getAssetName(), JobRunEntity.ItemCheckpoint.DONE,
+                checkpointMessage);
+        meterRegistry.timer("yield.scraping.asset", "outcome", "success")
+                .record(scrapingElapsed.plusNanos(System.nanoTime() - start));
     }
 
-    private List<YieldEntity> getYieldEntities(List<YieldRequestDto> yields, String userId) {
+    private List<YieldEntity> getFIIYieldEntities(AnnouncementEntity announcement) {
+
+        String assetName = announcement.getAssetName();
+        String yieldAt = announcement.getYieldAt();
+        // A quantidade considerada é a que o cotista tinha na data base do anúncio, não a atual
+        List<AssetHolderDto> holders = walletService.getAllHoldersByAssetNameAt(assetName,
+                announcement.getBasePriceDate());
+
+        Set<String> registeredKeys = yieldRepository.findExistingUserAssetYieldAt(holders.stream()
+                .map(holder -> holder.userId() + assetName + yieldAt)
+                .toList());
+
         List<YieldEntity> yieldList = new ArrayList<>();
-        for (YieldRequestDto yield : yields) {
-            assetService.getAssetTypeByAssetName(yield.assetName());
-
-            String yieldAt = generateYieldAt(yield.baseDate());
-            String userAssetYieldAt = userId + yield.assetName() + yieldAt;
-
-            if (!yieldRepository.existsByUserAssetYieldAt(userAssetYieldAt)) {
-                yieldList.add(new YieldEntity(
-                        UUID.randomUUID().toString(),
-                        userId,
-                        yield.assetName(),
-                        yieldAt,
-                        userAssetYieldAt,
-                        yield.baseDate(),
-                        yield.paymentDate(),
-                        yield.basePrice(),
-                        yield.incomeValue(),
-                        yield.yieldValue()));
-            }
+
+        for (AssetHolderDto holder : holders) {
+            String userAssetYieldAt = holder.userId() + assetName + yieldAt;
+
+            if (!registeredKeys.contains(userAssetYieldAt))
+                yieldList.add(toFIIYieldEntity(announcement, holder.userId(), holder.quotaAmount()));
         }
+
         return yieldList;
     }
 
-    private static List<YieldRequestDto> readCSVFile(MultipartFile file) {
+    public void recomputeFIIYieldsOfUserAsset(WalletChangedEvent event) {
 
-        try {
-            Reader reader = new InputStreamReader(file.getInputStream());
-
-            CSVParser parser = new CSVParserBuilder().withSeparator(',').build();
-            CSVReader csvReader = new CSVReaderBuilder(reader).withCSVParser(parser).build();
+        List<AnnouncementEntity> announcements = announcementService.getAllAnnouncementsByAssetNameFrom(
+                event.assetName(), event.effectiveFrom());
 
-            List<String[]> rows = csvReader.readAll();
+        // O resumo guardado traz o valor investido da carteira, então a movimentação o invalida mesmo sem dividendos
+        if (announcements.isEmpty()) {
+            yieldCache.evictUsers(List.of(event.userId()));
+            return;
+        }
 
-            if (rows.size() <= 1)
-                throw new EmptyFileException("Arquivo é inválido por estar vazio ou com apenas o cabeçalho preenchido");
+        // A posição é lida de novo da carteira: o índice do evento pode já ter sido superado por outra movimentação
+        List<WalletEntity.Asset.PositionEntry> positionIndex = walletService.getPositionIndexOfUserAsset(
+                event.userId(), event.assetName());
 
-            validateHeader(rows.get(0));
+        List<YieldEntity> yieldList = new ArrayList<>();
+        List<YieldEntity> removedYields = new ArrayList<>();
 
-            return processRows(rows.subList(1, rows.size()));
+        // Só os meses com data base a partir da movimentação mudam; cada um é regravado com a posição daquela data
+        for (AnnouncementEntity announcement : announcements) {
+            int quotaAmount = WalletPositionIndex.quotaAmountAt(positionIndex, announcement.getBasePriceDate());
 
-        } catch (IOException e) {
-            throw new FileProcessingException("Erro ao ler o arquivo CSV");
-        } catch (CsvException e) {
-            throw new InvalidFileFormatException("Erro ao processar o arquivo CSV");
+            if (quotaAmount > 0)
+                yieldList.add(toFIIYieldEntity(announcement, event.userId(), quotaAmount));
+            else
+                removedYields.add(toFIIYieldEntity(announcement, event.userId(), 0));
         }
+
+        int affected = yieldBulkWriter.overwrite(yieldList, removedYields);
+
+        if (affected > 0)
+            yieldTotalService.refreshUserMonths(List.of(event.userId()), announcements.stream()
+                    .map(AnnouncementEntity::getYieldAt)
+                    .toList());
+
+        yieldCache.evictUsers(List.of(event.userId()));
+
+        log.info("Dividendos do ativo {} do usuário {} recalculados: {} meses verificados, {} alterados",
+                event.assetName(), event.userId(), announcements.size(), affected);
     }
 
-    private static List<YieldRequestDto> processRows(List<String[]> rows) {
+    static Set<String> yieldAtsOf(Collection<YieldEntity> yields) {
 
-        List<YieldRequestDto> result = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        return yields.stream().map(YieldEntity::getYieldAt).collect(Collectors.toSet());
+    }
+
+    static YieldEntity toFIIYieldEntity(AnnouncementEntity announcement, String userId, int quotaAmount) {
+
+        return new YieldEntity(
+                null,
+                userId,
+                announcement.getAssetName(),
+                announcement.getYieldAt(),
+                userId + announcement.getAssetName() + announcement.getYieldAt(),
+                announcement.getBasePriceDate(),
+                announcement.getBasePaymentDate(),
+                announcement.getBasePrice(),
+                announcement.getIncomeValue(),
+                announcement.getIncomeValue().multiply(BigDecimal.valueOf(quotaAmount)));
+    }
 
-        for (int rowNum = 0; rowNum < rows.size(); rowNum++) {
-            try {
-                String[] row = rows.get(rowNum);
-                for (int i = 0; i < row.length; i++) {
-                    row[i] = row[i].replace(",", ".");
-                }
+    private List<YieldEntity> getYieldEntities(List<YieldRequestDto> yields, String userId) {
+
+        Set<String> verifiedAssetNames = new HashSet<>();
+        List<String> userAssetYieldAtKeys = new ArrayList<>(yields.size());
+
+        for (YieldRequestDto yield : yields) {
+            if (verifiedAssetNames.add(yield.assetName()))
+                assetService.getAssetTypeByAssetName(yield.assetName());
 
-                validateRowData(row, rowNum + 2); // +2 porque começamos após o cabeçalho
+            userAssetYieldAtKeys.add(userId + yield.assetName() + generateYieldAt(yield.baseDate()));
+        }
 
-                String assetName = row[0].trim();
-                String yieldAt = row[1].trim();
+        // Chaves já registradas são acumuladas para descartar também as repetidas dentro do próprio lote
+        Set<String> registeredKeys = new HashSet<>(yieldRepository.findExistingUserAssetYieldAt(userAssetYieldAtKeys));
 
-                validateYieldAt(yieldAt);
+        List<YieldEntity> yieldList = new ArrayList<>();
+        for (int i = 0; i < yields.size(); i++) {
+            if (registeredKeys.add(userAssetYieldAtKeys.get(i)))
+                yieldList.add(toYieldEntity(yields.get(i), userId));
+        }
+        return yieldList;
+    }
 
-                LocalDate baseLocalDate = parseDate(row[2], formatter, "Data Base", rowNum + 2);
-                LocalDate paymentLocalDate = parseDate(row[3], formatter, "Data de Pagamento", rowNum + 2);
+    private static YieldEntity toYieldEntity(YieldRequestDto yield, String userId) {
+
+        String yieldAt = generateYieldAt(yield.baseDate());
+
+        return new YieldEntity(
+                UUID.randomUUID().toString(),
+                userId,
+                yield.assetName(),
+                yieldAt,
+                userId + yield.assetName() + yieldAt,
+                yield.baseDate(),
+                yield.paymentDate(),
+                yield.basePrice(),
+                yield.incomeValue(),
+                yield.yieldValue());
+    }
 
-                validateDate(baseLocalDate, paymentLocalDate);
+    // O arquivo é percorrido em blocos a cada leitura, convertidos em paralelo e entregues na ordem do arquivo;
+    // o stream precisa ser fechado para liberar o arquivo
+    private Stream<YieldRequestDto> readCSVFile(MultipartFile file) {
 
-                BigDecimal basePrice = parseBigDecimal(row[4], "Preço Base", rowNum + 2);
-                BigDecimal incomeValue = parseBigDecimal(row[5], "Valor do Rendimento", rowNum + 2);
-                BigDecimal yieldValue = parseBigDecimal(row[6], "Valor do Yield", rowNum + 2);
+        Reader reader;
 
-                result.add(new YieldRequestDto(
-                        assetName,
-                        baseLocalDate.atStartOfDay(ZoneId.systemDefault()).toInstant(),
-                        paymentLocalDate.atStartOfDay(ZoneId.systemDefault()).toInstant(),
-                        basePrice,
-                        incomeValue,
-                        yieldValue));
-            } catch (DateTimeParseException e) {
-                throw new InvalidDateFormatException(
-                        "Erro na linha " + (rowNum + 2) + ": " + e.getMessage());
-            } catch (NumberFormatException e) {
-                throw new InvalidNumberFormatException(
-                        "Erro na linha " + (rowNum + 2) + ": " + e.getMessage());
-            }
+        try {
+            reader = new InputStreamReader(file.getInputStream());
+        } catch (IOException e) {
+            throw new FileProcessingException("Erro ao ler o arquivo CSV");
         }
 
-        return result;
+        ZoneId zone = ZoneId.systemDefault();
+
+        return csvParallelParser.parse(reader,
+                (header, hasRows) -> {
+                    if (header == null || !hasRows)
+                        throw new EmptyFileException(
+                                "Arquivo é inválido por estar vazio ou com apenas o cabeçalho preenchido");
+
+                    validateHeader(header);
+                },
+                // +2 porque começamos após o cabeçalho
+                (row, rowNum) -> processRow(row, rowNum + 2, zone));
     }
 
-    private static List<String> getYieldsAt(YieldTimeIntervalRequestDto payload) {
+    // Lê as colunas direto do scanner, que já trata a vírgula decimal e o trim de cada célula
+    private static YieldRequestDto processRow(CsvRowScanner row, int rowNum, ZoneId zone) {
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMM");
+        try {
+            validateRowData(row, rowNum);
 
-        LocalDate startLocalDate = payload.startAt().atZone(ZoneId.of("America/Sao_Paulo")).toLocalDate();
-        LocalDate endLocalDate = payload.endAt().atZone(ZoneId.of("America/Sao_Paulo")).toLocalDate();
+            String assetName = row.text(0);
+            String yieldAt = row.text(1);
 
-        List<String> yieldAtParams = new ArrayList<>();
+            validateYieldAt(yieldAt);
 
-        YearMonth start = YearMonth.of(startLocalDate.getYear(), startLocalDate.getMonth());
-        YearMonth end = YearMonth.of(endLocalDate.getYear(), endLocalDate.getMonth());
+            LocalDate baseLocalDate = parseDate(row, 2, "Data Base", rowNum);
+            LocalDate paymentLocalDate = parseDate(row, 3, "Data de Pagamento", rowNum);
 
-        while (!start.isAfter(end)) {
-            yieldAtParams.add(start.format(formatter));
-            start = start.plusMonths(1);
+            validateDate(baseLocalDate, paymentLocalDate);
+
+            BigDecimal basePrice = parseBigDecimal(row, 4, "Preço Base", rowNum);
+            BigDecimal incomeValue = parseBigDecimal(row, 5, "Valor do Rendimento", rowNum);
+            BigDecimal yieldValue = parseBigDecimal(row, 6, "Valor do Yield", rowNum);
+
+            return new YieldRequestDto(
+                    assetName,
+                    baseLocalDate.atStartOfDay(zone).toInstant(),
+                    paymentLocalDate.atStartOfDay(zone).toInstant(),
+                    basePrice,
+                    incomeValue,
+                    yieldValue);
+        } catch (NumberFormatException e) {
+            throw new InvalidNumberFormatException(
+                    "Erro na linha " + rowNum + ": " + e.getMessage());
         }
+    }
+
+    static String toIntervalYieldAt(Instant date) {
 
-        return yieldAtParams;
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMM");
+        return date.atZone(ZoneId.of("America/Sao_Paulo")).format(formatter);
     }
 
     private static String generateYieldAt(Instant basePrice) {
@@ -336,14 +577,14 @@ public class YieldService {
         }
     }
 
-    private static void validateRowData(String[] row, int rowNum) {
+    private static void validateRowData(CsvRowScanner row, int rowNum) {
 
-        if (row.length != 7)
+        if (row.columnCount() != 7)
             throw new InvalidFileFormatException(
                     "A linha " + rowNum + " possui número incorreto de colunas");
 
-        for (int i = 0; i < row.length; i++) {
-            if (row[i] == null || row[i].trim().isEmpty()) {
+        for (int i = 0; i < row.columnCount(); i++) {
+            if (row.isBlank(i)) {
                 throw new InvalidFileFormatException(
                         "Na linha " + rowNum + ", a coluna " + (i + 1) + " está vazia");
             }
@@ -385,11 +626,10 @@ public class YieldService {
         }
     }
 
-    private static LocalDate parseDate(String dateStr, DateTimeFormatter formatter,
-            String fieldName, int rowNum) {
+    private static LocalDate parseDate(CsvRowScanner row, int column, String fieldName, int rowNum) {
 
         try {
-            return LocalDate.parse(dateStr.trim(), formatter);
+            return row.date(column);
         } catch (DateTimeParseException e) {
             throw new InvalidDateFormatException(
                     "Erro na linha " + rowNum + ", " + fieldName +
@@ -397,10 +637,10 @@ public class YieldService {
         }
     }
 
-    private static BigDecimal parseBigDecimal(String value, String fieldName, int rowNum) {
+    private static BigDecimal parseBigDecimal(CsvRowScanner row, int column, String fieldName, int rowNum) {
 
         try {
-            return new BigDecimal(value.trim());
+            return row.decimal(column);
         } catch (NumberFormatException e) {
             throw new InvalidNumberFormatException(
                     "Erro na linha " + rowNum + ", " + fieldName +
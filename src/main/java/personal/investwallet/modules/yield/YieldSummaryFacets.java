@@ -0,0 +1,12 @@
+package personal.investwallet.modules.yield;
+
+import personal.investwallet.modules.yield.dto.YieldPeriodSummaryDto;
+
+import java.util.List;
+
+// Resultado do $facet de resumo; nos totais por ativo o período é o nome do ativo
+record YieldSummaryFacets(
+        List<YieldPeriodSummaryDto> months,
+        List<YieldPeriodSummaryDto> years,
+        List<YieldPeriodSummaryDto> assets) {
+}
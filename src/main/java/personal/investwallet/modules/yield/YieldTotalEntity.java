@@ -0,0 +1,46 @@
+package personal.investwallet.modules.yield;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "yield_totals")
+@CompoundIndex(name = "user_yield_at_asset_idx", def = "{'user_id': 1, 'yield_at': 1, 'asset_name': 1}", unique = true)
+public class YieldTotalEntity {
+
+    @MongoId(FieldType.OBJECT_ID)
+    private String id;
+
+    @Field("user_id")
+    private String userId;
+
+    @Field("yield_at")
+    private String yieldAt;
+
+    @Field("asset_name")
+    private String assetName;
+
+    @Field("yield_value")
+    private BigDecimal yieldValue;
+
+    @Field("yield_count")
+    private int yieldCount;
+
+    @Field("refreshed_at")
+    private Instant refreshedAt;
+
+    // Marca a execução de recálculo que gravou o total, usada para descartar só o que ela não regravou
+    @Field(value = "refresh_id", targetType = FieldType.OBJECT_ID)
+    private String refreshId;
+}
@@ -0,0 +1,23 @@
+package personal.investwallet.modules.yield;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Recalcula todos os totais de dividendos quando a aplicação sobe com --refresh-yield-totals
+@Component
+public class YieldTotalRefreshRunner implements ApplicationRunner {
+
+    static final String REFRESH_OPTION = "refresh-yield-totals";
+
+    @Autowired
+    private YieldTotalService yieldTotalService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        if (args.containsOption(REFRESH_OPTION))
+            yieldTotalService.rebuildAllTotals();
+    }
+}
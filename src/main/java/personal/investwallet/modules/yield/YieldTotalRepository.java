@@ -0,0 +1,14 @@
+package personal.investwallet.modules.yield;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface YieldTotalRepository extends MongoRepository<YieldTotalEntity, String>, YieldTotalRepositoryCustom {
+
+    @Query("{ 'user_id': ?0, 'yield_at': { $gte: ?1, $lte: ?2 } }")
+    List<YieldTotalEntity> findByUserIdAndYieldAtBetween(String userId, String startYieldAt, String endYieldAt);
+}
@@ -0,0 +1,14 @@
+package personal.investwallet.modules.yield;
+
+import java.util.Collection;
+
+public interface YieldTotalRepositoryCustom {
+
+    void refreshTotalsOfUsers(Collection<String> userIds, Collection<String> yieldAts);
+
+    void refreshTotalsOfAssets(String yieldAt, Collection<String> assetNames);
+
+    void refreshAllTotalsOfUsers(Collection<String> userIds);
+
+    void refreshAllTotals();
+}
@@ -0,0 +1,104 @@
+package personal.investwallet.modules.yield;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+
+@Repository
+public class YieldTotalRepositoryImpl implements YieldTotalRepositoryCustom {
+
+    private static final String REFRESHED_AT = "refreshed_at";
+    private static final String REFRESH_ID = "refresh_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    public YieldTotalRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void refreshTotalsOfUsers(Collection<String> userIds, Collection<String> yieldAts) {
+
+        if (userIds.isEmpty() || yieldAts.isEmpty())
+            return;
+
+        refreshTotals(Criteria.where("user_id").in(userIds).and("yield_at").in(yieldAts));
+    }
+
+    @Override
+    public void refreshTotalsOfAssets(String yieldAt, Collection<String> assetNames) {
+
+        if (assetNames.isEmpty())
+            return;
+
+        refreshTotals(Criteria.where("yield_at").is(yieldAt).and("asset_name").in(assetNames));
+    }
+
+    @Override
+    public void refreshAllTotalsOfUsers(Collection<String> userIds) {
+
+        if (userIds.isEmpty())
+            return;
+
+        refreshTotals(Criteria.where("user_id").in(userIds));
+    }
+
+    @Override
+    public void refreshAllTotals() {
+
+        refreshTotals(new Criteria());
+    }
+
+    /*
+     * Recalcula no Mongo os totais do escopo a partir dos dividendos e descarta os totais do escopo que não foram
+     * regravados, ou seja, cujos dividendos foram todos removidos. Cada execução grava o próprio refresh_id e só
+     * descarta o que não tem essa marca, sem depender do relógio de quem começou antes ou de outro nó.
+     */
+    private void refreshTotals(Criteria scope) {
+
+        Instant refreshedAt = Instant.now();
+        ObjectId refreshId = new ObjectId();
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(scope),
+                stage(new Document("$group", new Document("_id", new Document("user_id", "$user_id")
+                        .append("yield_at", "$yield_at")
+                        .append("asset_name", "$asset_name"))
+                        .append("yield_value", new Document("$sum", new Document("$toDecimal", "$yield_value")))
+                        .append("yield_count", new Document("$sum", 1)))),
+                stage(new Document("$project", new Document("_id", 0)
+                        .append("user_id", "$_id.user_id")
+                        .append("yield_at", "$_id.yield_at")
+                        .append("asset_name", "$_id.asset_name")
+                        .append("yield_value", new Document("$toString", "$yield_value"))
+                        .append("yield_count", 1)
+                        .append(REFRESHED_AT, new Document("$literal", Date.from(refreshedAt)))
+                        .append(REFRESH_ID, new Document("$literal", refreshId))
+                        .append("_class", new Document("$literal", YieldTotalEntity.class.getName())))),
+                Aggregation.merge()
+                        .intoCollection(mongoTemplate.getCollectionName(YieldTotalEntity.class))
+                        .on("user_id", "yield_at", "asset_name")
+                        .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                        .whenDocumentsDontMatch(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                        .build());
+
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(YieldEntity.class), Document.class);
+
+        mongoTemplate.remove(new Query(new Criteria().andOperator(scope, Criteria.where(REFRESH_ID).ne(refreshId))),
+                YieldTotalEntity.class);
+    }
+
+    private static AggregationOperation stage(Document stage) {
+        return context -> stage;
+    }
+}
@@ -0,0 +1,225 @@
+package personal.investwallet.modules.yield;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import personal.investwallet.modules.job.JobCoordinator;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.wallet.WalletService;
+import personal.investwallet.modules.yield.dto.YieldAssetSummaryDto;
+import personal.investwallet.modules.yield.dto.YieldAssetTotalResponseDto;
+import personal.investwallet.modules.yield.dto.YieldPeriodSummaryDto;
+import personal.investwallet.modules.yield.dto.YieldSummaryResponseDto;
+import personal.investwallet.modules.yield.dto.YieldTimeIntervalRequestDto;
+import personal.investwallet.modules.yield.dto.YieldTotalResponseDto;
+import personal.investwallet.modules.yield.dto.YieldTotalsResponseDto;
+import personal.investwallet.security.TokenService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class YieldTotalService {
+
+    private static final int YIELD_ON_COST_SCALE = 6;
+    private static final String YIELD_TOTALS_REFRESH_JOB = "yield-totals-refresh";
+
+    @Autowired
+    YieldTotalRepository yieldTotalRepository;
+
+    @Autowired
+    YieldRepository yieldRepository;
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    YieldCache yieldCache;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    JobCoordinator jobCoordinator;
+
+    public YieldTotalsResponseDto fetchTotalsByTimeInterval(String token, YieldTimeIntervalRequestDto payload) {
+
+        String userId = tokenService.extractUserIdFromToken(token);
+
+        List<YieldTotalEntity> totals = yieldTotalRepository.findByUserIdAndYieldAtBetween(userId,
+                YieldService.toIntervalYieldAt(payload.startAt()), YieldService.toIntervalYieldAt(payload.endAt()));
+
+        return new YieldTotalsResponseDto(
+                sumByPeriod(totals, YieldTotalEntity::getYieldAt),
+                sumByPeriod(totals, total -> total.getYieldAt().substring(0, 4)));
+    }
+
+    public YieldSummaryResponseDto fetchSummaryByTimeInterval(String token, YieldTimeIntervalRequestDto payload) {
+
+        String userId = tokenService.extractUserIdFromToken(token);
+        String startYieldAt = YieldService.toIntervalYieldAt(payload.startAt());
+        String endYieldAt = YieldService.toIntervalYieldAt(payload.endAt());
+
+        return yieldCache.get(userId, "summary:" + startYieldAt + ":" + endYieldAt,
+                () -> summarize(userId, startYieldAt, endYieldAt, payload.endAt()));
+    }
+
+    private YieldSummaryResponseDto summarize(String userId, String startYieldAt, String endYieldAt, Instant endAt) {
+
+        YieldSummaryFacets facets = yieldRepository.summarizeByUserIdAndYieldAtBetween(userId, startYieldAt,
+                endYieldAt);
+
+        Map<String, WalletEntity.Asset> walletAssets = walletService.getWalletByUserId(userId)
+                .map(WalletEntity::getAssets)
+                .orElse(Map.of());
+
+        List<YieldAssetSummaryDto> assets = facets.assets().stream()
+                .map(asset -> {
+                    BigDecimal investedValue = investedValueUntil(walletAssets.get(asset.period()), endAt);
+
+                    return new YieldAssetSummaryDto(asset.period(), asset.yieldValue(), asset.yieldCount(),
+                            investedValue, yieldOnCost(asset.yieldValue(), investedValue));
+                })
+                .toList();
+
+        BigDecimal yieldValue = facets.assets().stream().map(YieldPeriodSummaryDto::yieldValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal investedValue = assets.stream().map(YieldAssetSummaryDto::investedValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return new YieldSummaryResponseDto(
+                yieldValue,
+                facets.assets().stream().mapToInt(YieldPeriodSummaryDto::yieldCount).sum(),
+                investedValue,
+                yieldOnCost(yieldValue, investedValue),
+                facets.months(),
+                facets.years(),
+                assets);
+    }
+
+    /*
+     * Valor investido é o custo das cotas que ainda estavam na carteira no fim do intervalo. Cada venda retira o
+     * custo médio das cotas vendidas; movimentações da mesma data têm as compras aplicadas antes das vendas.
+     */
+    private static BigDecimal investedValueUntil(WalletEntity.Asset asset, Instant endAt) {
+
+        if (asset == null)
+            return BigDecimal.ZERO;
+
+        List<Movement> movements = new ArrayList<>();
+
+        if (asset.getPurchasesInfo() != null)
+            asset.getPurchasesInfo().forEach(purchase -> movements.add(new Movement(purchase.getPurchaseDate(),
+                    purchase.getPurchaseAmount(), purchase.getPurchasePrice())));
+
+        if (asset.getSalesInfo() != null)
+            asset.getSalesInfo().forEach(sale -> movements.add(new Movement(sale.getSaleDate(),
+                    -sale.getSaleAmount(), null)));
+
+        movements.sort(Comparator.comparing(Movement::date).thenComparing(Movement::quotaAmount,
+                Comparator.reverseOrder()));
+
+        BigDecimal cost = BigDecimal.ZERO;
+        int quotaAmount = 0;
+
+        for (Movement movement : movements) {
+            if (movement.date().isAfter(endAt))
+                break;
+
+            if (movement.quotaAmount() > 0) {
+                cost = cost.add(movement.price());
+                quotaAmount += movement.quotaAmount();
+            } else if (-movement.quotaAmount() >= quotaAmount) {
+                cost = BigDecimal.ZERO;
+                quotaAmount = 0;
+            } else {
+                cost = cost.subtract(cost.multiply(BigDecimal.valueOf(-movement.quotaAmount()))
+                        .divide(BigDecimal.valueOf(quotaAmount), cost.scale(), RoundingMode.HALF_EVEN));
+                quotaAmount += movement.quotaAmount();
+            }
+        }
+
+        return cost;
+    }
+
+    // Vendas entram com quantidade negativa e sem preço, já que só o custo das compras compõe o valor investido
+    private record Movement(Instant date, int quotaAmount, BigDecimal price) {
+    }
+
+    private static BigDecimal yieldOnCost(BigDecimal yieldValue, BigDecimal investedValue) {
+
+        if (investedValue.signum() == 0)
+            return null;
+
+        return yieldValue.divide(investedValue, YIELD_ON_COST_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    // Falhas chegam a quem chamou; a reconciliação noturna corrige os totais que ficarem para trás
+    public void refreshUserMonths(Collection<String> userIds, Collection<String> yieldAts) {
+
+        yieldTotalRepository.refreshTotalsOfUsers(userIds, yieldAts);
+    }
+
+    public void refreshAssetMonth(String yieldAt, Collection<String> assetNames) {
+
+        yieldTotalRepository.refreshTotalsOfAssets(yieldAt, assetNames);
+    }
+
+    // Os nós dividem os usuários em partições, então cada total é recalculado por uma única execução por noite
+    @Scheduled(cron = "${yield.totals.refresh-cron:0 30 3 * * *}")
+    public void refreshAllTotals() {
+
+        List<String> userIds = walletService.getAllUserIds();
+
+        jobCoordinator.runPartitioned(YIELD_TOTALS_REFRESH_JOB, LocalDate.now().toString(), userIds,
+                yieldTotalRepository::refreshAllTotalsOfUsers);
+        log.info("Totais de dividendos recalculados para {} usuários", userIds.size());
+    }
+
+    // Recálculo manual da coleção inteira, que também descarta totais de usuários que não têm mais carteira
+    public void rebuildAllTotals() {
+
+        yieldTotalRepository.refreshAllTotals();
+        log.info("Totais de dividendos recalculados para todos os usuários");
+    }
+
+    private static List<YieldTotalResponseDto> sumByPeriod(List<YieldTotalEntity> totals,
+                                                           Function<YieldTotalEntity, String> period) {
+
+        Map<String, List<YieldTotalEntity>> totalsByPeriod = totals.stream()
+                .collect(Collectors.groupingBy(period, TreeMap::new, Collectors.toList()));
+
+        List<YieldTotalResponseDto> response = new ArrayList<>(totalsByPeriod.size());
+
+        totalsByPeriod.forEach((key, periodTotals) -> {
+            Map<String, YieldAssetTotalResponseDto> assets = new TreeMap<>();
+
+            for (YieldTotalEntity total : periodTotals)
+                assets.merge(total.getAssetName(),
+                        new YieldAssetTotalResponseDto(total.getAssetName(), total.getYieldValue(), total.getYieldCount()),
+                        (first, second) -> new YieldAssetTotalResponseDto(first.assetName(),
+                                first.yieldValue().add(second.yieldValue()), first.yieldCount() + second.yieldCount()));
+
+            response.add(new YieldTotalResponseDto(
+                    key,
+                    assets.values().stream().map(YieldAssetTotalResponseDto::yieldValue)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add),
+                    assets.values().stream().mapToInt(YieldAssetTotalResponseDto::yieldCount).sum(),
+                    List.copyOf(assets.values())));
+        });
+
+        return response;
+    }
+}
@@ -0,0 +1,11 @@
+package personal.investwallet.modules.yield.dto;
+
+import java.math.BigDecimal;
+
+public record YieldAssetSummaryDto(
+        String assetName,
+        BigDecimal yieldValue,
+        int yieldCount,
+        BigDecimal investedValue,
+        BigDecimal yieldOnCost) {
+}
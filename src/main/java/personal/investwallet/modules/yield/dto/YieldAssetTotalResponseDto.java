@@ -0,0 +1,9 @@
+package personal.investwallet.modules.yield.dto;
+
+import java.math.BigDecimal;
+
+public record YieldAssetTotalResponseDto(
+        String assetName,
+        BigDecimal yieldValue,
+        int yieldCount) {
+}
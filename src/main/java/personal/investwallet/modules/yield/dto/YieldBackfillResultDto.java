@@ -0,0 +1,8 @@
+package personal.investwallet.modules.yield.dto;
+
+public record YieldBackfillResultDto(
+        int users,
+        int inserted,
+        int alreadyRegistered
+) {
+}
@@ -0,0 +1,14 @@
+package personal.investwallet.modules.yield.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record YieldInfoResponseDto(
+        String assetName,
+        String yieldAt,
+        Instant baseDate,
+        Instant paymentDate,
+        BigDecimal basePrice,
+        BigDecimal incomeValue,
+        BigDecimal yieldValue) {
+}
@@ -0,0 +1,9 @@
+package personal.investwallet.modules.yield.dto;
+
+import java.math.BigDecimal;
+
+public record YieldPeriodSummaryDto(
+        String period,
+        BigDecimal yieldValue,
+        int yieldCount) {
+}
@@ -0,0 +1,14 @@
+package personal.investwallet.modules.yield.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record YieldSummaryResponseDto(
+        BigDecimal yieldValue,
+        int yieldCount,
+        BigDecimal investedValue,
+        BigDecimal yieldOnCost,
+        List<YieldPeriodSummaryDto> months,
+        List<YieldPeriodSummaryDto> years,
+        List<YieldAssetSummaryDto> assets) {
+}
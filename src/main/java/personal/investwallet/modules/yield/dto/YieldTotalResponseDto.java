@@ -0,0 +1,11 @@
+package personal.investwallet.modules.yield.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record YieldTotalResponseDto(
+        String period,
+        BigDecimal yieldValue,
+        int yieldCount,
+        List<YieldAssetTotalResponseDto> assets) {
+}
@@ -0,0 +1,8 @@
+package personal.investwallet.modules.yield.dto;
+
+import java.util.List;
+
+public record YieldTotalsResponseDto(
+        List<YieldTotalResponseDto> months,
+        List<YieldTotalResponseDto> years) {
+}
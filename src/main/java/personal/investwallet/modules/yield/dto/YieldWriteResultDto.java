@@ -0,0 +1,7 @@
+package personal.investwallet.modules.yield.dto;
+
+public record YieldWriteResultDto(
+        int inserted,
+        int alreadyRegistered
+) {
+}
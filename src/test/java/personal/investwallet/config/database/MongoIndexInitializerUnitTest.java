@@ -0,0 +1,186 @@
+package personal.investwallet.config.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.job.JobLeaseEntity;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.yield.YieldEntity;
+import personal.investwallet.modules.yield.YieldTotalEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class MongoIndexInitializerUnitTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations announcementIndexOperations;
+
+    @Mock
+    private IndexOperations jobLeaseIndexOperations;
+
+    @Mock
+    private IndexOperations walletIndexOperations;
+
+    @Mock
+    private IndexOperations yieldIndexOperations;
+
+    @Mock
+    private IndexOperations yieldTotalIndexOperations;
+
+    @Nested
+    class EnsureIndexes {
+
+        @Test
+        @DisplayName("Should be able to create the indexes declared on the yield entities")
+        void shouldBeAbleToCreateTheIndexesDeclaredOnTheYieldEntities() {
+
+            stubTemplate();
+
+            new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+            assertTrue(indexNames(yieldIndexOperations).containsAll(List.of(
+                    "user_asset_name_yield_at_idx", "user_yield_at_asset_value_idx")));
+
+            ArgumentCaptor<IndexDefinition> totalCaptor = ArgumentCaptor.forClass(IndexDefinition.class);
+            verify(yieldTotalIndexOperations).ensureIndex(totalCaptor.capture());
+            assertEquals("user_yield_at_asset_idx", totalCaptor.getValue().getIndexOptions().get("name"));
+            assertEquals(true, totalCaptor.getValue().getIndexOptions().get("unique"));
+        }
+
+        @Test
+        @DisplayName("Should be able to keep creating the other indexes when one of them fails")
+        void shouldBeAbleToKeepCreatingTheOtherIndexesWhenOneOfThemFails() {
+
+            stubTemplate();
+            when(yieldIndexOperations.ensureIndex(any())).thenThrow(new IllegalStateException("duplicate key"));
+
+            new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+            verify(yieldTotalIndexOperations).ensureIndex(any());
+        }
+
+        @Test
+        @DisplayName("Should be able to create the unique yield key index that rejects concurrent duplicates")
+        void shouldBeAbleToCreateTheUniqueYieldKeyIndexThatRejectsConcurrentDuplicates() {
+
+            stubTemplate();
+
+            new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+            ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+            verify(yieldIndexOperations, atLeastOnce()).ensureIndex(captor.capture());
+
+            assertTrue(captor.getAllValues().stream().anyMatch(index ->
+                    index.getIndexKeys().containsKey("user_asset_yield_at")
+                            && Boolean.TRUE.equals(index.getIndexOptions().get("unique"))));
+        }
+
+        @Test
+        @DisplayName("Should be able to create the single field unique index required by the yield $merge")
+        void shouldBeAbleToCreateTheSingleFieldUniqueIndexRequiredByTheYieldMerge() {
+
+            stubTemplate();
+
+            new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+            ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+            verify(yieldIndexOperations, atLeastOnce()).ensureIndex(captor.capture());
+
+            // O on do $merge só é aceito com um índice único exatamente sobre os seus campos
+            IndexDefinition mergeKey = captor.getAllValues().stream()
+                    .filter(index -> index.getIndexKeys().containsKey("user_asset_yield_at"))
+                    .findFirst()
+                    .orElseThrow();
+
+            assertEquals(List.of("user_asset_yield_at"), List.copyOf(mergeKey.getIndexKeys().keySet()));
+            assertEquals(true, mergeKey.getIndexOptions().get("unique"));
+        }
+
+        @Test
+        @DisplayName("Should be able to create the unique index of the announcements of each asset and month")
+        void shouldBeAbleToCreateTheUniqueIndexOfTheAnnouncementsOfEachAssetAndMonth() {
+
+            stubTemplate();
+
+            new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+            ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+            verify(announcementIndexOperations).ensureIndex(captor.capture());
+
+            assertEquals("asset_yield_at_idx", captor.getValue().getIndexOptions().get("name"));
+            assertEquals(true, captor.getValue().getIndexOptions().get("unique"));
+        }
+
+        @Test
+        @DisplayName("Should be able to create the index used to claim and renew the job leases")
+        void shouldBeAbleToCreateTheIndexUsedToClaimAndRenewTheJobLeases() {
+
+            stubTemplate();
+
+            new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+            assertEquals(List.of("job_run_claim_idx"), indexNames(jobLeaseIndexOperations));
+        }
+
+        @Test
+        @DisplayName("Should be able to create the wildcard index used to find the holders of an asset")
+        void shouldBeAbleToCreateTheWildcardIndexUsedToFindTheHoldersOfAnAsset() {
+
+            stubTemplate();
+
+            new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+
+            ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+            verify(walletIndexOperations, atLeastOnce()).ensureIndex(captor.capture());
+
+            assertTrue(captor.getAllValues().stream().anyMatch(index -> index.getIndexKeys().containsKey("assets.$**")));
+        }
+    }
+
+    private void stubTemplate() {
+
+        // Mesmos tipos simples do contexto da aplicação, para que Instant e BigDecimal não sejam lidos como entidades
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+
+        when(mongoTemplate.getConverter()).thenReturn(
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        when(mongoTemplate.indexOps(AnnouncementEntity.class)).thenReturn(announcementIndexOperations);
+        when(mongoTemplate.indexOps(JobLeaseEntity.class)).thenReturn(jobLeaseIndexOperations);
+        when(mongoTemplate.indexOps(WalletEntity.class)).thenReturn(walletIndexOperations);
+        when(mongoTemplate.indexOps(YieldEntity.class)).thenReturn(yieldIndexOperations);
+        when(mongoTemplate.indexOps(YieldTotalEntity.class)).thenReturn(yieldTotalIndexOperations);
+        lenient().when(mongoTemplate.getCollectionName(YieldEntity.class)).thenReturn("yields");
+    }
+
+    private static List<Object> indexNames(IndexOperations indexOperations) {
+
+        ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOperations, atLeastOnce()).ensureIndex(captor.capture());
+
+        return captor.getAllValues().stream().map(index -> index.getIndexOptions().get("name")).toList();
+    }
+}
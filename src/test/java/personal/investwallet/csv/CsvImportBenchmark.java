@@ -0,0 +1,194 @@
+package personal.investwallet.csv;
+
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/*
+ * Compara a leitura dos arquivos de importação de dividendos (7 colunas) e de compras/vendas (5 colunas) pelo
+ * caminho antigo com OpenCSV (readAll, replace da vírgula em cada célula, DateTimeFormatter e ZoneId por linha)
+ * com o CsvRowScanner, lido em sequência e pelo CsvParallelParser. Só a leitura e a conversão das colunas são
+ * medidas, sem validações nem Mongo. Não roda no build normal:
+ *
+ *   mvn test -Dtest=CsvImportBenchmark -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false
+ *
+ * Parâmetros (system properties): benchmark.rows, benchmark.forks, benchmark.warmup-iterations e
+ * benchmark.iterations.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvImportBenchmark {
+
+    @Param("100000")
+    int rows;
+
+    private String yieldCsv;
+    private String walletCsv;
+    private CsvParallelParser csvParallelParser;
+
+    @Setup
+    public void setUp() {
+
+        StringBuilder yields = new StringBuilder(
+                "Asset Name, Yield At, Base Date, Payment Date, Base Price, Income Value, Yield Value\n");
+        StringBuilder wallet = new StringBuilder("Asset Name, Date, Amount, Quota Price, Value / Quota\n");
+
+        for (int i = 0; i < rows; i++) {
+            String assetName = String.format("BM%04d11", i % 1000);
+            int month = i % 12 + 1;
+            String date = String.format("%02d/%02d/2023", i % 28 + 1, month);
+
+            yields.append(assetName).append(", 2023").append(String.format("%02d", month)).append(", ")
+                    .append(date).append(", ").append(date).append(", \"")
+                    .append(100 + i % 50).append(",25\", ").append(i % 7).append(".10, 0.0").append(i % 9 + 1)
+                    .append('\n');
+            wallet.append(assetName).append(", ").append(date).append(", ").append(i % 100 + 1).append(", ")
+                    .append(90 + i % 20).append(".50, \"").append(i % 5 + 1).append(",75\"\n");
+        }
+
+        yieldCsv = yields.toString();
+        walletCsv = wallet.toString();
+        csvParallelParser = new CsvParallelParser(0, 262144);
+    }
+
+    @TearDown
+    public void tearDown() {
+        csvParallelParser.shutdown();
+    }
+
+    @Benchmark
+    public void openCsvYield(Blackhole blackhole) throws Exception {
+
+        List<String[]> lines = openCsv(yieldCsv);
+
+        for (int i = 1; i < lines.size(); i++) {
+            String[] row = lines.get(i);
+            for (int column = 0; column < row.length; column++)
+                row[column] = row[column].replace(",", ".");
+
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+            blackhole.consume(row[0].trim());
+            blackhole.consume(row[1].trim());
+            blackhole.consume(LocalDate.parse(row[2].trim(), formatter).atStartOfDay(ZoneId.systemDefault()));
+            blackhole.consume(LocalDate.parse(row[3].trim(), formatter).atStartOfDay(ZoneId.systemDefault()));
+            blackhole.consume(new BigDecimal(row[4].trim()));
+            blackhole.consume(new BigDecimal(row[5].trim()));
+            blackhole.consume(new BigDecimal(row[6].trim()));
+        }
+    }
+
+    @Benchmark
+    public void scannerYield(Blackhole blackhole) throws IOException {
+
+        try (CsvRowScanner row = new CsvRowScanner(new StringReader(yieldCsv))) {
+            ZoneId zone = ZoneId.systemDefault();
+            row.next();
+
+            while (row.next()) {
+                blackhole.consume(row.text(0));
+                blackhole.consume(row.text(1));
+                blackhole.consume(row.date(2).atStartOfDay(zone));
+                blackhole.consume(row.date(3).atStartOfDay(zone));
+                blackhole.consume(row.decimal(4));
+                blackhole.consume(row.decimal(5));
+                blackhole.consume(row.decimal(6));
+            }
+        }
+    }
+
+    @Benchmark
+    public void parallelYield(Blackhole blackhole) {
+
+        ZoneId zone = ZoneId.systemDefault();
+
+        try (Stream<Object[]> rows = csvParallelParser.parse(new StringReader(yieldCsv), (header, hasRows) -> {
+        }, (row, rowNum) -> new Object[]{row.text(0), row.text(1), row.date(2).atStartOfDay(zone),
+                row.date(3).atStartOfDay(zone), row.decimal(4), row.decimal(5), row.decimal(6)})) {
+
+            rows.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void openCsvWallet(Blackhole blackhole) throws Exception {
+
+        List<String[]> lines = openCsv(walletCsv);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+        for (int i = 1; i < lines.size(); i++) {
+            String[] row = lines.get(i);
+            for (int column = 0; column < row.length; column++)
+                row[column] = row[column].replace(",", ".");
+
+            blackhole.consume(row[0].trim());
+            blackhole.consume(LocalDate.parse(row[1].trim(), formatter).atStartOfDay(ZoneId.systemDefault()));
+            blackhole.consume(Integer.parseInt(row[2].trim()));
+            blackhole.consume(new BigDecimal(row[3].trim()));
+            blackhole.consume(new BigDecimal(row[4].trim()));
+        }
+    }
+
+    @Benchmark
+    public void scannerWallet(Blackhole blackhole) throws IOException {
+
+        try (CsvRowScanner row = new CsvRowScanner(new StringReader(walletCsv))) {
+            ZoneId zone = ZoneId.systemDefault();
+            row.next();
+
+            while (row.next()) {
+                blackhole.consume(row.text(0));
+                blackhole.consume(row.date(1).atStartOfDay(zone));
+                blackhole.consume(row.integer(2));
+                blackhole.consume(row.decimal(3));
+                blackhole.consume(row.decimal(4));
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkCsvImport() throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(CsvImportBenchmark.class.getSimpleName())
+                .param("rows", System.getProperty("benchmark.rows", "100000"))
+                .forks(Integer.getInteger("benchmark.forks", 1))
+                .warmupIterations(Integer.getInteger("benchmark.warmup-iterations", 3))
+                .measurementIterations(Integer.getInteger("benchmark.iterations", 5))
+                .addProfiler("gc")
+                .build();
+
+        new Runner(options).run();
+    }
+
+    private static List<String[]> openCsv(String content) throws Exception {
+
+        CSVParser parser = new CSVParserBuilder().withSeparator(',').build();
+
+        try (CSVReader csvReader = new CSVReaderBuilder(new StringReader(content)).withCSVParser(parser).build()) {
+            return csvReader.readAll();
+        }
+    }
+}
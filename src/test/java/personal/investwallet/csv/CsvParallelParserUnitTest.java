@@ -0,0 +1,126 @@
+package personal.investwallet.csv;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import personal.investwallet.exceptions.FileProcessingException;
+import personal.investwallet.exceptions.InvalidFileFormatException;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class CsvParallelParserUnitTest {
+
+    private final CsvParallelParser csvParallelParser = new CsvParallelParser(4, 128);
+
+    @AfterEach
+    void tearDown() {
+        csvParallelParser.shutdown();
+    }
+
+    @Nested
+    class Parse {
+
+        @Test
+        @DisplayName("Should be able to return the rows of every chunk in file order")
+        void shouldBeAbleToReturnTheRowsOfEveryChunkInFileOrder() {
+
+            String content = csv(5000, row -> row + "," + row * 2);
+
+            try (Stream<String> rows = csvParallelParser.parse(new StringReader(content), (header, hasRows) -> {
+                    }, (row, rowNum) -> rowNum + ":" + row.integer(0) + ":" + row.integer(1))) {
+
+                assertEquals(IntStream.range(0, 5000).mapToObj(i -> i + ":" + i + ":" + i * 2).toList(), rows.toList());
+            }
+        }
+
+        @Test
+        @DisplayName("Should be able to keep quoted line breaks inside a single row")
+        void shouldBeAbleToKeepQuotedLineBreaksInsideASingleRow() {
+
+            String content = csv(500, row -> row + ",\"line\r\nbreak, " + row + "\"");
+
+            try (Stream<String> rows = csvParallelParser.parse(new StringReader(content), (header, hasRows) -> {
+                    }, (row, rowNum) -> rowNum + ":" + row.text(1))) {
+
+                assertEquals(IntStream.range(0, 500).mapToObj(i -> i + ":line\r\nbreak, " + i).toList(),
+                        rows.toList());
+            }
+        }
+
+        @Test
+        @DisplayName("Should be able to report the first invalid row after returning the rows before it")
+        void shouldBeAbleToReportTheFirstInvalidRowAfterReturningTheRowsBeforeIt() {
+
+            String content = csv(5000, row -> row == 1200 || row == 3500 ? "invalid" : String.valueOf(row));
+
+            for (int attempt = 0; attempt < 20; attempt++) {
+                List<Integer> returned = new ArrayList<>();
+
+                try (Stream<Integer> rows = csvParallelParser.parse(new StringReader(content), (header, hasRows) -> {
+                        }, (row, rowNum) -> {
+                            if (row.text(0).equals("invalid"))
+                                throw new InvalidFileFormatException("Erro na linha " + rowNum);
+
+                            return row.integer(0);
+                        })) {
+
+                    InvalidFileFormatException exception = assertThrows(InvalidFileFormatException.class,
+                            () -> rows.forEach(returned::add));
+
+                    assertEquals("Erro na linha 1200", exception.getMessage());
+                    assertEquals(IntStream.range(0, 1200).boxed().toList(), returned);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should be able to validate the header telling whether the file has rows")
+        void shouldBeAbleToValidateTheHeaderTellingWhetherTheFileHasRows() {
+
+            List<String> validated = new ArrayList<>();
+            CsvParallelParser.HeaderValidator validator = (header, hasRows) ->
+                    validated.add((header == null ? "null" : String.join("|", header)) + ":" + hasRows);
+
+            csvParallelParser.parse(new StringReader(""), validator, (row, rowNum) -> rowNum).close();
+            csvParallelParser.parse(new StringReader("A , B\n"), validator, (row, rowNum) -> rowNum).close();
+            csvParallelParser.parse(new StringReader("A , B\r\n1,2"), validator, (row, rowNum) -> rowNum).close();
+
+            assertEquals(List.of("null:false", "A|B:false", "A|B:true"), validated);
+        }
+
+        @Test
+        @DisplayName("Should not be able to parse a file with a quoted column that is never closed")
+        void shouldNotBeAbleToParseAFileWithAQuotedColumnThatIsNeverClosed() {
+
+            String content = csv(300, String::valueOf) + "\"unclosed\n1\n";
+
+            try (Stream<Integer> rows = csvParallelParser.parse(new StringReader(content), (header, hasRows) -> {
+                    }, (row, rowNum) -> rowNum)) {
+
+                FileProcessingException exception = assertThrows(FileProcessingException.class, rows::toList);
+
+                assertEquals("Erro ao ler o arquivo CSV", exception.getMessage());
+            }
+        }
+    }
+
+    private static String csv(int rows, IntFunction<String> row) {
+
+        StringBuilder content = new StringBuilder("Header A, Header B\n");
+
+        for (int i = 0; i < rows; i++)
+            content.append(row.apply(i)).append('\n');
+
+        return content.toString();
+    }
+}
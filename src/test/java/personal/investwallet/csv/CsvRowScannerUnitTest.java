@@ -0,0 +1,162 @@
+package personal.investwallet.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class CsvRowScannerUnitTest {
+
+    @Nested
+    class Next {
+
+        @Test
+        @DisplayName("Should be able to split rows and trim every column")
+        void shouldBeAbleToSplitRowsAndTrimEveryColumn() throws IOException {
+
+            CsvRowScanner scanner = scanner("Asset Name , Date\r\nABCD11, 01/11/2023\n\nEFGH11,02/11/2023");
+
+            assertTrue(scanner.next());
+            assertArrayEquals(new String[]{"Asset Name", "Date"}, scanner.texts());
+
+            assertTrue(scanner.next());
+            assertArrayEquals(new String[]{"ABCD11", "01/11/2023"}, scanner.texts());
+
+            assertTrue(scanner.next());
+            assertEquals(1, scanner.columnCount());
+            assertTrue(scanner.isBlank(0));
+
+            assertTrue(scanner.next());
+            assertArrayEquals(new String[]{"EFGH11", "02/11/2023"}, scanner.texts());
+
+            assertFalse(scanner.next());
+        }
+
+        @Test
+        @DisplayName("Should be able to read quoted columns containing separators, quotes and line breaks")
+        void shouldBeAbleToReadQuotedColumnsContainingSeparatorsQuotesAndLineBreaks() throws IOException {
+
+            CsvRowScanner scanner = scanner("ABCD11, \"1,50\",\"a \"\"b\"\"\nc\",\n");
+
+            assertTrue(scanner.next());
+            assertArrayEquals(new String[]{"ABCD11", "1,50", "a \"b\"\nc", ""}, scanner.texts());
+            assertFalse(scanner.next());
+        }
+
+        @Test
+        @DisplayName("Should be able to read rows larger than the buffer")
+        void shouldBeAbleToReadRowsLargerThanTheBuffer() throws IOException {
+
+            String assetName = "A".repeat(1000);
+            CsvRowScanner scanner = new CsvRowScanner(new StringReader(assetName + ",1\r\n" + assetName + ",2"), 7);
+
+            assertTrue(scanner.next());
+            assertEquals(assetName, scanner.text(0));
+            assertEquals(1, scanner.integer(1));
+
+            assertTrue(scanner.next());
+            assertEquals(2, scanner.integer(1));
+            assertFalse(scanner.next());
+        }
+
+        @Test
+        @DisplayName("Should not be able to read a quoted column that is never closed")
+        void shouldNotBeAbleToReadAQuotedColumnThatIsNeverClosed() {
+
+            CsvRowScanner scanner = scanner("ABCD11,\"1,50\n");
+
+            assertThrows(IOException.class, scanner::next);
+        }
+    }
+
+    @Nested
+    class DecimalColumn {
+
+        @Test
+        @DisplayName("Should be able to read decimals with comma or dot keeping the scale")
+        void shouldBeAbleToReadDecimalsWithCommaOrDotKeepingTheScale() throws IOException {
+
+            CsvRowScanner scanner = scanner("\"10,50\",0.05,-3,+.5,12345678901234567890.123,1E+3");
+            scanner.next();
+
+            assertEquals(new BigDecimal("10.50"), scanner.decimal(0));
+            assertEquals(new BigDecimal("0.05"), scanner.decimal(1));
+            assertEquals(new BigDecimal("-3"), scanner.decimal(2));
+            assertEquals(new BigDecimal(".5"), scanner.decimal(3));
+            assertEquals(new BigDecimal("12345678901234567890.123"), scanner.decimal(4));
+            assertEquals(new BigDecimal("1E+3"), scanner.decimal(5));
+        }
+
+        @Test
+        @DisplayName("Should not be able to read invalid decimals")
+        void shouldNotBeAbleToReadInvalidDecimals() throws IOException {
+
+            CsvRowScanner scanner = scanner("abc,\"1.234,56\",-");
+            scanner.next();
+
+            assertThrows(NumberFormatException.class, () -> scanner.decimal(0));
+            assertThrows(NumberFormatException.class, () -> scanner.decimal(1));
+            assertThrows(NumberFormatException.class, () -> scanner.decimal(2));
+        }
+    }
+
+    @Nested
+    class IntegerColumn {
+
+        @Test
+        @DisplayName("Should be able to read integers within the int range")
+        void shouldBeAbleToReadIntegersWithinTheIntRange() throws IOException {
+
+            CsvRowScanner scanner = scanner("10,-2147483648,2147483647,2147483648,\"1,0\"");
+            scanner.next();
+
+            assertEquals(10, scanner.integer(0));
+            assertEquals(Integer.MIN_VALUE, scanner.integer(1));
+            assertEquals(Integer.MAX_VALUE, scanner.integer(2));
+            assertThrows(NumberFormatException.class, () -> scanner.integer(3));
+            assertThrows(NumberFormatException.class, () -> scanner.integer(4));
+        }
+    }
+
+    @Nested
+    class DateColumn {
+
+        @Test
+        @DisplayName("Should be able to read dates clamping the day to the end of the month")
+        void shouldBeAbleToReadDatesClampingTheDayToTheEndOfTheMonth() throws IOException {
+
+            CsvRowScanner scanner = scanner("15/11/2023,31/02/2023,29/02/2024");
+            scanner.next();
+
+            assertEquals(LocalDate.of(2023, 11, 15), scanner.date(0));
+            assertEquals(LocalDate.of(2023, 2, 28), scanner.date(1));
+            assertEquals(LocalDate.of(2024, 2, 29), scanner.date(2));
+        }
+
+        @Test
+        @DisplayName("Should not be able to read dates out of the dd/MM/yyyy format")
+        void shouldNotBeAbleToReadDatesOutOfTheFormat() throws IOException {
+
+            CsvRowScanner scanner = scanner("2023-11-15,1/11/2023,15/13/2023,32/01/2023");
+            scanner.next();
+
+            for (int column = 0; column < scanner.columnCount(); column++) {
+                int current = column;
+                assertThrows(DateTimeParseException.class, () -> scanner.date(current));
+            }
+        }
+    }
+
+    private static CsvRowScanner scanner(String content) {
+        return new CsvRowScanner(new StringReader(content));
+    }
+}
@@ -0,0 +1,81 @@
+package personal.investwallet.modules.announcement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class AnnouncementServiceUnitTest {
+
+    @Mock
+    private AnnouncementRepository announcementRepository;
+
+    @InjectMocks
+    private AnnouncementService announcementService;
+
+    @Nested
+    class RegisterScrapedAnnouncement {
+
+        @Test
+        @DisplayName("Should be able to register scraped announcement keyed by asset and yield at")
+        void shouldBeAbleToRegisterScrapedAnnouncementKeyedByAssetAndYieldAt() {
+
+            ScraperResponseDto scraper = new ScraperResponseDto(
+                    "ABCD11",
+                    new BigDecimal("1.10"),
+                    new BigDecimal("100.00"),
+                    Instant.parse("2024-09-30T00:00:00Z"),
+                    Instant.parse("2024-10-15T00:00:00Z"),
+                    "202410");
+
+            announcementService.registerScrapedAnnouncement("ABCD11", scraper);
+
+            ArgumentCaptor<AnnouncementEntity> captor = ArgumentCaptor.forClass(AnnouncementEntity.class);
+            verify(announcementRepository).upsertByAssetNameAndYieldAt(captor.capture());
+
+            AnnouncementEntity announcement = captor.getValue();
+            assertEquals("ABCD11", announcement.getAssetName());
+            assertEquals("202410", announcement.getYieldAt());
+            assertEquals(new BigDecimal("1.10"), announcement.getIncomeValue());
+            assertEquals(Instant.parse("2024-10-15T00:00:00Z"), announcement.getBasePaymentDate());
+            assertNotNull(announcement.getFetchedAt());
+        }
+    }
+
+    @Nested
+    class GetAllAnnouncementsByYieldAt {
+
+        @Test
+        @DisplayName("Should be able to get all announcements of the assets in the yield at")
+        void shouldBeAbleToGetAllAnnouncementsOfTheAssetsInTheYieldAt() {
+
+            AnnouncementEntity announcement = new AnnouncementEntity();
+            announcement.setAssetName("ABCD11");
+
+            when(announcementRepository.findByYieldAtAndAssetNameIn("202410", List.of("ABCD11", "XYZW11")))
+                    .thenReturn(List.of(announcement));
+
+            List<AnnouncementEntity> result = announcementService.getAllAnnouncementsByYieldAt("202410",
+                    List.of("ABCD11", "XYZW11"));
+
+            assertEquals(List.of(announcement), result);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package personal.investwallet.modules.asset;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import personal.investwallet.modules.asset.dto.AssetCatalogRefreshDto;
+import personal.investwallet.modules.webscraper.ScraperEngine;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class AssetCatalogServiceUnitTest {
+
+    private static final String FII = "fundos-imobiliarios";
+    private static final String ACOES = "acoes";
+
+    @Mock
+    private ScraperEngine scraperEngine;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private AssetCatalogService assetCatalogService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(assetCatalogService, "maxPages", 3);
+    }
+
+    @Nested
+    class RefreshCatalog {
+
+        @Test
+        @DisplayName("Should be able to apply only new assets and type changes in one bulk write")
+        void shouldBeAbleToApplyOnlyNewAssetsAndTypeChangesInOneBulkWrite() {
+
+            when(scraperEngine.assetCatalogScrapingMany(FII, 3)).thenReturn(List.of("HGLG11", "XYZW11", "MXRF11"));
+            when(scraperEngine.assetCatalogScrapingMany(ACOES, 3)).thenReturn(List.of("PETR4", "XYZW11"));
+            when(assetRepository.findAllAssetNamesAndTypes()).thenReturn(List.of(
+                    new AssetEntity(null, "HGLG11", FII),
+                    new AssetEntity(null, "MXRF11", ACOES),
+                    new AssetEntity(null, "PETR4", ACOES)));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetEntity.class)).thenReturn(bulkOperations);
+
+            AssetCatalogRefreshDto result = assetCatalogService.refreshCatalog(List.of(FII, ACOES));
+
+            ArgumentCaptor<Query> upsertQuery = ArgumentCaptor.forClass(Query.class);
+            ArgumentCaptor<Update> upsert = ArgumentCaptor.forClass(Update.class);
+            verify(bulkOperations).upsert(upsertQuery.capture(), upsert.capture());
+            assertEquals("XYZW11", upsertQuery.getValue().getQueryObject().getString("asset_name"));
+            assertEquals(FII, upsert.getValue().getUpdateObject().get("$setOnInsert", Document.class)
+                    .getString("asset_type"));
+
+            ArgumentCaptor<Query> updateQuery = ArgumentCaptor.forClass(Query.class);
+            verify(bulkOperations).updateOne(updateQuery.capture(), any(Update.class));
+            assertEquals("MXRF11", updateQuery.getValue().getQueryObject().getString("asset_name"));
+
+            verify(bulkOperations, times(1)).execute();
+            assertEquals(new AssetCatalogRefreshDto(4, 1, 1), result);
+        }
+
+        @Test
+        @DisplayName("Should not be able to write when the catalog has not changed")
+        void shouldNotBeAbleToWriteWhenTheCatalogHasNotChanged() {
+
+            when(scraperEngine.assetCatalogScrapingMany(FII, 3)).thenReturn(List.of("HGLG11"));
+            when(assetRepository.findAllAssetNamesAndTypes()).thenReturn(List.of(new AssetEntity(null, "HGLG11", FII)));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetEntity.class)).thenReturn(bulkOperations);
+
+            AssetCatalogRefreshDto result = assetCatalogService.refreshCatalog(List.of(FII));
+
+            verify(bulkOperations, never()).execute();
+            assertEquals(new AssetCatalogRefreshDto(1, 0, 0), result);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package personal.investwallet.modules.job;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class JobCheckpointServiceUnitTest {
+
+    private static final String RUN_ID = "fii-yield-scraping:2024-10-01";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private JobCheckpointService jobCheckpointService;
+
+    @Nested
+    class StartRun {
+
+        @Test
+        @DisplayName("Should be able to reuse the run document when the run is restarted")
+        void shouldBeAbleToReuseTheRunDocumentWhenTheRunIsRestarted() {
+
+            String runId = jobCheckpointService.startRun("fii-yield-scraping", "2024-10-01");
+
+            ArgumentCaptor<UpdateDefinition> captor = ArgumentCaptor.forClass(UpdateDefinition.class);
+            verify(mongoTemplate).upsert(any(Query.class), captor.capture(), eq(JobRunEntity.class));
+
+            org.bson.Document update = ((Update) captor.getValue()).getUpdateObject();
+            assertEquals(RUN_ID, runId);
+            assertTrue(update.get("$setOnInsert", org.bson.Document.class).containsKey("started_at"));
+            assertEquals(JobRunEntity.RUNNING, update.get("$set", org.bson.Document.class).get("status"));
+        }
+    }
+
+    @Nested
+    class GetCompletedItems {
+
+        @Test
+        @DisplayName("Should be able to return only the items checkpointed as done")
+        void shouldBeAbleToReturnOnlyTheItemsCheckpointedAsDone() {
+
+            JobRunEntity run = new JobRunEntity();
+            run.setItems(Map.of(
+                    "ABCD11", new JobRunEntity.ItemCheckpoint(JobRunEntity.ItemCheckpoint.DONE, null, Instant.now()),
+                    "XYZW11", new JobRunEntity.ItemCheckpoint(JobRunEntity.ItemCheckpoint.FAILED, "Read timed out",
+                            Instant.now())));
+
+            when(mongoTemplate.findOne(any(Query.class), eq(JobRunEntity.class))).thenReturn(run);
+
+            assertEquals(Set.of("ABCD11"), jobCheckpointService.getCompletedItems(RUN_ID));
+        }
+
+        @Test
+        @DisplayName("Should be able to return no items when the run has not started yet")
+        void shouldBeAbleToReturnNoItemsWhenTheRunHasNotStartedYet() {
+
+            when(mongoTemplate.findOne(any(Query.class), eq(JobRunEntity.class))).thenReturn(null);
+
+            assertTrue(jobCheckpointService.getCompletedItems(RUN_ID).isEmpty());
+        }
+    }
+
+    @Nested
+    class MarkItem {
+
+        @Test
+        @DisplayName("Should be able to keep running when a checkpoint cannot be written")
+        void shouldBeAbleToKeepRunningWhenACheckpointCannotBeWritten() {
+
+            when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(JobRunEntity.class)))
+                    .thenThrow(new IllegalStateException("timeout"));
+
+            jobCheckpointService.markItem(RUN_ID, "ABCD11", JobRunEntity.ItemCheckpoint.DONE, "1 dividendos registrados");
+
+            verify(mongoTemplate).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(JobRunEntity.class));
+        }
+    }
+}
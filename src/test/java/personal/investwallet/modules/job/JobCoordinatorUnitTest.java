@@ -0,0 +1,137 @@
+package personal.investwallet.modules.job;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class JobCoordinatorUnitTest {
+
+    private static final String JOB_RUN = "fii-yield-scraping:2024-10-01";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private JobCoordinator jobCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        jobCoordinator = new JobCoordinator(mongoTemplate, "node-1", 2, 120, 0, 2);
+
+        lenient().when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(JobLeaseEntity.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobCoordinator.shutdown();
+    }
+
+    @Nested
+    class RunPartitioned {
+
+        @Test
+        @DisplayName("Should be able to split items into partitions and process every claimed lease")
+        void shouldBeAbleToSplitItemsIntoPartitionsAndProcessEveryClaimedLease() {
+
+            when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                    any(FindAndModifyOptions.class), eq(JobLeaseEntity.class)))
+                    .thenReturn(lease(0, List.of("ABCD11", "HGLG11"), 1))
+                    .thenReturn(lease(1, List.of("XYZW11"), 1))
+                    .thenReturn(null);
+            when(mongoTemplate.exists(any(Query.class), eq(JobLeaseEntity.class))).thenReturn(false);
+
+            List<List<String>> processed = new ArrayList<>();
+
+            jobCoordinator.runPartitioned("fii-yield-scraping", "2024-10-01",
+                    List.of("XYZW11", "HGLG11", "ABCD11", "ABCD11"), processed::add);
+
+            verify(mongoTemplate, times(2)).upsert(any(Query.class), any(UpdateDefinition.class),
+                    eq(JobLeaseEntity.class));
+            assertEquals(List.of(List.of("ABCD11", "HGLG11"), List.of("XYZW11")), processed);
+            assertEquals(List.of("DONE", "DONE"), capturedStatuses());
+        }
+
+        @Test
+        @DisplayName("Should be able to wait for partitions leased by other nodes until they are finished")
+        void shouldBeAbleToWaitForPartitionsLeasedByOtherNodesUntilTheyAreFinished() {
+
+            when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                    any(FindAndModifyOptions.class), eq(JobLeaseEntity.class)))
+                    .thenReturn(null)
+                    .thenReturn(lease(0, List.of("ABCD11"), 1))
+                    .thenReturn(null);
+            when(mongoTemplate.exists(any(Query.class), eq(JobLeaseEntity.class)))
+                    .thenReturn(true)
+                    .thenReturn(false);
+
+            List<List<String>> processed = new ArrayList<>();
+
+            jobCoordinator.runPartitioned("fii-yield-scraping", "2024-10-01", List.of("ABCD11"), processed::add);
+
+            assertEquals(List.of(List.of("ABCD11")), processed);
+        }
+
+        @Test
+        @DisplayName("Should be able to release a failed partition and mark it as failed after the last attempt")
+        void shouldBeAbleToReleaseAFailedPartitionAndMarkItAsFailedAfterTheLastAttempt() {
+
+            when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                    any(FindAndModifyOptions.class), eq(JobLeaseEntity.class)))
+                    .thenReturn(lease(0, List.of("ABCD11"), 1))
+                    .thenReturn(lease(0, List.of("ABCD11"), 2))
+                    .thenReturn(null);
+            when(mongoTemplate.exists(any(Query.class), eq(JobLeaseEntity.class))).thenReturn(false);
+
+            jobCoordinator.runPartitioned("fii-yield-scraping", "2024-10-01", List.of("ABCD11"), items -> {
+                throw new IllegalStateException("Falha no processamento");
+            });
+
+            List<Document> updates = capturedUpdates();
+            assertEquals(Instant.EPOCH, updates.get(0).get("$set", Document.class).get("expires_at"));
+            assertEquals("FAILED", updates.get(1).get("$set", Document.class).get("status"));
+        }
+    }
+
+    private List<Document> capturedUpdates() {
+        ArgumentCaptor<UpdateDefinition> captor = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(any(Query.class), captor.capture(), eq(JobLeaseEntity.class));
+
+        return captor.getAllValues().stream().map(update -> ((Update) update).getUpdateObject()).toList();
+    }
+
+    private List<String> capturedStatuses() {
+        return capturedUpdates().stream()
+                .map(update -> update.get("$set", Document.class).getString("status"))
+                .toList();
+    }
+
+    private static JobLeaseEntity lease(int partition, List<String> items, int attempts) {
+        return new JobLeaseEntity(JOB_RUN + ":" + partition, JOB_RUN, partition, items, JobLeaseEntity.PENDING,
+                "node-1", attempts, Instant.now().plusSeconds(120), Instant.now(), null);
+    }
+}
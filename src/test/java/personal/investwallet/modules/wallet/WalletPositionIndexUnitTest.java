@@ -0,0 +1,82 @@
+package personal.investwallet.modules.wallet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import personal.investwallet.modules.wallet.WalletEntity.Asset.PositionEntry;
+import personal.investwallet.modules.wallet.WalletEntity.Asset.PurchasesInfo;
+import personal.investwallet.modules.wallet.WalletEntity.Asset.SalesInfo;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unit")
+public class WalletPositionIndexUnitTest {
+
+    private static final Instant JAN = Instant.parse("2024-01-10T00:00:00Z");
+    private static final Instant MAR = Instant.parse("2024-03-10T00:00:00Z");
+    private static final Instant JUN = Instant.parse("2024-06-10T00:00:00Z");
+
+    @Nested
+    class Build {
+
+        @Test
+        @DisplayName("Should be able to build the cumulative position sorted by date merging movements of the same date")
+        void shouldBeAbleToBuildTheCumulativePositionSortedByDateMergingMovementsOfTheSameDate() {
+
+            List<PositionEntry> index = WalletPositionIndex.build(
+                    List.of(purchase(10, MAR), purchase(5, JAN), purchase(2, MAR)),
+                    List.of(sale(15, JUN), sale(3, MAR)));
+
+            assertEquals(List.of(
+                    new PositionEntry(JAN, 5),
+                    new PositionEntry(MAR, 14),
+                    new PositionEntry(JUN, -1)), index);
+        }
+
+        @Test
+        @DisplayName("Should be able to build an empty position without movements")
+        void shouldBeAbleToBuildAnEmptyPositionWithoutMovements() {
+
+            assertEquals(List.of(), WalletPositionIndex.build(null, null));
+        }
+    }
+
+    @Nested
+    class QuotaAmountAt {
+
+        private final List<PositionEntry> index = List.of(
+                new PositionEntry(JAN, 5),
+                new PositionEntry(MAR, 14),
+                new PositionEntry(JUN, 0));
+
+        @Test
+        @DisplayName("Should be able to return the position held at the date including movements of that date")
+        void shouldBeAbleToReturnThePositionHeldAtTheDateIncludingMovementsOfThatDate() {
+
+            assertEquals(14, WalletPositionIndex.quotaAmountAt(index, MAR));
+            assertEquals(14, WalletPositionIndex.quotaAmountAt(index, Instant.parse("2024-05-31T00:00:00Z")));
+            assertEquals(0, WalletPositionIndex.quotaAmountAt(index, Instant.parse("2024-12-31T00:00:00Z")));
+        }
+
+        @Test
+        @DisplayName("Should be able to return zero before the first movement")
+        void shouldBeAbleToReturnZeroBeforeTheFirstMovement() {
+
+            assertEquals(0, WalletPositionIndex.quotaAmountAt(index, Instant.parse("2023-12-31T00:00:00Z")));
+            assertEquals(0, WalletPositionIndex.quotaAmountAt(List.of(), JAN));
+        }
+    }
+
+    private static PurchasesInfo purchase(int amount, Instant date) {
+        return new PurchasesInfo(null, amount, BigDecimal.TEN, BigDecimal.ONE, date);
+    }
+
+    private static SalesInfo sale(int amount, Instant date) {
+        return new SalesInfo(null, amount, BigDecimal.TEN, BigDecimal.ONE, date);
+    }
+}
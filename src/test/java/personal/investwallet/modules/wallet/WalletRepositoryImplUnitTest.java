@@ -0,0 +1,214 @@
+package personal.investwallet.modules.wallet;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import personal.investwallet.modules.wallet.dto.AssetHolderDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class WalletRepositoryImplUnitTest {
+
+    private static final String USER_ID = "user1234";
+    private static final String ASSET_NAME = "ABCD11";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private WalletRepositoryImpl walletRepository;
+
+    @BeforeEach
+    void setUp() {
+        walletRepository = new WalletRepositoryImpl(mongoTemplate);
+    }
+
+    @Nested
+    class AddPurchaseToAsset {
+
+        @Test
+        @DisplayName("Should be able to rebuild the position index from the asset returned by the write")
+        void shouldBeAbleToRebuildThePositionIndexFromTheAssetReturnedByTheWrite() {
+
+            // A compra de 2024-10-01 foi gravada por outra requisição entre a leitura e a escrita desta
+            WalletEntity.Asset.PurchasesInfo concurrent = purchase("p1", 4, "2024-10-01T00:00:00Z");
+            WalletEntity.Asset.PurchasesInfo added = purchase("p2", 10, "2024-11-01T00:00:00Z");
+
+            when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                    any(FindAndModifyOptions.class), eq(WalletEntity.class)))
+                    .thenReturn(wallet(new ArrayList<>(List.of(concurrent, added)), 7));
+
+            List<WalletEntity.Asset.PositionEntry> positionIndex = walletRepository.addPurchaseToAsset(USER_ID,
+                    ASSET_NAME, added, 10);
+
+            assertEquals(List.of(
+                    new WalletEntity.Asset.PositionEntry(Instant.parse("2024-10-01T00:00:00Z"), 4),
+                    new WalletEntity.Asset.PositionEntry(Instant.parse("2024-11-01T00:00:00Z"), 14)), positionIndex);
+
+            ArgumentCaptor<UpdateDefinition> writeCaptor = ArgumentCaptor.forClass(UpdateDefinition.class);
+            ArgumentCaptor<FindAndModifyOptions> optionsCaptor = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+            verify(mongoTemplate).findAndModify(any(Query.class), writeCaptor.capture(), optionsCaptor.capture(),
+                    eq(WalletEntity.class));
+
+            Document increments = ((Update) writeCaptor.getValue()).getUpdateObject().get("$inc", Document.class);
+            assertEquals(1, increments.get("assets.ABCD11.revision"));
+            assertEquals(10, increments.get("assets.ABCD11.quota_amount"));
+            assertTrue(optionsCaptor.getValue().isReturnNew());
+
+            // O índice só é gravado enquanto nenhuma outra movimentação passou da revisão lida
+            ArgumentCaptor<Query> guardCaptor = ArgumentCaptor.forClass(Query.class);
+            ArgumentCaptor<UpdateDefinition> indexCaptor = ArgumentCaptor.forClass(UpdateDefinition.class);
+            verify(mongoTemplate).updateFirst(guardCaptor.capture(), indexCaptor.capture(), eq(WalletEntity.class));
+
+            assertEquals(7L, guardCaptor.getValue().getQueryObject().get("assets.ABCD11.revision"));
+            assertEquals(positionIndex, ((Update) indexCaptor.getValue()).getUpdateObject()
+                    .get("$set", Document.class).get("assets.ABCD11.position_index"));
+        }
+
+        @Test
+        @DisplayName("Should not be able to write the position index when the asset is no longer in the wallet")
+        void shouldNotBeAbleToWriteThePositionIndexWhenTheAssetIsNoLongerInTheWallet() {
+
+            when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                    any(FindAndModifyOptions.class), eq(WalletEntity.class))).thenReturn(null);
+
+            List<WalletEntity.Asset.PositionEntry> positionIndex = walletRepository.addPurchaseToAsset(USER_ID,
+                    ASSET_NAME, purchase("p1", 10, "2024-11-01T00:00:00Z"), 10);
+
+            assertTrue(positionIndex.isEmpty());
+            verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class),
+                    eq(WalletEntity.class));
+        }
+    }
+
+    @Nested
+    class FindHoldersByAssetKeyAt {
+
+        private static final Instant BASE_DATE = Instant.parse("2024-10-31T00:00:00Z");
+
+        @Test
+        @DisplayName("Should be able to keep the legacy holder after the wallet is saved with a new asset")
+        void shouldBeAbleToKeepTheLegacyHolderAfterTheWalletIsSavedWithANewAsset() {
+
+            // Ativo lido de um documento gravado antes do índice de posição
+            WalletEntity.Asset legacy = new WalletEntity.Asset();
+            legacy.setAssetName(ASSET_NAME);
+            legacy.setQuotaAmount(10);
+            legacy.setPurchasesInfo(new ArrayList<>(List.of(purchase("p1", 10, "2024-01-10T00:00:00Z"))));
+            legacy.setSalesInfo(new ArrayList<>());
+
+            WalletEntity wallet = new WalletEntity();
+            wallet.setUserId(USER_ID);
+            wallet.getAssets().put(ASSET_NAME, legacy);
+            wallet.getAssets().put("XYZW11", new WalletEntity.Asset("XYZW11", 5,
+                    new ArrayList<>(List.of(purchase("p2", 5, "2024-10-01T00:00:00Z"))), new ArrayList<>()));
+
+            Document saved = new Document();
+            converter().write(wallet, saved);
+
+            Document savedLegacy = saved.get("assets", Document.class).get(ASSET_NAME, Document.class);
+            assertFalse(savedLegacy.containsKey("position_index"));
+
+            when(mongoTemplate.getCollectionName(WalletEntity.class)).thenReturn("wallets");
+            when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("wallets"))).thenReturn(List.of(saved));
+
+            assertEquals(List.of(new AssetHolderDto(USER_ID, 10)),
+                    walletRepository.findHoldersByAssetKeyAt(ASSET_NAME, BASE_DATE));
+        }
+
+        @Test
+        @DisplayName("Should be able to rebuild the position from the movements when the stored index is empty")
+        void shouldBeAbleToRebuildThePositionFromTheMovementsWhenTheStoredIndexIsEmpty() {
+
+            Document asset = new Document("quota_amount", 0)
+                    .append("position_index", List.of())
+                    .append("purchases_info", List.of(new Document("purchase_date", date("2024-01-10T00:00:00Z"))
+                            .append("purchase_amount", 10)))
+                    .append("sales_info", List.of(new Document("sale_date", date("2024-11-10T00:00:00Z"))
+                            .append("sale_amount", 10)));
+
+            when(mongoTemplate.getCollectionName(WalletEntity.class)).thenReturn("wallets");
+            when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("wallets"))).thenReturn(List.of(
+                    new Document("user_id", USER_ID).append("assets", new Document(ASSET_NAME, asset))));
+
+            // A venda é posterior à data base, então as 10 cotas ainda contam
+            assertEquals(List.of(new AssetHolderDto(USER_ID, 10)),
+                    walletRepository.findHoldersByAssetKeyAt(ASSET_NAME, BASE_DATE));
+        }
+
+        @Test
+        @DisplayName("Should be able to use the current quota amount of a legacy asset without movements")
+        void shouldBeAbleToUseTheCurrentQuotaAmountOfALegacyAssetWithoutMovements() {
+
+            when(mongoTemplate.getCollectionName(WalletEntity.class)).thenReturn("wallets");
+            when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("wallets"))).thenReturn(List.of(
+                    new Document("user_id", USER_ID).append("assets", new Document(ASSET_NAME,
+                            new Document("quota_amount", 7)))));
+
+            assertEquals(List.of(new AssetHolderDto(USER_ID, 7)),
+                    walletRepository.findHoldersByAssetKeyAt(ASSET_NAME, BASE_DATE));
+        }
+
+        private static MappingMongoConverter converter() {
+
+            MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+            MongoMappingContext mappingContext = new MongoMappingContext();
+            mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+
+            MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+            converter.setCustomConversions(conversions);
+            converter.afterPropertiesSet();
+
+            return converter;
+        }
+
+        private static Date date(String instant) {
+            return Date.from(Instant.parse(instant));
+        }
+    }
+
+    private static WalletEntity wallet(List<WalletEntity.Asset.PurchasesInfo> purchases, long revision) {
+
+        WalletEntity.Asset asset = new WalletEntity.Asset(ASSET_NAME, 14, purchases, new ArrayList<>());
+        asset.setRevision(revision);
+
+        WalletEntity wallet = new WalletEntity();
+        wallet.setUserId(USER_ID);
+        wallet.getAssets().put(ASSET_NAME, asset);
+
+        return wallet;
+    }
+
+    private static WalletEntity.Asset.PurchasesInfo purchase(String purchaseId, int amount, String date) {
+        return new WalletEntity.Asset.PurchasesInfo(purchaseId, amount, BigDecimal.TEN, BigDecimal.ONE,
+                Instant.parse(date));
+    }
+}
@@ -9,9 +9,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
+import personal.investwallet.csv.CsvParallelParser;
 import personal.investwallet.exceptions.*;
 import personal.investwallet.modules.asset.AssetService;
 import personal.investwallet.modules.wallet.dto.*;
@@ -43,6 +46,12 @@ class WalletServiceUnitTest {
         @Mock
         private AssetService assetService;
 
+        @Mock
+        private ApplicationEventPublisher eventPublisher;
+
+        @Spy
+        private CsvParallelParser csvParallelParser = new CsvParallelParser(2, 64);
+
         @InjectMocks
         private WalletService walletService;
 
@@ -115,6 +124,38 @@ class WalletServiceUnitTest {
                 }
         }
 
+        @Nested
+        class GetAllHoldersByAssetName {
+
+                @Test
+                @DisplayName("Should be able to get all holders with their quota amount by asset name")
+                void shouldBeAbleToGetAllHoldersWithTheirQuotaAmountByAssetName() {
+
+                        List<AssetHolderDto> expectedHolders = List.of(
+                                        new AssetHolderDto("user1", 10),
+                                        new AssetHolderDto("user2", 25));
+                        when(walletRepository.findHoldersByAssetKey(ASSET_NAME)).thenReturn(expectedHolders);
+
+                        List<AssetHolderDto> result = walletService.getAllHoldersByAssetName(ASSET_NAME);
+
+                        assertEquals(expectedHolders, result);
+                        verify(walletRepository, times(1)).findHoldersByAssetKey(ASSET_NAME);
+                }
+
+                @Test
+                @DisplayName("Should be able to get all holders with the quota amount they had at a date by asset name")
+                void shouldBeAbleToGetAllHoldersWithTheQuotaAmountTheyHadAtADateByAssetName() {
+
+                        Instant baseDate = Instant.parse("2024-09-30T00:00:00Z");
+                        List<AssetHolderDto> expectedHolders = List.of(new AssetHolderDto("user1", 5));
+                        when(walletRepository.findHoldersByAssetKeyAt(ASSET_NAME, baseDate)).thenReturn(expectedHolders);
+
+                        List<AssetHolderDto> result = walletService.getAllHoldersByAssetNameAt(ASSET_NAME, baseDate);
+
+                        assertEquals(expectedHolders, result);
+                }
+        }
+
         @Nested
         class GetQuotaAmountOfAssetByUserId {
 
@@ -301,6 +342,34 @@ class WalletServiceUnitTest {
                         assertEquals("O ativo informado não existe na carteira", exception.getMessage());
                 }
 
+                @Test
+                @DisplayName("Should be able to add purchase to asset publishing the position index rebuilt after the write")
+                void shouldBeAbleToAddPurchaseToAssetPublishingThePositionIndexRebuiltAfterTheWrite() {
+
+                        AddPurchaseRequestDto payload = getPurchasesInfoRequestDto();
+
+                        when(tokenService.extractUserIdFromToken(anyString())).thenReturn(USER_ID);
+                        when(assetService.getAssetTypeByAssetName(payload.assetName())).thenReturn(ASSET_TYPE);
+
+                        WalletEntity wallet = new WalletEntity();
+                        wallet.getAssets().put(ASSET_NAME, new WalletEntity.Asset(ASSET_NAME, 4, new ArrayList<>(),
+                                        new ArrayList<>()));
+
+                        // O índice vem do documento já alterado, que pode ter compras gravadas por outra requisição
+                        List<WalletEntity.Asset.PositionEntry> positionIndex = List.of(
+                                        new WalletEntity.Asset.PositionEntry(Instant.parse("2024-10-06T10:00:00.000Z"), 10),
+                                        new WalletEntity.Asset.PositionEntry(Instant.parse("2024-11-01T00:00:00Z"), 14));
+
+                        when(walletRepository.findByUserId(USER_ID)).thenReturn(Optional.of(wallet));
+                        when(walletRepository.addPurchaseToAsset(eq(USER_ID), eq(ASSET_NAME),
+                                        any(WalletEntity.Asset.PurchasesInfo.class), eq(10))).thenReturn(positionIndex);
+
+                        walletService.addPurchaseToAsset(TOKEN, payload);
+
+                        verify(eventPublisher).publishEvent(new WalletChangedEvent(USER_ID, ASSET_NAME,
+                                        Instant.parse("2024-10-06T10:00:00.000Z"), positionIndex));
+                }
+
                 private static AddPurchaseRequestDto getPurchasesInfoRequestDto() {
                         String dateTimeString = "2024-10-06T10:00:00.000Z";
 
@@ -688,6 +757,33 @@ class WalletServiceUnitTest {
         @Nested
         class UpdatePurchaseToAssetByPurchaseId {
 
+                @Test
+                @DisplayName("Should be able to publish the earliest purchase date when a purchase is back-dated")
+                void shouldBeAbleToPublishTheEarliestPurchaseDateWhenAPurchaseIsBackDated() {
+
+                        Instant backDated = Instant.parse("2024-01-15T00:00:00Z");
+                        UpdatePurchaseRequestDto payload = new UpdatePurchaseRequestDto(null, null, backDated);
+
+                        WalletEntity wallet = createWalletWithAssetAndPurchaseInfo();
+
+                        when(tokenService.extractUserIdFromToken(anyString())).thenReturn(USER_ID);
+                        when(assetService.getAssetTypeByAssetName(ASSET_NAME)).thenReturn(ASSET_TYPE);
+                        when(walletRepository.findByUserId(USER_ID)).thenReturn(Optional.of(wallet));
+                        when(walletRepository.updatePurchaseInAssetByPurchaseId(eq(USER_ID), eq(ASSET_NAME), anyList(),
+                                        anyInt())).thenAnswer(invocation -> WalletPositionIndex.build(
+                                                        invocation.getArgument(2), List.of()));
+
+                        walletService.updatePurchaseToAssetByPurchaseId(TOKEN, ASSET_NAME, PURCHASE_ID, payload);
+
+                        ArgumentCaptor<WalletChangedEvent> eventCaptor = ArgumentCaptor.forClass(WalletChangedEvent.class);
+                        verify(eventPublisher).publishEvent(eventCaptor.capture());
+
+                        WalletChangedEvent event = eventCaptor.getValue();
+                        assertEquals(backDated, event.effectiveFrom());
+                        assertEquals(1, wallet.getAssets().get(ASSET_NAME).getPurchasesInfo().size());
+                        assertEquals(List.of(new WalletEntity.Asset.PositionEntry(backDated, 5)), event.positionIndex());
+                }
+
                 @Test
                 @DisplayName("Should be able to update asset's purchase info by purchaseId with purchase amount different from the previous one")
                 void shouldBeAbleToUpdateAssetsPurchaseInfoByPurchaseIdWithPurchaseAmountDifferentFromPreviousOne() {
@@ -995,7 +1091,7 @@ class WalletServiceUnitTest {
                         when(tokenService.extractUserIdFromToken(anyString())).thenReturn(USER_ID);
                         when(assetService.getAssetTypeByAssetName(ASSET_NAME)).thenReturn(ASSET_TYPE);
                         when(walletRepository.findByUserId(USER_ID)).thenReturn(Optional.of(wallet));
-                        doNothing().when(walletRepository).updatePurchaseInAssetByPurchaseId(
+                        doReturn(List.of()).when(walletRepository).updatePurchaseInAssetByPurchaseId(
                                         anyString(),
                                         anyString(),
                                         anyList(),
@@ -2047,7 +2143,7 @@ class WalletServiceUnitTest {
                         when(tokenService.extractUserIdFromToken(anyString())).thenReturn(USER_ID);
                         when(assetService.getAssetTypeByAssetName(ASSET_NAME)).thenReturn(ASSET_TYPE);
                         when(walletRepository.findByUserId(USER_ID)).thenReturn(Optional.of(wallet));
-                        doNothing().when(walletRepository).updateSaleInAssetBySaleId(
+                        doReturn(List.of()).when(walletRepository).updateSaleInAssetBySaleId(
                                         anyString(),
                                         anyString(),
                                         anyList(),
@@ -0,0 +1,95 @@
+package personal.investwallet.modules.webscraper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+public class HtmlSectionReaderUnitTest {
+
+    private final HtmlSectionReader sectionReader = new HtmlSectionReader("dy-info");
+
+    @Nested
+    class Read {
+
+        @Test
+        @DisplayName("Should be able to return only the section including its nested elements")
+        void shouldBeAbleToReturnOnlyTheSectionIncludingItsNestedElements() throws IOException {
+
+            String section = "<div id=\"dy-info\" class=\"card\"><div><div><b>1,10</b></div><br/></div><!-- </div> --></div>";
+            String page = "<html><body><div id=\"top\"><div></div></div>" + section + "<div>depois</div></body></html>";
+
+            assertEquals(section, sectionReader.read(new StringReader(page)));
+        }
+
+        @Test
+        @DisplayName("Should be able to stop reading the page once the section is closed")
+        void shouldBeAbleToStopReadingThePageOnceTheSectionIsClosed() throws IOException {
+
+            String section = "<DIV ID='dy-info'><div>valor</div></DIV>";
+            StringBuilder page = new StringBuilder("<html><body>");
+            page.append("<p>".repeat(5000)).append(section).append("<div>".repeat(100_000));
+
+            CountingReader reader = new CountingReader(new StringReader(page.toString()));
+
+            assertEquals(section, sectionReader.read(reader));
+            assertTrue(reader.charsRead < page.length() / 2);
+        }
+
+        @Test
+        @DisplayName("Should be able to skip elements whose data-id attribute has the section id")
+        void shouldBeAbleToSkipElementsWhoseDataIdAttributeHasTheSectionId() throws IOException {
+
+            String section = "<div id=\"dy-info\"><b>1,10</b></div>";
+            String page = "<html><body><span data-id=\"dy-info\">isca</span>" + section + "</body></html>";
+
+            assertEquals(section, sectionReader.read(new StringReader(page)));
+        }
+
+        @Test
+        @DisplayName("Should not be able to find a section that is not in the page")
+        void shouldNotBeAbleToFindASectionThatIsNotInThePage() throws IOException {
+
+            assertNull(sectionReader.read(new StringReader("<html><body><div id=\"dy-info-old\"></div></body></html>")));
+        }
+
+        @Test
+        @DisplayName("Should not be able to return a section that was never closed")
+        void shouldNotBeAbleToReturnASectionThatWasNeverClosed() throws IOException {
+
+            assertNull(sectionReader.read(new StringReader("<div id=\"dy-info\"><div></div>")));
+        }
+    }
+
+    private static class CountingReader extends Reader {
+
+        private final Reader delegate;
+        private int charsRead;
+
+        CountingReader(Reader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = delegate.read(buffer, offset, length);
+            if (read > 0)
+                charsRead += read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
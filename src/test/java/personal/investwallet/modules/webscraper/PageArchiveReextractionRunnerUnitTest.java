@@ -0,0 +1,139 @@
+package personal.investwallet.modules.webscraper;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.test.util.ReflectionTestUtils;
+import personal.investwallet.exceptions.ScraperProcessingException;
+import personal.investwallet.modules.announcement.AnnouncementService;
+import personal.investwallet.modules.webscraper.dto.ArchivedPageDto;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class PageArchiveReextractionRunnerUnitTest {
+
+    private static final String FII = "fundos-imobiliarios";
+
+    @Mock
+    private PageArchiveService pageArchiveService;
+
+    @Mock
+    private ScraperService scraperService;
+
+    @Mock
+    private AnnouncementService announcementService;
+
+    @InjectMocks
+    private PageArchiveReextractionRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(runner, "parallelism", 2);
+    }
+
+    @Nested
+    class Run {
+
+        @Test
+        @DisplayName("Should not be able to reextract when the option was not informed")
+        void shouldNotBeAbleToReextractWhenTheOptionWasNotInformed() throws Exception {
+
+            runner.run(new DefaultApplicationArguments("--spring.profiles.active=dev"));
+
+            verifyNoInteractions(pageArchiveService);
+        }
+
+        @Test
+        @DisplayName("Should be able to reextract the asset type informed in the option")
+        void shouldBeAbleToReextractTheAssetTypeInformedInTheOption() throws Exception {
+
+            when(pageArchiveService.getAllArchivedPages("acoes")).thenReturn(List.of());
+
+            runner.run(new DefaultApplicationArguments("--reextract-archive=acoes"));
+
+            verify(pageArchiveService).getAllArchivedPages("acoes");
+        }
+    }
+
+    @Nested
+    class Reextract {
+
+        @Test
+        @DisplayName("Should be able to register the announcements of every asset in the fetch order")
+        void shouldBeAbleToRegisterTheAnnouncementsOfEveryAssetInTheFetchOrder() throws Exception {
+
+            ArchivedPageDto older = page("ABCD11", "2024-09-01T00:00:00Z");
+            ArchivedPageDto newer = page("ABCD11", "2024-10-01T00:00:00Z");
+            ArchivedPageDto other = page("XYZW11", "2024-10-01T00:00:00Z");
+
+            when(pageArchiveService.getAllArchivedPages(FII)).thenReturn(List.of(older, other, newer));
+            when(pageArchiveService.openArchivedPage(any())).thenAnswer(invocation -> new StringReader("<html/>"));
+
+            ScraperResponseDto olderResponse = response("ABCD11", "202409");
+            ScraperResponseDto newerResponse = response("ABCD11", "202410");
+            when(scraperService.extractArchivedYield(eq(FII), eq("ABCD11"), any(Reader.class), anyString()))
+                    .thenReturn(olderResponse)
+                    .thenReturn(newerResponse);
+            when(scraperService.extractArchivedYield(eq(FII), eq("XYZW11"), any(Reader.class), anyString()))
+                    .thenReturn(response("XYZW11", "202410"));
+
+            int registered = runner.reextract(FII);
+
+            assertEquals(3, registered);
+
+            InOrder inOrder = inOrder(announcementService);
+            inOrder.verify(announcementService).registerScrapedAnnouncement("ABCD11", olderResponse);
+            inOrder.verify(announcementService).registerScrapedAnnouncement("ABCD11", newerResponse);
+        }
+
+        @Test
+        @DisplayName("Should be able to skip pages the extractor can no longer read")
+        void shouldBeAbleToSkipPagesTheExtractorCanNoLongerRead() throws Exception {
+
+            when(pageArchiveService.getAllArchivedPages(FII)).thenReturn(List.of(page("ABCD11", "2024-10-01T00:00:00Z"),
+                    page("XYZW11", "2024-10-01T00:00:00Z")));
+            when(pageArchiveService.openArchivedPage(any())).thenAnswer(invocation -> new StringReader("<html/>"));
+            when(scraperService.extractArchivedYield(eq(FII), eq("ABCD11"), any(Reader.class), anyString()))
+                    .thenThrow(new ScraperProcessingException("Erro ao reprocessar página arquivada, bloco ausente"));
+            when(scraperService.extractArchivedYield(eq(FII), eq("XYZW11"), any(Reader.class), anyString()))
+                    .thenReturn(response("XYZW11", "202410"));
+
+            int registered = runner.reextract(FII);
+
+            assertEquals(1, registered);
+            verify(announcementService, never()).registerScrapedAnnouncement(eq("ABCD11"), any());
+        }
+    }
+
+    private static ArchivedPageDto page(String assetName, String fetchedAt) {
+        return new ArchivedPageDto(new ObjectId(), FII, assetName, "https://example.com/" + FII + "/" + assetName,
+                "UTF-8", Instant.parse(fetchedAt));
+    }
+
+    private static ScraperResponseDto response(String assetName, String yieldAt) {
+        return new ScraperResponseDto(assetName, new BigDecimal("1.00"), new BigDecimal("100.00"),
+                Instant.now(), Instant.now(), yieldAt);
+    }
+}
@@ -0,0 +1,100 @@
+package personal.investwallet.modules.webscraper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class ScraperCircuitBreakerUnitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private ScraperCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new ScraperCircuitBreaker(3, Duration.ofSeconds(30), clock::get);
+    }
+
+    @Nested
+    class TryAcquirePermission {
+
+        @Test
+        @DisplayName("Should be able to open the circuit after consecutive failures")
+        void shouldBeAbleToOpenTheCircuitAfterConsecutiveFailures() {
+
+            circuitBreaker.onFailure();
+            circuitBreaker.onFailure();
+            circuitBreaker.onSuccess();
+            circuitBreaker.onFailure();
+            circuitBreaker.onFailure();
+
+            assertTrue(circuitBreaker.tryAcquirePermission());
+
+            circuitBreaker.onFailure();
+
+            assertEquals(ScraperCircuitBreaker.State.OPEN, circuitBreaker.state());
+            assertFalse(circuitBreaker.tryAcquirePermission());
+        }
+
+        @Test
+        @DisplayName("Should be able to allow a single probe after the open duration")
+        void shouldBeAbleToAllowASingleProbeAfterTheOpenDuration() {
+
+            openCircuit();
+            clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            assertFalse(circuitBreaker.tryAcquirePermission());
+
+            circuitBreaker.onSuccess();
+
+            assertEquals(ScraperCircuitBreaker.State.CLOSED, circuitBreaker.state());
+            assertTrue(circuitBreaker.tryAcquirePermission());
+        }
+
+        @Test
+        @DisplayName("Should be able to reopen the circuit when the probe fails")
+        void shouldBeAbleToReopenTheCircuitWhenTheProbeFails() {
+
+            openCircuit();
+            clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onFailure();
+
+            assertEquals(ScraperCircuitBreaker.State.OPEN, circuitBreaker.state());
+            assertFalse(circuitBreaker.tryAcquirePermission());
+        }
+    }
+
+    @Nested
+    class ReleasePermission {
+
+        @Test
+        @DisplayName("Should be able to allow a new probe when the previous one ended without an outcome")
+        void shouldBeAbleToAllowANewProbeWhenThePreviousOneEndedWithoutAnOutcome() {
+
+            openCircuit();
+            clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.releasePermission();
+
+            assertEquals(ScraperCircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            assertFalse(circuitBreaker.tryAcquirePermission());
+        }
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++)
+            circuitBreaker.onFailure();
+    }
+}
@@ -0,0 +1,245 @@
+package personal.investwallet.modules.webscraper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import personal.investwallet.exceptions.ScraperProcessingException;
+import personal.investwallet.exceptions.ScraperUnavailableException;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+import personal.investwallet.modules.webscraper.dto.ScraperResultDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class ScraperEngineUnitTest {
+
+    private static final String FII = "fundos-imobiliarios";
+
+    @Mock
+    private ScraperService scraperService;
+
+    private ScraperEngine scraperEngine;
+
+    @AfterEach
+    void tearDown() {
+        if (scraperEngine != null)
+            scraperEngine.shutdown();
+    }
+
+    @Nested
+    class FiiYieldScrapingMany {
+
+        @Test
+        @DisplayName("Should be able to report success and failure per asset without aborting the run")
+        void shouldBeAbleToReportSuccessAndFailurePerAsset() {
+
+            scraperEngine = engine(4, 2, new ScraperCircuitBreaker(10, 60), noBackoffPolicy(1, 0));
+
+            when(scraperService.fiiYieldScraping(FII, "ABCD11")).thenReturn(response("ABCD11"));
+            when(scraperService.fiiYieldScraping(FII, "XYZW11"))
+                    .thenThrow(new ScraperProcessingException("Erro ao realizar web scraping, timeout"));
+            when(scraperService.fiiYieldScraping(FII, "HGLG11")).thenReturn(response("HGLG11"));
+
+            List<ScraperResultDto> results = scraperEngine.fiiYieldScrapingMany(FII,
+                    List.of("ABCD11", "XYZW11", "HGLG11"));
+
+            assertEquals(3, results.size());
+            assertEquals("ABCD11", results.get(0).assetName());
+            assertTrue(results.get(0).isSuccess());
+            assertFalse(results.get(1).isSuccess());
+            assertEquals("Erro ao realizar web scraping, timeout", results.get(1).errorMessage());
+            assertTrue(results.get(2).isSuccess());
+        }
+
+        @Test
+        @DisplayName("Should be able to finish every asset before rethrowing a failure of the result callback")
+        void shouldBeAbleToFinishEveryAssetBeforeRethrowingAFailureOfTheResultCallback() {
+
+            scraperEngine = engine(2, 2, new ScraperCircuitBreaker(10, 60), noBackoffPolicy(1, 0));
+
+            when(scraperService.fiiYieldScraping(FII, "ABCD11")).thenReturn(response("ABCD11"));
+            when(scraperService.fiiYieldScraping(FII, "XYZW11")).thenReturn(response("XYZW11"));
+
+            List<String> handled = new CopyOnWriteArrayList<>();
+
+            ScraperProcessingException exception = assertThrows(ScraperProcessingException.class,
+                    () -> scraperEngine.fiiYieldScrapingMany(FII, List.of("ABCD11", "XYZW11"), result -> {
+                        if (result.assetName().equals("ABCD11"))
+                            throw new IllegalStateException("Mongo indisponível");
+
+                        handled.add(result.assetName());
+                    }));
+
+            assertEquals("Erro ao processar o resultado do web scraping dos ativos [ABCD11]", exception.getMessage());
+            assertEquals("Mongo indisponível", exception.getSuppressed()[0].getMessage());
+            assertEquals(List.of("XYZW11"), handled);
+        }
+
+        @Test
+        @DisplayName("Should not be able to exceed the concurrency cap of the host")
+        void shouldNotBeAbleToExceedTheConcurrencyCapOfTheHost() {
+
+            scraperEngine = engine(8, 2, new ScraperCircuitBreaker(10, 60), noBackoffPolicy(1, 0));
+
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+
+            when(scraperService.fiiYieldScraping(eq(FII), anyString())).thenAnswer(invocation -> {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                return response(invocation.getArgument(1));
+            });
+
+            List<String> assetNames = IntStream.range(0, 12).mapToObj(i -> "ASST" + (10 + i)).toList();
+
+            List<ScraperResultDto> results = scraperEngine.fiiYieldScrapingMany(FII, assetNames);
+
+            assertEquals(12, results.size());
+            assertTrue(results.stream().allMatch(ScraperResultDto::isSuccess));
+            assertTrue(maxInFlight.get() <= 2);
+        }
+
+        @Test
+        @DisplayName("Should be able to retry an unavailable site until it answers")
+        void shouldBeAbleToRetryAnUnavailableSiteUntilItAnswers() {
+
+            scraperEngine = engine(1, 1, new ScraperCircuitBreaker(10, 60), noBackoffPolicy(3, 5));
+
+            when(scraperService.fiiYieldScraping(FII, "ABCD11"))
+                    .thenThrow(new ScraperUnavailableException("Erro ao realizar web scraping, status HTTP 503"))
+                    .thenReturn(response("ABCD11"));
+
+            List<ScraperResultDto> results = scraperEngine.fiiYieldScrapingMany(FII, List.of("ABCD11"));
+
+            assertTrue(results.get(0).isSuccess());
+            verify(scraperService, times(2)).fiiYieldScraping(FII, "ABCD11");
+        }
+
+        @Test
+        @DisplayName("Should be able to let other assets of the host run while a retry is backing off")
+        void shouldBeAbleToLetOtherAssetsOfTheHostRunWhileARetryIsBackingOff() {
+
+            ScraperRetryPolicy retryPolicy = mock(ScraperRetryPolicy.class);
+            when(retryPolicy.maxAttempts()).thenReturn(2);
+            when(retryPolicy.backoffMillis(anyInt())).thenReturn(400L);
+            when(retryPolicy.newBudget(anyInt())).thenReturn(noBackoffPolicy(2, 5).newBudget(2));
+
+            // Um único permit por host e uma espera pelo bulkhead bem menor que o backoff
+            scraperEngine = new ScraperEngine(scraperService, new ScraperCircuitBreaker(10, 60), retryPolicy,
+                    "https://example.com", "https://assets.example.com", 2, 1, 1000, 1000, 100);
+
+            when(scraperService.fiiYieldScraping(FII, "ABCD11"))
+                    .thenThrow(new ScraperUnavailableException("Erro ao realizar web scraping, status HTTP 503"))
+                    .thenReturn(response("ABCD11"));
+            when(scraperService.fiiYieldScraping(FII, "XYZW11")).thenReturn(response("XYZW11"));
+
+            List<ScraperResultDto> results = scraperEngine.fiiYieldScrapingMany(FII, List.of("ABCD11", "XYZW11"));
+
+            assertTrue(results.stream().allMatch(ScraperResultDto::isSuccess));
+        }
+
+        @Test
+        @DisplayName("Should not be able to retry a page that could not be parsed")
+        void shouldNotBeAbleToRetryAPageThatCouldNotBeParsed() {
+
+            scraperEngine = engine(1, 1, new ScraperCircuitBreaker(10, 60), noBackoffPolicy(3, 5));
+
+            when(scraperService.fiiYieldScraping(FII, "ABCD11"))
+                    .thenThrow(new ScraperProcessingException("Erro ao realizar web scraping, bloco ausente"));
+
+            List<ScraperResultDto> results = scraperEngine.fiiYieldScrapingMany(FII, List.of("ABCD11"));
+
+            assertFalse(results.get(0).isSuccess());
+            verify(scraperService, times(1)).fiiYieldScraping(FII, "ABCD11");
+        }
+
+        @Test
+        @DisplayName("Should not be able to retry beyond the retry budget of the run")
+        void shouldNotBeAbleToRetryBeyondTheRetryBudgetOfTheRun() {
+
+            scraperEngine = engine(1, 1, new ScraperCircuitBreaker(100, 60), noBackoffPolicy(5, 2));
+
+            when(scraperService.fiiYieldScraping(eq(FII), anyString()))
+                    .thenThrow(new ScraperUnavailableException("Erro ao realizar web scraping, status HTTP 503"));
+
+            List<ScraperResultDto> results = scraperEngine.fiiYieldScrapingMany(FII, List.of("ABCD11", "XYZW11"));
+
+            assertTrue(results.stream().noneMatch(ScraperResultDto::isSuccess));
+            // 2 chamadas originais + 2 retries do orçamento
+            verify(scraperService, times(4)).fiiYieldScraping(eq(FII), anyString());
+        }
+
+        @Test
+        @DisplayName("Should be able to fail fast once the circuit is open")
+        void shouldBeAbleToFailFastOnceTheCircuitIsOpen() {
+
+            scraperEngine = engine(1, 1, new ScraperCircuitBreaker(2, 60), noBackoffPolicy(1, 0));
+
+            when(scraperService.fiiYieldScraping(eq(FII), anyString()))
+                    .thenThrow(new ScraperUnavailableException("Erro ao realizar web scraping, prazo excedido"));
+
+            List<ScraperResultDto> results = scraperEngine.fiiYieldScrapingMany(FII,
+                    List.of("ABCD11", "XYZW11", "HGLG11", "KNRI11"));
+
+            verify(scraperService, times(2)).fiiYieldScraping(eq(FII), anyString());
+            assertTrue(results.get(3).errorMessage().contains("circuito aberto"));
+        }
+    }
+
+    @Nested
+    class AssetCatalogScrapingMany {
+
+        @Test
+        @DisplayName("Should be able to merge the tickers of every page in page order without duplicates")
+        void shouldBeAbleToMergeTheTickersOfEveryPageInPageOrderWithoutDuplicates() {
+
+            scraperEngine = engine(4, 2, new ScraperCircuitBreaker(10, 60), noBackoffPolicy(1, 0));
+
+            when(scraperService.assetCatalogScraping(FII, 1)).thenReturn(List.of("ABCD11", "HGLG11"));
+            when(scraperService.assetCatalogScraping(FII, 2)).thenReturn(List.of("HGLG11", "XYZW11"));
+            when(scraperService.assetCatalogScraping(FII, 3))
+                    .thenThrow(new ScraperProcessingException("Erro ao realizar web scraping, status HTTP 404"));
+
+            List<String> assetNames = scraperEngine.assetCatalogScrapingMany(FII, 3);
+
+            assertEquals(List.of("ABCD11", "HGLG11", "XYZW11"), assetNames);
+        }
+    }
+
+    private ScraperEngine engine(int poolSize, int maxPerHost, ScraperCircuitBreaker circuitBreaker,
+                                 ScraperRetryPolicy retryPolicy) {
+        return new ScraperEngine(scraperService, circuitBreaker, retryPolicy, "https://example.com",
+                "https://assets.example.com", poolSize, maxPerHost, 1000, 1000, 5000);
+    }
+
+    private static ScraperRetryPolicy noBackoffPolicy(int maxAttempts, int retryBudget) {
+        return new ScraperRetryPolicy(maxAttempts, 0, 0, 0, retryBudget);
+    }
+
+    private static ScraperResponseDto response(String assetName) {
+        return new ScraperResponseDto(assetName, new BigDecimal("1.00"), new BigDecimal("100.00"),
+                Instant.now(), Instant.now(), "202410");
+    }
+}
@@ -0,0 +1,208 @@
+package personal.investwallet.modules.webscraper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+// Servidor HTTP local que serve as páginas gravadas em src/test/resources/scraper no lugar do site real
+public class ScraperFixtureServer implements AutoCloseable {
+
+    private static final String FIXTURE_DIR = "/scraper/";
+    private static final String TICKER_PLACEHOLDER = "{{TICKER}}";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, String> templates = new ConcurrentHashMap<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger abortedBodies = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile boolean etagEnabled;
+    private volatile String trailingPadding = "";
+
+    private ScraperFixtureServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static ScraperFixtureServer start() throws IOException {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "scraper-fixture");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        ScraperFixtureServer fixtureServer = new ScraperFixtureServer(server, executor);
+        server.createContext("/", fixtureServer::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        return fixtureServer;
+    }
+
+    public ScraperFixtureServer withLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public ScraperFixtureServer withErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public ScraperFixtureServer withEtag(boolean etagEnabled) {
+        this.etagEnabled = etagEnabled;
+        return this;
+    }
+
+    // Conteúdo pouco compressível depois do fim da página, para simular as partes que o extrator não precisa ler
+    public ScraperFixtureServer withTrailingPadding(int length) {
+
+        Random random = new Random(length);
+        StringBuilder padding = new StringBuilder("<!--");
+        for (int i = 0; i < length; i++)
+            padding.append((char) ('a' + random.nextInt(26)));
+
+        this.trailingPadding = padding.append("-->").toString();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public int errorCount() {
+        return errors.get();
+    }
+
+    public int notModifiedCount() {
+        return notModified.get();
+    }
+
+    public int abortedBodyCount() {
+        return abortedBodies.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        try (exchange) {
+            requests.incrementAndGet();
+            sleepLatency();
+
+            // Caminho esperado: /{assetType}/{ticker}
+            String[] segments = exchange.getRequestURI().getPath().split("/");
+            if (segments.length != 3) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            String assetType = segments[1];
+            String ticker = segments[2];
+            byte[] page = (template(assetType).replace(TICKER_PLACEHOLDER, ticker) + trailingPadding)
+                    .getBytes(StandardCharsets.UTF_8);
+
+            if (etagEnabled) {
+                String etag = "\"" + Integer.toHexString(Arrays.hashCode(page)) + "\"";
+                exchange.getResponseHeaders().set("ETag", etag);
+
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                page = gzip(page);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, page.length);
+
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(page);
+            } catch (IOException e) {
+                // O cliente fechou a conexão antes de receber a página inteira
+                abortedBodies.incrementAndGet();
+            }
+        }
+    }
+
+    private String template(String assetType) {
+
+        return templates.computeIfAbsent(assetType, type -> {
+            try (InputStream fixture = ScraperFixtureServer.class.getResourceAsStream(FIXTURE_DIR + type + ".html")) {
+                if (fixture == null)
+                    throw new IllegalArgumentException("Página gravada não encontrada para " + type);
+
+                return new String(fixture.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void sleepLatency() {
+
+        if (latency.isZero())
+            return;
+
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+
+        return compressed.toByteArray();
+    }
+}
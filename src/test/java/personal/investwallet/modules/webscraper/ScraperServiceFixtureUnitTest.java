@@ -0,0 +1,141 @@
+package personal.investwallet.modules.webscraper;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import personal.investwallet.config.http.HttpClientConfig;
+import personal.investwallet.exceptions.ScraperProcessingException;
+import personal.investwallet.exceptions.ScraperUnavailableException;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+public class ScraperServiceFixtureUnitTest {
+
+    private static final String FII = "fundos-imobiliarios";
+
+    private ScraperFixtureServer fixtureServer;
+    private CloseableHttpClient httpClient;
+    private ScraperService scraperService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fixtureServer = ScraperFixtureServer.start();
+        httpClient = fixtureHttpClient();
+        scraperService = fixtureScraperService(fixtureServer.baseUrl(), httpClient);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        fixtureServer.close();
+    }
+
+    @Nested
+    class FiiYieldScraping {
+
+        @Test
+        @DisplayName("Should be able to scrape the recorded page through the pooled client")
+        void shouldBeAbleToScrapeTheRecordedPageThroughThePooledClient() {
+
+            ScraperResponseDto result = scraperService.fiiYieldScraping(FII, "HGLG11");
+
+            assertEquals("HGLG11", result.assetName());
+            assertEquals(new BigDecimal("1.10"), result.incomeValue());
+            assertEquals(new BigDecimal("100.50"), result.basePrice());
+            assertEquals("202410", result.yieldAt());
+        }
+
+        @Test
+        @DisplayName("Should be able to drop the connection instead of downloading the page after the yield section")
+        void shouldBeAbleToDropTheConnectionInsteadOfDownloadingThePageAfterTheYieldSection() throws Exception {
+
+            fixtureServer.withTrailingPadding(16 * 1024 * 1024);
+
+            ScraperResponseDto first = scraperService.fiiYieldScraping(FII, "HGLG11");
+            ScraperResponseDto second = scraperService.fiiYieldScraping(FII, "KNRI11");
+
+            assertEquals(new BigDecimal("1.10"), first.incomeValue());
+            assertEquals("KNRI11", second.assetName());
+
+            // O servidor só percebe o descarte ao tentar escrever o restante da página
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (fixtureServer.abortedBodyCount() < 2 && System.nanoTime() < deadline)
+                Thread.sleep(20);
+
+            assertEquals(2, fixtureServer.abortedBodyCount());
+        }
+
+        @Test
+        @DisplayName("Should be able to skip the download when the recorded page was not modified")
+        void shouldBeAbleToSkipTheDownloadWhenTheRecordedPageWasNotModified() {
+
+            fixtureServer.withEtag(true);
+
+            ScraperResponseDto first = scraperService.fiiYieldScraping(FII, "HGLG11");
+            ScraperResponseDto second = scraperService.fiiYieldScraping(FII, "HGLG11");
+
+            assertEquals(2, fixtureServer.requestCount());
+            assertEquals(1, fixtureServer.notModifiedCount());
+            assertEquals(first, second);
+        }
+
+        @Test
+        @DisplayName("Should not be able to scrape when the fixture server injects an error")
+        void shouldNotBeAbleToScrapeWhenTheFixtureServerInjectsAnError() {
+
+            fixtureServer.withErrorRate(1.0);
+
+            assertThrows(ScraperProcessingException.class, () -> scraperService.fiiYieldScraping(FII, "HGLG11"));
+            assertEquals(1, fixtureServer.errorCount());
+        }
+
+        @Test
+        @DisplayName("Should not be able to wait for a slow page beyond the call deadline")
+        void shouldNotBeAbleToWaitForASlowPageBeyondTheCallDeadline() {
+
+            fixtureServer.withLatency(Duration.ofSeconds(2));
+            ReflectionTestUtils.setField(scraperService, "callTimeoutMs", 200L);
+
+            long start = System.nanoTime();
+            ScraperUnavailableException exception = assertThrows(ScraperUnavailableException.class,
+                    () -> scraperService.fiiYieldScraping(FII, "HGLG11"));
+
+            assertTrue(exception.getMessage().contains("prazo de 200ms excedido"));
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+        }
+    }
+
+    static CloseableHttpClient fixtureHttpClient() {
+
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxTotal", 64);
+        ReflectionTestUtils.setField(config, "maxPerRoute", 64);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "keepAliveSeconds", 30L);
+
+        return config.scraperHttpClient();
+    }
+
+    static ScraperService fixtureScraperService(String baseUrl, CloseableHttpClient httpClient) {
+
+        ScraperService scraperService = new ScraperService();
+        ReflectionTestUtils.setField(scraperService, "yieldBaseUrl", baseUrl);
+        ReflectionTestUtils.setField(scraperService, "scraperHttpClient", httpClient);
+        ReflectionTestUtils.setField(scraperService, "yieldPageExtractors", List.of(new FiiYieldPageExtractor()));
+
+        return scraperService;
+    }
+}
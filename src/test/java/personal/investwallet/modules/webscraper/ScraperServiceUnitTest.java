@@ -0,0 +1,229 @@
+package personal.investwallet.modules.webscraper;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import personal.investwallet.exceptions.ScraperProcessingException;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class ScraperServiceUnitTest {
+
+    private static final String FII = "fundos-imobiliarios";
+
+    private static final String PAGE = """
+            <html><body>
+            <div id="header"><div><strong>9,99</strong></div></div>
+            <div id="dy-info"><div>
+              <div class="d-flex align-items-center"><strong>1,10</strong></div>
+              <div>
+                <div><div></div><div><div><b>100,50</b></div></div></div>
+                <div></div>
+                <div>
+                  <div><div><b>30/09/2024</b></div></div>
+                  <div><div><b>15/10/2024</b></div></div>
+                </div>
+              </div>
+            </div></div>
+            <div id="footer"><b>31/12/2099</b></div>
+            </body></html>
+            """;
+
+    @Mock
+    private CloseableHttpClient scraperHttpClient;
+
+    @Mock
+    private PageArchiveService pageArchiveService;
+
+    @InjectMocks
+    private ScraperService scraperService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scraperService, "yieldBaseUrl", "https://example.com");
+        ReflectionTestUtils.setField(scraperService, "assetsBaseUrl", "https://example.com/listagem");
+        ReflectionTestUtils.setField(scraperService, "catalogPagePath", "/{assetType}?page={page}");
+        ReflectionTestUtils.setField(scraperService, "yieldPageExtractors", List.of(new FiiYieldPageExtractor()));
+    }
+
+    @Nested
+    class FiiYieldScraping {
+
+        @Test
+        @DisplayName("Should be able to extract the yield information from the fetched page")
+        void shouldBeAbleToExtractTheYieldInformationFromTheFetchedPage() throws Exception {
+
+            respondWith(page("\"v1\""));
+
+            ScraperResponseDto result = scraperService.fiiYieldScraping(FII, "ABCD11");
+
+            assertEquals("ABCD11", result.assetName());
+            assertEquals(new BigDecimal("1.10"), result.incomeValue());
+            assertEquals(new BigDecimal("100.50"), result.basePrice());
+            assertEquals("202410", result.yieldAt());
+        }
+
+        @Test
+        @DisplayName("Should be able to archive only the page read up to the yield section and cancel the rest")
+        void shouldBeAbleToArchiveOnlyThePageReadUpToTheYieldSectionAndCancelTheRest() throws Exception {
+
+            ReflectionTestUtils.setField(scraperService, "archiveEnabled", true);
+            String longPage = PAGE.replace("</body>", "<p>" + "x".repeat(256 * 1024) + "</p></body>");
+            BasicClassicHttpResponse response = new BasicClassicHttpResponse(200);
+            response.setEntity(new StringEntity(longPage, ContentType.TEXT_HTML.withCharset("UTF-8")));
+            respondWith(response);
+
+            ScraperResponseDto result = scraperService.fiiYieldScraping(FII, "ABCD11");
+
+            ArgumentCaptor<byte[]> archived = ArgumentCaptor.forClass(byte[].class);
+            verify(pageArchiveService).archive(eq(FII), eq("ABCD11"), eq("https://example.com/" + FII + "/ABCD11"),
+                    archived.capture(), eq(StandardCharsets.UTF_8));
+            ArgumentCaptor<HttpGet> request = ArgumentCaptor.forClass(HttpGet.class);
+            verify(scraperHttpClient).execute(request.capture(), any(HttpClientResponseHandler.class));
+
+            String archivedPage = new String(archived.getValue(), StandardCharsets.UTF_8);
+            assertTrue(archivedPage.contains("id=\"dy-info\""));
+            assertTrue(archivedPage.length() < longPage.length() / 4);
+            assertTrue(request.getValue().isCancelled());
+            assertEquals(new BigDecimal("1.10"), result.incomeValue());
+        }
+
+        @Test
+        @DisplayName("Should not be able to cancel the request when the page was read to the end")
+        void shouldNotBeAbleToCancelTheRequestWhenThePageWasReadToTheEnd() throws Exception {
+
+            respondWith(page(null));
+
+            scraperService.fiiYieldScraping(FII, "ABCD11");
+
+            ArgumentCaptor<HttpGet> request = ArgumentCaptor.forClass(HttpGet.class);
+            verify(scraperHttpClient).execute(request.capture(), any(HttpClientResponseHandler.class));
+
+            assertFalse(request.getValue().isCancelled());
+        }
+
+        @Test
+        @DisplayName("Should be able to reuse the cached result when the page was not modified")
+        void shouldBeAbleToReuseTheCachedResultWhenThePageWasNotModified() throws Exception {
+
+            respondWith(page("\"v1\""), new BasicClassicHttpResponse(304));
+
+            ScraperResponseDto first = scraperService.fiiYieldScraping(FII, "ABCD11");
+            ScraperResponseDto second = scraperService.fiiYieldScraping(FII, "ABCD11");
+
+            ArgumentCaptor<ClassicHttpRequest> captor = ArgumentCaptor.forClass(ClassicHttpRequest.class);
+            verify(scraperHttpClient, times(2)).execute(captor.capture(), any(HttpClientResponseHandler.class));
+
+            List<ClassicHttpRequest> requests = captor.getAllValues();
+            assertNull(requests.get(0).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+            assertEquals("\"v1\"", requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+            assertSame(first, second);
+        }
+
+        @Test
+        @DisplayName("Should not be able to send conditional headers when the page has no validators")
+        void shouldNotBeAbleToSendConditionalHeadersWhenThePageHasNoValidators() throws Exception {
+
+            respondWith(page(null), page(null));
+
+            scraperService.fiiYieldScraping(FII, "ABCD11");
+            scraperService.fiiYieldScraping(FII, "ABCD11");
+
+            ArgumentCaptor<ClassicHttpRequest> captor = ArgumentCaptor.forClass(ClassicHttpRequest.class);
+            verify(scraperHttpClient, times(2)).execute(captor.capture(), any(HttpClientResponseHandler.class));
+
+            assertNull(captor.getAllValues().get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+        }
+
+        @Test
+        @DisplayName("Should not be able to scrape when the page returns an error status")
+        void shouldNotBeAbleToScrapeWhenThePageReturnsAnErrorStatus() throws Exception {
+
+            respondWith(new BasicClassicHttpResponse(503));
+
+            ScraperProcessingException exception = assertThrows(ScraperProcessingException.class,
+                    () -> scraperService.fiiYieldScraping(FII, "ABCD11"));
+
+            assertTrue(exception.getMessage().contains("503"));
+        }
+    }
+
+    @Nested
+    class AssetCatalogScraping {
+
+        @Test
+        @DisplayName("Should be able to list the tickers linked from the catalog page")
+        void shouldBeAbleToListTheTickersLinkedFromTheCatalogPage() throws Exception {
+
+            BasicClassicHttpResponse response = new BasicClassicHttpResponse(200);
+            response.setEntity(new StringEntity("""
+                    <html><body>
+                    <a href="/fundos-imobiliarios/hglg11">HGLG11</a>
+                    <a href="https://example.com/fundos-imobiliarios/ABCD11?tab=info">ABCD11</a>
+                    <a href="/fundos-imobiliarios/HGLG11/">HGLG11</a>
+                    <a href="/acoes/PETR4">PETR4</a>
+                    <a href="/fundos-imobiliarios/ranking">Ranking</a>
+                    </body></html>
+                    """, ContentType.TEXT_HTML.withCharset("UTF-8")));
+            respondWith(response);
+
+            List<String> assetNames = scraperService.assetCatalogScraping(FII, 2);
+
+            ArgumentCaptor<ClassicHttpRequest> captor = ArgumentCaptor.forClass(ClassicHttpRequest.class);
+            verify(scraperHttpClient).execute(captor.capture(), any(HttpClientResponseHandler.class));
+
+            assertEquals("/listagem/fundos-imobiliarios?page=2", captor.getValue().getRequestUri());
+            assertEquals(List.of("HGLG11", "ABCD11"), assetNames);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respondWith(BasicClassicHttpResponse first, BasicClassicHttpResponse... others) throws Exception {
+
+        List<BasicClassicHttpResponse> responses = new ArrayList<>(List.of(first));
+        responses.addAll(List.of(others));
+
+        when(scraperHttpClient.execute(any(HttpGet.class), any(HttpClientResponseHandler.class)))
+                .thenAnswer(invocation -> {
+                    HttpClientResponseHandler<Object> handler = invocation.getArgument(1);
+                    return handler.handleResponse(responses.remove(0));
+                });
+    }
+
+    private static BasicClassicHttpResponse page(String etag) {
+
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(200);
+        response.setEntity(new StringEntity(PAGE, ContentType.TEXT_HTML.withCharset("UTF-8")));
+        if (etag != null)
+            response.setHeader(HttpHeaders.ETAG, etag);
+
+        return response;
+    }
+}
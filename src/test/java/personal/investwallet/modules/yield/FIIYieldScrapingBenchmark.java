@@ -0,0 +1,256 @@
+package personal.investwallet.modules.yield;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+import personal.investwallet.config.http.HttpClientConfig;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.announcement.AnnouncementService;
+import personal.investwallet.modules.asset.AssetService;
+import personal.investwallet.modules.job.JobCheckpointService;
+import personal.investwallet.modules.job.JobCoordinator;
+import personal.investwallet.modules.wallet.WalletService;
+import personal.investwallet.modules.wallet.dto.AssetHolderDto;
+import personal.investwallet.modules.webscraper.FiiYieldPageExtractor;
+import personal.investwallet.modules.webscraper.ScraperCircuitBreaker;
+import personal.investwallet.modules.webscraper.ScraperEngine;
+import personal.investwallet.modules.webscraper.ScraperFixtureServer;
+import personal.investwallet.modules.webscraper.ScraperRetryPolicy;
+import personal.investwallet.modules.webscraper.ScraperService;
+import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+import personal.investwallet.modules.yield.dto.YieldWriteResultDto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/*
+ * Mede o fluxo completo de registerManyFIIYieldsReceivedInCurrentMonthByWebScraping contra o servidor de
+ * páginas gravadas, sem acessar o site real nem o Mongo. Não roda no build normal:
+ *
+ *   mvn test -Dtest=FIIYieldScrapingBenchmark -Dbenchmark=true -Dsurefire.failIfNoSpecifiedTests=false
+ *
+ * Parâmetros (system properties): benchmark.assets, benchmark.holders, benchmark.iterations,
+ * benchmark.latency-ms, benchmark.error-rate, benchmark.pool-size, benchmark.max-per-host,
+ * benchmark.rate-per-second e benchmark.partition-size.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class FIIYieldScrapingBenchmark {
+
+    private static final String FII = "fundos-imobiliarios";
+
+    private final int assets = Integer.getInteger("benchmark.assets", 500);
+    private final int holders = Integer.getInteger("benchmark.holders", 20);
+    private final int iterations = Integer.getInteger("benchmark.iterations", 3);
+    private final int latencyMs = Integer.getInteger("benchmark.latency-ms", 30);
+    private final double errorRate = Double.parseDouble(System.getProperty("benchmark.error-rate", "0.01"));
+    private final int poolSize = Integer.getInteger("benchmark.pool-size", 16);
+    private final int maxPerHost = Integer.getInteger("benchmark.max-per-host", 8);
+    private final double ratePerSecond = Double.parseDouble(System.getProperty("benchmark.rate-per-second", "10000"));
+    private final int partitionSize = Integer.getInteger("benchmark.partition-size", 25);
+
+    @Test
+    void benchmarkFullScrapingFlow() throws Exception {
+
+        List<String> assetNames = IntStream.range(0, assets).mapToObj(i -> String.format("BM%04d11", i)).toList();
+
+        try (ScraperFixtureServer fixtureServer = ScraperFixtureServer.start()
+                .withLatency(Duration.ofMillis(latencyMs))
+                .withErrorRate(errorRate);
+             CloseableHttpClient httpClient = httpClient()) {
+
+            ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+            ScraperEngine scraperEngine = new ScraperEngine(timedScraperService(fixtureServer.baseUrl(), httpClient,
+                    latencies), new ScraperCircuitBreaker(50, 5), new ScraperRetryPolicy(3, 50, 1000, 0.1, 3),
+                    fixtureServer.baseUrl(), fixtureServer.baseUrl(), poolSize, maxPerHost, ratePerSecond, (int) ratePerSecond, 60_000);
+
+            try {
+                InMemoryAnnouncementService announcementService = new InMemoryAnnouncementService();
+                AtomicLong yieldsWritten = new AtomicLong();
+                YieldService yieldService = yieldService(assetNames, scraperEngine, announcementService, yieldsWritten);
+
+                System.out.printf("%nBenchmark: %d ativos, %d cotistas por ativo, latência %dms, erro %.1f%%%n",
+                        assets, holders, latencyMs, errorRate * 100);
+
+                for (int iteration = 0; iteration <= iterations; iteration++) {
+                    announcementService.clear();
+                    latencies.clear();
+                    yieldsWritten.set(0);
+
+                    long start = System.nanoTime();
+                    yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+                    long elapsedNanos = System.nanoTime() - start;
+
+                    report(iteration == 0 ? "aquecimento" : "rodada " + iteration, elapsedNanos,
+                            new ArrayList<>(latencies), announcementService.size(), yieldsWritten.get());
+                }
+            } finally {
+                ReflectionTestUtils.invokeMethod(scraperEngine, "shutdown");
+            }
+        }
+    }
+
+    private YieldService yieldService(List<String> assetNames, ScraperEngine scraperEngine,
+                                      AnnouncementService announcementService, AtomicLong yieldsWritten) {
+
+        WalletService walletService = mock(WalletService.class);
+        when(walletService.getAllAssetNames()).thenReturn(assetNames);
+        List<AssetHolderDto> assetHolders = IntStream.range(0, holders)
+                .mapToObj(i -> new AssetHolderDto("user" + i, 10 + i))
+                .toList();
+        when(walletService.getAllHoldersByAssetNameAt(anyString(), any())).thenReturn(assetHolders);
+
+        AssetService assetService = mock(AssetService.class);
+        when(assetService.getAssetTypeByAssetName(anyString())).thenReturn(FII);
+
+        YieldRepository yieldRepository = mock(YieldRepository.class);
+        when(yieldRepository.findExistingUserAssetYieldAt(any())).thenReturn(Set.of());
+
+        YieldBulkWriter yieldBulkWriter = mock(YieldBulkWriter.class);
+        when(yieldBulkWriter.write(any())).thenAnswer(invocation -> {
+            Stream<YieldEntity> yields = invocation.getArgument(0);
+            long count = yields.count();
+            yieldsWritten.addAndGet(count);
+            return new YieldWriteResultDto((int) count, 0);
+        });
+
+        // Processa as partições em sequência, como um único nó faria
+        JobCoordinator jobCoordinator = mock(JobCoordinator.class);
+        doAnswer(invocation -> {
+            List<String> items = invocation.getArgument(2);
+            Consumer<List<String>> worker = invocation.getArgument(3);
+            for (int i = 0; i < items.size(); i += partitionSize)
+                worker.accept(items.subList(i, Math.min(i + partitionSize, items.size())));
+            return null;
+        }).when(jobCoordinator).runPartitioned(anyString(), anyString(), any(), any());
+
+        YieldService yieldService = new YieldService();
+        yieldService.walletService = walletService;
+        yieldService.assetService = assetService;
+        yieldService.yieldRepository = yieldRepository;
+        yieldService.yieldBulkWriter = yieldBulkWriter;
+        yieldService.yieldTotalService = mock(YieldTotalService.class);
+        yieldService.yieldCache = mock(YieldCache.class);
+        yieldService.jobCoordinator = jobCoordinator;
+        yieldService.scraperEngine = scraperEngine;
+        yieldService.announcementService = announcementService;
+        yieldService.jobCheckpointService = mock(JobCheckpointService.class);
+        yieldService.meterRegistry = new SimpleMeterRegistry();
+
+        return yieldService;
+    }
+
+    private static ScraperService timedScraperService(String baseUrl, CloseableHttpClient httpClient,
+                                                      Collection<Long> latencies) {
+
+        ScraperService scraperService = new ScraperService() {
+            @Override
+            public ScraperResponseDto fiiYieldScraping(String assetType, String assetAcronym) {
+                long start = System.nanoTime();
+                try {
+                    return super.fiiYieldScraping(assetType, assetAcronym);
+                } finally {
+                    latencies.add(System.nanoTime() - start);
+                }
+            }
+        };
+
+        ReflectionTestUtils.setField(scraperService, "yieldBaseUrl", baseUrl);
+        ReflectionTestUtils.setField(scraperService, "scraperHttpClient", httpClient);
+        ReflectionTestUtils.setField(scraperService, "yieldPageExtractors", List.of(new FiiYieldPageExtractor()));
+
+        return scraperService;
+    }
+
+    private CloseableHttpClient httpClient() {
+
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxTotal", Math.max(maxPerHost, 8));
+        ReflectionTestUtils.setField(config, "maxPerRoute", Math.max(maxPerHost, 8));
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", 10000L);
+        ReflectionTestUtils.setField(config, "keepAliveSeconds", 30L);
+
+        return config.scraperHttpClient();
+    }
+
+    private static void report(String label, long elapsedNanos, List<Long> latencies, int announcements,
+                               long yields) {
+
+        latencies.sort(null);
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        System.out.printf("%-12s %8.1f ativos/s | p50 %6.1fms | p99 %6.1fms | max %6.1fms | %d anúncios | %d dividendos | %.2fs%n",
+                label,
+                latencies.size() / seconds,
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.99),
+                percentile(latencies, 1.0),
+                announcements,
+                yields,
+                seconds);
+    }
+
+    private static double percentile(List<Long> sortedNanos, double percentile) {
+
+        if (sortedNanos.isEmpty())
+            return 0;
+
+        int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private static class InMemoryAnnouncementService extends AnnouncementService {
+
+        private final Map<String, AnnouncementEntity> announcements = new ConcurrentHashMap<>();
+
+        @Override
+        public List<AnnouncementEntity> getAllAnnouncementsByYieldAt(String yieldAt, Collection<String> assetNames) {
+            return assetNames.stream()
+                    .map(assetName -> announcements.get(assetName + yieldAt))
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        @Override
+        public AnnouncementEntity registerScrapedAnnouncement(String assetName, ScraperResponseDto scraper) {
+            // O benchmark gera os dividendos do mês corrente, então o anúncio é gravado nele
+            YearMonth now = YearMonth.now();
+            String yieldAt = String.format("%04d%02d", now.getYear(), now.getMonthValue());
+            AnnouncementEntity announcement = new AnnouncementEntity(null, assetName, yieldAt,
+                    scraper.incomeValue(), scraper.basePrice(), scraper.basePriceDate(), scraper.basePaymentDate(),
+                    Instant.now());
+            announcements.put(assetName + yieldAt, announcement);
+
+            return announcement;
+        }
+
+        void clear() {
+            announcements.clear();
+        }
+
+        int size() {
+            return announcements.size();
+        }
+    }
+}
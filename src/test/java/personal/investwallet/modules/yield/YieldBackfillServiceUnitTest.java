@@ -0,0 +1,243 @@
+package personal.investwallet.modules.yield;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import personal.investwallet.exceptions.BackfillProcessingException;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.announcement.AnnouncementService;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.wallet.WalletEntity.Asset.PurchasesInfo;
+import personal.investwallet.modules.wallet.WalletEntity.Asset.SalesInfo;
+import personal.investwallet.modules.wallet.WalletService;
+import personal.investwallet.modules.yield.dto.YieldBackfillResultDto;
+import personal.investwallet.modules.yield.dto.YieldWriteResultDto;
+import personal.investwallet.security.TokenService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class YieldBackfillServiceUnitTest {
+
+    private static final String ASSET_NAME = "ABCD11";
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private AnnouncementService announcementService;
+
+    @Mock
+    private YieldBulkWriter yieldBulkWriter;
+
+    @Mock
+    private YieldTotalService yieldTotalService;
+
+    @Mock
+    private YieldCache yieldCache;
+
+    @Mock
+    private TokenService tokenService;
+
+    @InjectMocks
+    private YieldBackfillService yieldBackfillService = new YieldBackfillService(2);
+
+    private final List<YieldEntity> writtenYields = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(yieldBulkWriter.write(any())).thenAnswer(invocation -> {
+            List<YieldEntity> yields = invocation.<Stream<YieldEntity>>getArgument(0).toList();
+            writtenYields.addAll(yields);
+            return new YieldWriteResultDto(yields.size(), 0);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        yieldBackfillService.shutdown();
+    }
+
+    @Nested
+    class Backfill {
+
+        @Test
+        @DisplayName("Should be able to generate every month held since the first purchase")
+        void shouldBeAbleToGenerateEveryMonthHeldSinceTheFirstPurchase() {
+
+            when(walletService.getWalletByUserId("user-1")).thenReturn(Optional.of(wallet("user-1",
+                    List.of(purchase(10, "2024-01-05T00:00:00Z"), purchase(5, "2024-03-05T00:00:00Z")),
+                    List.of(sale(15, "2024-05-05T00:00:00Z")))));
+            when(announcementService.getAllAnnouncementsByAssetName(ASSET_NAME)).thenReturn(List.of(
+                    announcement("2023-12", "2023-12-29T00:00:00Z"),
+                    announcement("2024-01", "2024-01-31T00:00:00Z"),
+                    announcement("2024-03", "2024-03-28T00:00:00Z"),
+                    announcement("2024-05", "2024-05-31T00:00:00Z")));
+
+            YieldBackfillResultDto result = yieldBackfillService.backfill(List.of("user-1"));
+
+            assertEquals(new YieldBackfillResultDto(1, 2, 0), result);
+            assertEquals(Map.of("2024-01", new BigDecimal("10.00"), "2024-03", new BigDecimal("15.00")),
+                    yieldValueByYieldAt());
+            verify(yieldTotalService).refreshUserMonths(List.of("user-1"), Set.of("2024-01", "2024-03"));
+            verify(yieldCache).evictUsers(List.of("user-1"));
+        }
+
+        @Test
+        @DisplayName("Should be able to load the announcements of each asset only once for all users")
+        void shouldBeAbleToLoadTheAnnouncementsOfEachAssetOnlyOnceForAllUsers() {
+
+            for (String userId : List.of("user-1", "user-2", "user-3"))
+                when(walletService.getWalletByUserId(userId)).thenReturn(Optional.of(wallet(userId,
+                        List.of(purchase(1, "2024-01-05T00:00:00Z")), List.of())));
+            when(announcementService.getAllAnnouncementsByAssetName(ASSET_NAME))
+                    .thenReturn(List.of(announcement("2024-01", "2024-01-31T00:00:00Z")));
+
+            YieldBackfillResultDto result = yieldBackfillService.backfill(List.of("user-1", "user-2", "user-3"));
+
+            assertEquals(new YieldBackfillResultDto(3, 3, 0), result);
+            verify(announcementService, times(1)).getAllAnnouncementsByAssetName(ASSET_NAME);
+        }
+
+        @Test
+        @DisplayName("Should not be able to finish the backfill when a user fails")
+        void shouldNotBeAbleToFinishTheBackfillWhenAUserFails() {
+
+            when(walletService.getWalletByUserId("user-1")).thenThrow(new IllegalStateException("timeout"));
+
+            BackfillProcessingException exception = assertThrows(BackfillProcessingException.class,
+                    () -> yieldBackfillService.backfill(List.of("user-1")));
+
+            assertEquals("Erro ao gerar o histórico de dividendos, timeout", exception.getMessage());
+            verifyNoInteractions(yieldTotalService);
+        }
+
+        @Test
+        @DisplayName("Should be able to backfill a single user on the calling thread")
+        void shouldBeAbleToBackfillASingleUserOnTheCallingThread() {
+
+            Thread caller = Thread.currentThread();
+            List<Thread> workers = new ArrayList<>();
+
+            when(walletService.getWalletByUserId("user-1")).thenAnswer(invocation -> {
+                workers.add(Thread.currentThread());
+                return Optional.empty();
+            });
+
+            yieldBackfillService.backfill(List.of("user-1"));
+
+            assertEquals(List.of(caller), workers);
+        }
+
+        @Test
+        @DisplayName("Should not be able to finish the backfill of several users when they fail")
+        void shouldNotBeAbleToFinishTheBackfillOfSeveralUsersWhenTheyFail() {
+
+            when(walletService.getWalletByUserId(anyString())).thenThrow(new IllegalStateException("timeout"));
+
+            BackfillProcessingException exception = assertThrows(BackfillProcessingException.class,
+                    () -> yieldBackfillService.backfill(List.of("user-1", "user-2")));
+
+            assertEquals("Erro ao gerar o histórico de dividendos, timeout", exception.getMessage());
+            verifyNoInteractions(yieldTotalService);
+        }
+
+        @Test
+        @DisplayName("Should be able to build the position from the purchases when the wallet has no index")
+        void shouldBeAbleToBuildThePositionFromThePurchasesWhenTheWalletHasNoIndex() {
+
+            WalletEntity wallet = wallet("user-1", List.of(purchase(4, "2024-01-05T00:00:00Z")), List.of());
+            wallet.getAssets().get(ASSET_NAME).setPositionIndex(null);
+
+            when(walletService.getWalletByUserId("user-1")).thenReturn(Optional.of(wallet));
+            when(announcementService.getAllAnnouncementsByAssetName(ASSET_NAME))
+                    .thenReturn(List.of(announcement("2024-01", "2024-01-31T00:00:00Z")));
+
+            yieldBackfillService.backfill(List.of("user-1"));
+
+            assertEquals(Map.of("2024-01", new BigDecimal("4.00")), yieldValueByYieldAt());
+        }
+
+        @Test
+        @DisplayName("Should not be able to write yields for users without wallet")
+        void shouldNotBeAbleToWriteYieldsForUsersWithoutWallet() {
+
+            when(walletService.getWalletByUserId("user-1")).thenReturn(Optional.empty());
+
+            YieldBackfillResultDto result = yieldBackfillService.backfill(List.of("user-1"));
+
+            assertEquals(new YieldBackfillResultDto(1, 0, 0), result);
+            verifyNoInteractions(yieldBulkWriter, announcementService);
+        }
+
+        @Test
+        @DisplayName("Should be able to backfill the user of the token")
+        void shouldBeAbleToBackfillTheUserOfTheToken() {
+
+            when(tokenService.extractUserIdFromToken("token")).thenReturn("user-1");
+            when(walletService.getWalletByUserId("user-1")).thenReturn(Optional.empty());
+
+            YieldBackfillResultDto result = yieldBackfillService.backfillByToken("token");
+
+            assertEquals(1, result.users());
+            assertTrue(writtenYields.isEmpty());
+        }
+    }
+
+    private Map<String, BigDecimal> yieldValueByYieldAt() {
+
+        Map<String, BigDecimal> values = new HashMap<>();
+        writtenYields.forEach(yield -> values.put(yield.getYieldAt(), yield.getYieldValue()));
+        return values;
+    }
+
+    private static WalletEntity wallet(String userId, List<PurchasesInfo> purchases, List<SalesInfo> sales) {
+
+        int quotaAmount = purchases.stream().mapToInt(PurchasesInfo::getPurchaseAmount).sum()
+                - sales.stream().mapToInt(SalesInfo::getSaleAmount).sum();
+
+        Map<String, WalletEntity.Asset> assets = new HashMap<>();
+        assets.put(ASSET_NAME, new WalletEntity.Asset(ASSET_NAME, quotaAmount, purchases, sales));
+
+        return new WalletEntity(null, userId, assets);
+    }
+
+    private static PurchasesInfo purchase(int amount, String date) {
+        return new PurchasesInfo(null, amount, BigDecimal.TEN, BigDecimal.ONE, Instant.parse(date));
+    }
+
+    private static SalesInfo sale(int amount, String date) {
+        return new SalesInfo(null, amount, BigDecimal.TEN, BigDecimal.ONE, Instant.parse(date));
+    }
+
+    private static AnnouncementEntity announcement(String yieldAt, String basePriceDate) {
+
+        Instant baseDate = Instant.parse(basePriceDate);
+
+        return new AnnouncementEntity(null, ASSET_NAME, yieldAt, new BigDecimal("1.00"), new BigDecimal("100.00"),
+                baseDate, baseDate.plusSeconds(864000), Instant.now());
+    }
+}
@@ -0,0 +1,200 @@
+package personal.investwallet.modules.yield;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import personal.investwallet.modules.yield.dto.YieldWriteResultDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class YieldBulkWriterUnitTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoConverter mongoConverter;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private YieldBulkWriter yieldBulkWriter;
+
+    @BeforeEach
+    void setUp() {
+        yieldBulkWriter = new YieldBulkWriter(mongoTemplate, 2);
+
+        lenient().when(mongoTemplate.getConverter()).thenReturn(mongoConverter);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, YieldEntity.class))
+                .thenReturn(bulkOperations);
+    }
+
+    @Nested
+    class Write {
+
+        @Test
+        @DisplayName("Should be able to write yields in chunks of the configured size")
+        void shouldBeAbleToWriteYieldsInChunksOfTheConfiguredSize() {
+
+            when(bulkOperations.execute())
+                    .thenReturn(result(2, 0))
+                    .thenReturn(result(1, 1))
+                    .thenReturn(result(1, 0));
+
+            YieldWriteResultDto result = yieldBulkWriter.write(IntStream.range(0, 5).mapToObj(i -> yieldOf("user" + i)));
+
+            verify(bulkOperations, times(5)).upsert(any(Query.class), any(Update.class));
+            verify(bulkOperations, times(3)).execute();
+            assertEquals(4, result.inserted());
+            assertEquals(1, result.alreadyRegistered());
+        }
+
+        @Test
+        @DisplayName("Should be able to count duplicate key conflicts as already registered")
+        void shouldBeAbleToCountDuplicateKeyConflictsAsAlreadyRegistered() {
+
+            BulkOperationException exception = mock(BulkOperationException.class);
+            when(exception.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "E11000", new BsonDocument(), 1)));
+            when(exception.getResult()).thenReturn(result(1, 0));
+            when(bulkOperations.execute()).thenThrow(exception);
+
+            YieldWriteResultDto result = yieldBulkWriter.write(Stream.of(yieldOf("user1"), yieldOf("user2")));
+
+            assertEquals(1, result.inserted());
+            assertEquals(1, result.alreadyRegistered());
+        }
+
+        @Test
+        @DisplayName("Should not be able to ignore bulk errors other than duplicate key")
+        void shouldNotBeAbleToIgnoreBulkErrorsOtherThanDuplicateKey() {
+
+            BulkOperationException exception = mock(BulkOperationException.class);
+            when(exception.getErrors()).thenReturn(List.of(new BulkWriteError(121, "Document failed validation",
+                    new BsonDocument(), 0)));
+            when(bulkOperations.execute()).thenThrow(exception);
+
+            assertThrows(BulkOperationException.class, () -> yieldBulkWriter.write(Stream.of(yieldOf("user1"))));
+        }
+
+        @Test
+        @DisplayName("Should not be able to open a bulk operation when there are no yields")
+        void shouldNotBeAbleToOpenABulkOperationWhenThereAreNoYields() {
+
+            YieldWriteResultDto result = yieldBulkWriter.write(Stream.empty());
+
+            verify(mongoTemplate, never()).bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(YieldEntity.class));
+            assertEquals(0, result.inserted());
+        }
+    }
+
+    @Nested
+    class Overwrite {
+
+        @Test
+        @DisplayName("Should be able to overwrite recomputed yields and remove the ones without quotas")
+        void shouldBeAbleToOverwriteRecomputedYieldsAndRemoveTheOnesWithoutQuotas() {
+
+            when(bulkOperations.execute())
+                    .thenReturn(BulkWriteResult.acknowledged(0, 1, 1, 1, List.of(), Collections.emptyList()));
+
+            int affected = yieldBulkWriter.overwrite(List.of(yieldOf("user1")), List.of(yieldOf("user2")));
+
+            ArgumentCaptor<Query> upsertCaptor = ArgumentCaptor.forClass(Query.class);
+            verify(bulkOperations).upsert(upsertCaptor.capture(), any(Update.class));
+            ArgumentCaptor<Query> removeCaptor = ArgumentCaptor.forClass(Query.class);
+            verify(bulkOperations).remove(removeCaptor.capture());
+            assertEquals(2, affected);
+
+            // Só o dividendo gerado pelo anúncio é removido, não um importado com outros valores no mesmo mês
+            Document removeQuery = removeCaptor.getValue().getQueryObject();
+            assertEquals("user2ABCD11202410", removeQuery.get("user_asset_yield_at"));
+            assertEquals(Instant.parse("2024-09-30T00:00:00Z"), removeQuery.get("base_date"));
+            assertEquals(new BigDecimal("1.00"), removeQuery.get("income_value"));
+
+            Document upsertQuery = upsertCaptor.getValue().getQueryObject();
+            assertEquals("user1ABCD11202410", upsertQuery.get("user_asset_yield_at"));
+            assertEquals(Instant.parse("2024-09-30T00:00:00Z"), upsertQuery.get("base_date"));
+            assertEquals(new BigDecimal("1.00"), upsertQuery.get("income_value"));
+        }
+
+        @Test
+        @DisplayName("Should be able to keep a manually imported yield of the same month untouched")
+        void shouldBeAbleToKeepAManuallyImportedYieldOfTheSameMonthUntouched() {
+
+            // O dividendo importado tem outro valor por cota, então o upsert não casa e esbarra no índice único
+            BulkOperationException exception = mock(BulkOperationException.class);
+            when(exception.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "E11000", new BsonDocument(), 0)));
+            when(exception.getResult()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(),
+                    Collections.emptyList()));
+            when(bulkOperations.execute()).thenThrow(exception);
+
+            assertEquals(0, yieldBulkWriter.overwrite(List.of(yieldOf("user1")), List.of()));
+        }
+
+        @Test
+        @DisplayName("Should not be able to hide other write errors while overwriting yields")
+        void shouldNotBeAbleToHideOtherWriteErrorsWhileOverwritingYields() {
+
+            BulkOperationException exception = mock(BulkOperationException.class);
+            when(exception.getErrors()).thenReturn(List.of(new BulkWriteError(121, "Document failed validation",
+                    new BsonDocument(), 0)));
+            when(bulkOperations.execute()).thenThrow(exception);
+
+            assertThrows(BulkOperationException.class,
+                    () -> yieldBulkWriter.overwrite(List.of(yieldOf("user1")), List.of()));
+        }
+
+        @Test
+        @DisplayName("Should not be able to open a bulk operation when nothing changed")
+        void shouldNotBeAbleToOpenABulkOperationWhenNothingChanged() {
+
+            assertEquals(0, yieldBulkWriter.overwrite(List.of(), List.of()));
+            verifyNoInteractions(bulkOperations);
+        }
+    }
+
+    private static YieldEntity yieldOf(String userId) {
+        return new YieldEntity(null, userId, "ABCD11", "202410", userId + "ABCD11202410",
+                Instant.parse("2024-09-30T00:00:00Z"), Instant.parse("2024-10-15T00:00:00Z"),
+                new BigDecimal("100.00"), new BigDecimal("1.00"), new BigDecimal("10.00"));
+    }
+
+    private static BulkWriteResult result(int upserts, int matched) {
+        List<BulkWriteUpsert> upsertList = IntStream.range(0, upserts)
+                .mapToObj(i -> new BulkWriteUpsert(i, new BsonString("id" + i)))
+                .toList();
+
+        return BulkWriteResult.acknowledged(0, matched, 0, 0, upsertList, Collections.emptyList());
+    }
+}
@@ -0,0 +1,99 @@
+package personal.investwallet.modules.yield;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import personal.investwallet.config.cache.CacheConfig;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+public class YieldCacheUnitTest {
+
+    private CaffeineCache nativeCache;
+    private YieldCache yieldCache;
+
+    @BeforeEach
+    void setUp() {
+        var cacheManager = new CacheConfig().cacheManager(100, 10);
+        nativeCache = (CaffeineCache) cacheManager.getCache(CacheConfig.YIELDS_CACHE);
+        yieldCache = new YieldCache(cacheManager);
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        @DisplayName("Should be able to load each user query once and record hits and misses")
+        void shouldBeAbleToLoadEachUserQueryOnceAndRecordHitsAndMisses() {
+
+            AtomicInteger loads = new AtomicInteger();
+
+            yieldCache.get("user-1", "asset-name:ABCD11", loads::incrementAndGet);
+            yieldCache.get("user-1", "asset-name:ABCD11", loads::incrementAndGet);
+            yieldCache.get("user-2", "asset-name:ABCD11", loads::incrementAndGet);
+
+            assertEquals(2, loads.get());
+            assertEquals(1, nativeCache.getNativeCache().stats().hitCount());
+            assertEquals(2, nativeCache.getNativeCache().stats().missCount());
+        }
+    }
+
+    @Nested
+    class EvictUsers {
+
+        @Test
+        @DisplayName("Should be able to evict only the queries of the informed users")
+        void shouldBeAbleToEvictOnlyTheQueriesOfTheInformedUsers() {
+
+            yieldCache.get("user-1", "asset-name:ABCD11", () -> 1);
+            yieldCache.get("user-1", "yield-at:202401:202412", () -> 2);
+            yieldCache.get("user-2", "asset-name:ABCD11", () -> 3);
+
+            yieldCache.evictUsers(List.of("user-1"));
+
+            assertEquals(1, nativeCache.getNativeCache().estimatedSize());
+            assertEquals(3, yieldCache.get("user-2", "asset-name:ABCD11", () -> 0));
+            assertEquals(0, yieldCache.get("user-1", "asset-name:ABCD11", () -> 0));
+        }
+
+        @Test
+        @DisplayName("Should be able to keep only the queries of the user that are still cached in its index")
+        void shouldBeAbleToKeepOnlyTheQueriesOfTheUserThatAreStillCachedInItsIndex() {
+
+            yieldCache.get("user-1", "asset-name:ABCD11", () -> 1);
+            yieldCache.get("user-2", "asset-name:ABCD11", () -> 2);
+
+            // Simula a expiração da consulta pelo Caffeine, que não passa pelo YieldCache
+            nativeCache.getNativeCache().invalidate(new YieldCache.Key("user-1", "asset-name:ABCD11"));
+            yieldCache.get("user-1", "yield-at:202401:202412", () -> 3);
+
+            assertEquals(Set.of(new YieldCache.Key("user-1", "yield-at:202401:202412")),
+                    yieldCache.keysByUser.get("user-1"));
+            assertEquals(Set.of(new YieldCache.Key("user-2", "asset-name:ABCD11")),
+                    yieldCache.keysByUser.get("user-2"));
+        }
+
+        @Test
+        @DisplayName("Should be able to drop the index of the evicted users")
+        void shouldBeAbleToDropTheIndexOfTheEvictedUsers() {
+
+            yieldCache.get("user-1", "asset-name:ABCD11", () -> 1);
+            yieldCache.get("user-2", "asset-name:ABCD11", () -> 2);
+
+            yieldCache.evictUsers(List.of("user-1", "user-3"));
+
+            assertFalse(yieldCache.keysByUser.containsKey("user-1"));
+            assertTrue(yieldCache.keysByUser.containsKey("user-2"));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -26,11 +27,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import personal.investwallet.modules.yield.dto.YieldAssetNameRequestDto;
+import personal.investwallet.modules.yield.dto.YieldBackfillResultDto;
 import personal.investwallet.modules.yield.dto.YieldInfoByAssetNameResponseDto;
 import personal.investwallet.modules.yield.dto.YieldInfoByYieldAtResponseDto;
+import personal.investwallet.modules.yield.dto.YieldPageResponseDto;
 import personal.investwallet.modules.yield.dto.YieldRequestDto;
 import personal.investwallet.modules.yield.dto.YieldSuccessResponseDto;
+import personal.investwallet.modules.yield.dto.YieldSummaryResponseDto;
 import personal.investwallet.modules.yield.dto.YieldTimeIntervalRequestDto;
+import personal.investwallet.modules.yield.dto.YieldTotalsResponseDto;
 
 @ExtendWith(MockitoExtension.class)
 @Tag("unit")
@@ -39,6 +44,15 @@ public class YieldControllerUnitTest {
         @Mock
         private YieldService yieldService;
 
+        @Mock
+        private YieldBackfillService yieldBackfillService;
+
+        @Mock
+        private YieldTotalService yieldTotalService;
+
+        @Mock
+        private YieldHistoryService yieldHistoryService;
+
         @InjectMocks
         private YieldController yieldController;
 
@@ -125,6 +139,25 @@ public class YieldControllerUnitTest {
                 }
         }
 
+        @Nested
+        class Backfill {
+
+                @Test
+                @DisplayName("Should be able to backfill the yield history of the user wallet")
+                void shouldBeAbleToBackfillTheYieldHistoryOfTheUserWallet() {
+
+                        when(yieldBackfillService.backfillByToken(TOKEN))
+                                        .thenReturn(new YieldBackfillResultDto(1, 120, 3));
+
+                        ResponseEntity<YieldSuccessResponseDto> response = yieldController.backfill(TOKEN);
+
+                        assertEquals(HttpStatus.OK, response.getStatusCode());
+                        assertNotNull(response.getBody());
+                        assertEquals("Foram gerados 120 dividendos do histórico da carteira.",
+                                        response.getBody().message());
+                }
+        }
+
         @Nested
         class GetManyByUserIdAndYieldAt {
 
@@ -165,6 +198,74 @@ public class YieldControllerUnitTest {
                 }
         }
 
+        @Nested
+        class GetTotalsByUserIdAndYieldAt {
+
+                @Test
+                @DisplayName("Should be able to get the yield totals of the time interval")
+                void shouldBeAbleToGetTheYieldTotalsOfTheTimeInterval() {
+
+                        YieldTimeIntervalRequestDto payload = new YieldTimeIntervalRequestDto(
+                                        Instant.parse("2024-08-01T00:00:00Z"),
+                                        Instant.parse("2024-11-30T00:00:00Z"));
+                        YieldTotalsResponseDto totals = new YieldTotalsResponseDto(List.of(), List.of());
+
+                        when(yieldTotalService.fetchTotalsByTimeInterval(TOKEN, payload)).thenReturn(totals);
+
+                        ResponseEntity<YieldTotalsResponseDto> response = yieldController
+                                        .getTotalsByUserIdAndYieldAt(TOKEN, payload);
+
+                        assertEquals(HttpStatus.OK, response.getStatusCode());
+                        assertEquals(totals, response.getBody());
+                }
+        }
+
+        @Nested
+        class GetSummaryByUserIdAndYieldAt {
+
+                @Test
+                @DisplayName("Should be able to get the yield summary of the time interval")
+                void shouldBeAbleToGetTheYieldSummaryOfTheTimeInterval() {
+
+                        YieldTimeIntervalRequestDto payload = new YieldTimeIntervalRequestDto(
+                                        Instant.parse("2024-08-01T00:00:00Z"),
+                                        Instant.parse("2024-11-30T00:00:00Z"));
+                        YieldSummaryResponseDto summary = new YieldSummaryResponseDto(BigDecimal.ZERO, 0,
+                                        BigDecimal.ZERO, null, List.of(), List.of(), List.of());
+
+                        when(yieldTotalService.fetchSummaryByTimeInterval(TOKEN, payload)).thenReturn(summary);
+
+                        ResponseEntity<YieldSummaryResponseDto> response = yieldController
+                                        .getSummaryByUserIdAndYieldAt(TOKEN, payload);
+
+                        assertEquals(HttpStatus.OK, response.getStatusCode());
+                        assertEquals(summary, response.getBody());
+                }
+        }
+
+        @Nested
+        class GetPageByUserIdAndYieldAt {
+
+                @Test
+                @DisplayName("Should be able to get a page of yields with the cursor informed")
+                void shouldBeAbleToGetAPageOfYieldsWithTheCursorInformed() {
+
+                        YieldTimeIntervalRequestDto payload = new YieldTimeIntervalRequestDto(
+                                        Instant.parse("2024-08-01T00:00:00Z"),
+                                        Instant.parse("2024-11-30T00:00:00Z"));
+                        YieldPageResponseDto page = new YieldPageResponseDto(List.of(), null);
+
+                        when(yieldHistoryService.fetchYieldsPageByTimeInterval(TOKEN, payload, "cursor", 50))
+                                        .thenReturn(page);
+
+                        ResponseEntity<YieldPageResponseDto> response = yieldController
+                                        .getPageByUserIdAndYieldAt(TOKEN, "cursor", 50, payload);
+
+                        assertEquals(HttpStatus.OK, response.getStatusCode());
+                        assertEquals(page, response.getBody());
+                }
+        }
+
         @Nested
         class GetManyByUserIdAndAssetName {
 
@@ -0,0 +1,178 @@
+package personal.investwallet.modules.yield;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import personal.investwallet.exceptions.BadRequestException;
+import personal.investwallet.modules.yield.dto.YieldAssetNameRequestDto;
+import personal.investwallet.modules.yield.dto.YieldPageResponseDto;
+import personal.investwallet.modules.yield.dto.YieldTimeIntervalRequestDto;
+import personal.investwallet.security.TokenService;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class YieldHistoryServiceUnitTest {
+
+    private static final String TOKEN = "validToken";
+    private static final String USER_ID = "user1234";
+
+    @Mock
+    private YieldRepository yieldRepository;
+
+    @Mock
+    private TokenService tokenService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private YieldHistoryService yieldHistoryService;
+
+    private final YieldTimeIntervalRequestDto interval = new YieldTimeIntervalRequestDto(
+            Instant.parse("2024-01-15T12:00:00Z"), Instant.parse("2024-03-15T12:00:00Z"));
+
+    @BeforeEach
+    void setUp() {
+        when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
+    }
+
+    @Nested
+    class FetchYieldsPageByTimeInterval {
+
+        @Test
+        @DisplayName("Should be able to return a cursor to the next page when more yields exist")
+        void shouldBeAbleToReturnACursorToTheNextPageWhenMoreYieldsExist() {
+
+            when(yieldRepository.findPageByUserIdAndYieldAtBetween(USER_ID, "202401", "202403", null, 3))
+                    .thenReturn(List.of(yieldOf("202401", "ABCD11"), yieldOf("202401", "XYZW11"), yieldOf("202402", "ABCD11")));
+
+            YieldPageResponseDto page = yieldHistoryService.fetchYieldsPageByTimeInterval(TOKEN, interval, null, 2);
+
+            assertEquals(2, page.yields().size());
+            assertEquals("XYZW11", page.yields().get(1).assetName());
+            assertEquals(new YieldCursor("202401", "XYZW11"), YieldCursor.decode(page.nextCursor()));
+        }
+
+        @Test
+        @DisplayName("Should be able to continue after the cursor and finish on the last page")
+        void shouldBeAbleToContinueAfterTheCursorAndFinishOnTheLastPage() {
+
+            YieldCursor cursor = new YieldCursor("202401", "XYZW11");
+
+            when(yieldRepository.findPageByUserIdAndYieldAtBetween(USER_ID, "202401", "202403", cursor, 3))
+                    .thenReturn(List.of(yieldOf("202402", "ABCD11")));
+
+            YieldPageResponseDto page = yieldHistoryService.fetchYieldsPageByTimeInterval(TOKEN, interval,
+                    cursor.encode(), 2);
+
+            assertEquals(1, page.yields().size());
+            assertNull(page.nextCursor());
+        }
+
+        @Test
+        @DisplayName("Should not be able to fetch a page with an invalid cursor")
+        void shouldNotBeAbleToFetchAPageWithAnInvalidCursor() {
+
+            BadRequestException exception = assertThrows(BadRequestException.class,
+                    () -> yieldHistoryService.fetchYieldsPageByTimeInterval(TOKEN, interval, "%%%", 2));
+
+            assertEquals("Cursor de paginação inválido", exception.getMessage());
+            verifyNoInteractions(yieldRepository);
+        }
+
+        @Test
+        @DisplayName("Should not be able to fetch a page bigger than the limit")
+        void shouldNotBeAbleToFetchAPageBiggerThanTheLimit() {
+
+            BadRequestException exception = assertThrows(BadRequestException.class,
+                    () -> yieldHistoryService.fetchYieldsPageByTimeInterval(TOKEN, interval, null, 501));
+
+            assertEquals("O tamanho da página deve estar entre 1 e 500", exception.getMessage());
+        }
+    }
+
+    @Nested
+    class FetchYieldsPageByAssetName {
+
+        @Test
+        @DisplayName("Should be able to fetch the first page of an asset")
+        void shouldBeAbleToFetchTheFirstPageOfAnAsset() {
+
+            when(yieldRepository.findPageByUserIdAndAssetName(eq(USER_ID), eq("ABCD11"), isNull(), anyInt()))
+                    .thenReturn(List.of(yieldOf("202401", "ABCD11")));
+
+            YieldPageResponseDto page = yieldHistoryService.fetchYieldsPageByAssetName(TOKEN,
+                    new YieldAssetNameRequestDto("ABCD11"), null, 100);
+
+            assertEquals("202401", page.yields().get(0).yieldAt());
+            assertNull(page.nextCursor());
+            verify(yieldRepository).findPageByUserIdAndAssetName(USER_ID, "ABCD11", null, 101);
+        }
+    }
+
+    @Nested
+    class StreamYieldsByTimeInterval {
+
+        @Test
+        @DisplayName("Should be able to write the yields as a JSON array and close the cursor")
+        void shouldBeAbleToWriteTheYieldsAsAJsonArrayAndCloseTheCursor() throws Exception {
+
+            AtomicBoolean closed = new AtomicBoolean();
+            when(yieldRepository.streamByUserIdAndYieldAtBetween(USER_ID, "202401", "202403"))
+                    .thenReturn(Stream.of(yieldOf("202401", "ABCD11"), yieldOf("202402", "ABCD11"))
+                            .onClose(() -> closed.set(true)));
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            yieldHistoryService.streamYieldsByTimeInterval(TOKEN, interval).writeTo(output);
+
+            String json = output.toString();
+            assertTrue(json.startsWith("[{\"assetName\":\"ABCD11\",\"yieldAt\":\"202401\""));
+            assertTrue(json.contains("\"baseDate\":\"2024-01-31T00:00:00Z\""));
+            assertEquals(2, objectMapper.readTree(json).size());
+            assertTrue(closed.get());
+        }
+
+        @Test
+        @DisplayName("Should be able to write an empty array when no yields found")
+        void shouldBeAbleToWriteAnEmptyArrayWhenNoYieldsFound() throws Exception {
+
+            when(yieldRepository.streamByUserIdAndYieldAtBetween(USER_ID, "202401", "202403"))
+                    .thenReturn(Stream.empty());
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            yieldHistoryService.streamYieldsByTimeInterval(TOKEN, interval).writeTo(output);
+
+            assertEquals("[]", output.toString());
+        }
+    }
+
+    private static YieldEntity yieldOf(String yieldAt, String assetName) {
+        return new YieldEntity(null, USER_ID, assetName, yieldAt, USER_ID + assetName + yieldAt,
+                Instant.parse("2024-01-31T00:00:00Z"), Instant.parse("2024-02-10T00:00:00Z"),
+                new BigDecimal("100.00"), new BigDecimal("1.00"), new BigDecimal("10.00"));
+    }
+}
@@ -0,0 +1,92 @@
+package personal.investwallet.modules.yield;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import personal.investwallet.modules.wallet.WalletChangedEvent;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class YieldRecomputationListenerUnitTest {
+
+    @Mock
+    private YieldService yieldService;
+
+    @InjectMocks
+    private YieldRecomputationListener yieldRecomputationListener;
+
+    @Nested
+    class OnWalletChanged {
+
+        @Test
+        @DisplayName("Should not be able to recompute the same user asset concurrently")
+        void shouldNotBeAbleToRecomputeTheSameUserAssetConcurrently() throws InterruptedException {
+
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+
+            doAnswer(invocation -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                return null;
+            }).when(yieldService).recomputeFIIYieldsOfUserAsset(any());
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            CountDownLatch start = new CountDownLatch(1);
+
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    yieldRecomputationListener.onWalletChanged(event("ABCD11"));
+                    return null;
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(1, maxInFlight.get());
+            verify(yieldService, times(4)).recomputeFIIYieldsOfUserAsset(any());
+        }
+
+        @Test
+        @DisplayName("Should be able to release the user asset after a failed recomputation")
+        void shouldBeAbleToReleaseTheUserAssetAfterAFailedRecomputation() {
+
+            doThrow(new IllegalStateException("timeout")).doNothing()
+                    .when(yieldService).recomputeFIIYieldsOfUserAsset(any());
+
+            yieldRecomputationListener.onWalletChanged(event("ABCD11"));
+            yieldRecomputationListener.onWalletChanged(event("ABCD11"));
+
+            verify(yieldService, times(2)).recomputeFIIYieldsOfUserAsset(any());
+        }
+    }
+
+    private static WalletChangedEvent event(String assetName) {
+        return new WalletChangedEvent("user1234", assetName, Instant.parse("2024-08-10T00:00:00Z"), List.of());
+    }
+}
@@ -0,0 +1,166 @@
+package personal.investwallet.modules.yield;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.yield.dto.YieldPeriodSummaryDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class YieldRepositoryImplUnitTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private YieldRepositoryImpl yieldRepository;
+
+    @BeforeEach
+    void setUp() {
+        yieldRepository = new YieldRepositoryImpl(mongoTemplate);
+    }
+
+    @Nested
+    class MergeYieldsFromAnnouncements {
+
+        @Test
+        @DisplayName("Should be able to generate yields inside Mongo merging them on the user asset yield at key")
+        void shouldBeAbleToGenerateYieldsInsideMongoMergingThemOnTheUserAssetYieldAtKey() {
+
+            when(mongoTemplate.getCollectionName(YieldEntity.class)).thenReturn("yields");
+            when(mongoTemplate.getCollectionName(WalletEntity.class)).thenReturn("wallets");
+            when(mongoTemplate.getCollectionName(AnnouncementEntity.class)).thenReturn("announcements");
+            when(mongoTemplate.aggregate(any(Aggregation.class), eq("wallets"), eq(Document.class)))
+                    .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+            yieldRepository.mergeYieldsFromAnnouncements("202410", List.of("ABCD11"));
+
+            ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+            verify(mongoTemplate).aggregate(captor.capture(), eq("wallets"), eq(Document.class));
+
+            List<Document> pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+            Document firstMatch = pipeline.get(0).get("$match", Document.class);
+            Document lookup = pipeline.get(4).get("$lookup", Document.class);
+            Document merge = pipeline.get(pipeline.size() - 1).get("$merge", Document.class);
+            Document quotaAmount = pipeline.get(6).get("$set", Document.class).get("quota_amount", Document.class)
+                    .get("$switch", Document.class);
+
+            assertEquals(List.of(
+                            new Document("assets.ABCD11.quota_amount", new Document("$gt", 0)),
+                            new Document("assets.ABCD11.purchases_info.purchase_amount", new Document("$gt", 0))),
+                    firstMatch.get("$or"));
+            // Índice vazio ou ausente cai para as movimentações e, sem elas, para a quantidade atual
+            assertEquals(2, quotaAmount.getList("branches", Document.class).size());
+            assertEquals("$asset.v.quota_amount", quotaAmount.get("default"));
+            assertEquals("announcements", lookup.getString("from"));
+            assertEquals(List.of(new Document("$match", new Document("yield_at", "202410"))), lookup.get("pipeline"));
+            assertEquals("yields", merge.getString("into"));
+            assertEquals("user_asset_yield_at", merge.get("on"));
+            assertEquals("keepExisting", merge.getString("whenMatched"));
+        }
+
+        @Test
+        @DisplayName("Should not be able to run the pipeline without asset names")
+        void shouldNotBeAbleToRunThePipelineWithoutAssetNames() {
+
+            yieldRepository.mergeYieldsFromAnnouncements("202410", List.of());
+
+            verifyNoInteractions(mongoTemplate);
+        }
+    }
+
+    @Nested
+    class FindPageByUserIdAndYieldAtBetween {
+
+        @Test
+        @DisplayName("Should be able to continue after the cursor sorted by yield at and asset name")
+        void shouldBeAbleToContinueAfterTheCursorSortedByYieldAtAndAssetName() {
+
+            yieldRepository.findPageByUserIdAndYieldAtBetween("user1234", "202401", "202412",
+                    new YieldCursor("202403", "ABCD11"), 51);
+
+            ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate).find(captor.capture(), eq(YieldEntity.class));
+
+            Query query = captor.getValue();
+            assertEquals(new Document("$gte", "202401").append("$lte", "202412"),
+                    query.getQueryObject().get("yield_at"));
+            assertEquals(List.of(
+                            new Document("yield_at", new Document("$gt", "202403")),
+                            new Document("yield_at", "202403").append("asset_name", new Document("$gt", "ABCD11"))),
+                    query.getQueryObject().get("$or"));
+            assertEquals(new Document("yield_at", 1).append("asset_name", 1), query.getSortObject());
+            assertEquals(51, query.getLimit());
+        }
+
+        @Test
+        @DisplayName("Should be able to fetch the first page without the cursor condition")
+        void shouldBeAbleToFetchTheFirstPageWithoutTheCursorCondition() {
+
+            yieldRepository.findPageByUserIdAndYieldAtBetween("user1234", "202401", "202412", null, 51);
+
+            ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate).find(captor.capture(), eq(YieldEntity.class));
+
+            assertEquals(false, captor.getValue().getQueryObject().containsKey("$or"));
+        }
+    }
+
+    @Nested
+    class SummarizeByUserIdAndYieldAtBetween {
+
+        @Test
+        @DisplayName("Should be able to group the yields by month, year and asset in a single facet pipeline")
+        void shouldBeAbleToGroupTheYieldsByMonthYearAndAssetInASingleFacetPipeline() {
+
+            Document facets = new Document("months", List.of(group("202401", "10.50", 2)))
+                    .append("years", List.of(group("2024", "10.50", 2)))
+                    .append("assets", List.of(group("ABCD11", "10.50", 2)));
+
+            when(mongoTemplate.getCollectionName(YieldEntity.class)).thenReturn("yields");
+            when(mongoTemplate.aggregate(any(Aggregation.class), eq("yields"), eq(Document.class)))
+                    .thenReturn(new AggregationResults<>(List.of(facets), new Document()));
+
+            YieldSummaryFacets result = yieldRepository.summarizeByUserIdAndYieldAtBetween("user1234", "202401",
+                    "202412");
+
+            ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+            verify(mongoTemplate).aggregate(captor.capture(), eq("yields"), eq(Document.class));
+
+            List<Document> pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+            Document facet = pipeline.get(pipeline.size() - 1).get("$facet", Document.class);
+
+            assertEquals("user1234", pipeline.get(0).get("$match", Document.class).get("user_id"));
+            assertEquals(List.of("months", "years", "assets"), List.copyOf(facet.keySet()));
+            assertEquals(List.of(new YieldPeriodSummaryDto("202401", new BigDecimal("10.50"), 2)), result.months());
+            assertEquals("ABCD11", result.assets().get(0).period());
+        }
+
+        private static Document group(String key, String yieldValue, int yieldCount) {
+            return new Document("_id", key)
+                    .append("yield_value", new Decimal128(new BigDecimal(yieldValue)))
+                    .append("yield_count", yieldCount);
+        }
+    }
+}
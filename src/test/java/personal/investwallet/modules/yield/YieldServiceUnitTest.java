@@ -1,5 +1,6 @@
 package personal.investwallet.modules.yield;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -8,18 +9,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
+import personal.investwallet.csv.CsvParallelParser;
 import personal.investwallet.exceptions.*;
+import personal.investwallet.modules.announcement.AnnouncementEntity;
+import personal.investwallet.modules.announcement.AnnouncementService;
 import personal.investwallet.modules.asset.AssetService;
+import personal.investwallet.modules.job.JobCheckpointService;
+import personal.investwallet.modules.job.JobCoordinator;
+import personal.investwallet.modules.job.JobRunEntity;
+import personal.investwallet.modules.wallet.WalletChangedEvent;
+import personal.investwallet.modules.wallet.WalletEntity;
 import personal.investwallet.modules.wallet.WalletService;
-import personal.investwallet.modules.webscraper.ScraperService;
+import personal.investwallet.modules.wallet.dto.AssetHolderDto;
+import personal.investwallet.modules.webscraper.ScraperEngine;
 import personal.investwallet.modules.webscraper.dto.ScraperResponseDto;
+import personal.investwallet.modules.webscraper.dto.ScraperResultDto;
+import personal.investwallet.config.cache.CacheConfig;
 import personal.investwallet.modules.yield.dto.YieldAssetNameRequestDto;
 import personal.investwallet.modules.yield.dto.YieldInfoByAssetNameResponseDto;
 import personal.investwallet.modules.yield.dto.YieldInfoByYieldAtResponseDto;
 import personal.investwallet.modules.yield.dto.YieldRequestDto;
 import personal.investwallet.modules.yield.dto.YieldTimeIntervalRequestDto;
+import personal.investwallet.modules.yield.dto.YieldWriteResultDto;
 import personal.investwallet.security.TokenService;
 
 import java.io.*;
@@ -28,12 +42,17 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,7 +69,7 @@ public class YieldServiceUnitTest {
         private WalletService walletService;
 
         @Mock
-        private ScraperService scraperService;
+        private ScraperEngine scraperEngine;
 
         @Mock
         private MultipartFile mockFile;
@@ -58,6 +77,30 @@ public class YieldServiceUnitTest {
         @Mock
         private YieldRepository yieldRepository;
 
+        @Mock
+        private YieldBulkWriter yieldBulkWriter;
+
+        @Mock
+        private YieldTotalService yieldTotalService;
+
+        @Spy
+        private YieldCache yieldCache = new YieldCache(new CaffeineCacheManager(CacheConfig.YIELDS_CACHE));
+
+        @Spy
+        private CsvParallelParser csvParallelParser = new CsvParallelParser(2, 64);
+
+        @Mock
+        private JobCoordinator jobCoordinator;
+
+        @Mock
+        private AnnouncementService announcementService;
+
+        @Mock
+        private JobCheckpointService jobCheckpointService;
+
+        @Spy
+        private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
         @InjectMocks
         private YieldService yieldService;
 
@@ -92,12 +135,8 @@ public class YieldServiceUnitTest {
                                         new BigDecimal("100.00"), new BigDecimal("0.1"));
 
                         when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
-                        when(yieldRepository.findByUserIdAndYieldAt(USER_ID, "202408"))
-                                        .thenReturn(List.of(yield3));
-                        when(yieldRepository.findByUserIdAndYieldAt(USER_ID, "202409"))
-                                        .thenReturn(List.of(yield1, yield2));
-                        when(yieldRepository.findByUserIdAndYieldAt(USER_ID, "202410"))
-                                        .thenReturn(List.of());
+                        when(yieldRepository.findByUserIdAndYieldAtBetween(USER_ID, "202408", "202410"))
+                                        .thenReturn(List.of(yield1, yield2, yield3));
 
                         Map<String, List<YieldInfoByYieldAtResponseDto>> result = yieldService
                                         .fetchAllYieldsByTimeInterval(TOKEN, payload);
@@ -108,6 +147,32 @@ public class YieldServiceUnitTest {
 
                         List<YieldInfoByYieldAtResponseDto> responses = result.get("202409");
                         assertEquals("ABCD11", responses.get(0).assetName());
+                        assertEquals(1, result.get("202408").size());
+                        verify(yieldRepository, times(1)).findByUserIdAndYieldAtBetween(USER_ID, "202408", "202410");
+                }
+
+                @Test
+                @DisplayName("Should be able to serve repeated reads from the cache until the user yields change")
+                void shouldBeAbleToServeRepeatedReadsFromTheCacheUntilTheUserYieldsChange() {
+
+                        YieldTimeIntervalRequestDto payload = new YieldTimeIntervalRequestDto(
+                                        Instant.parse("2024-09-01T00:00:00Z"), Instant.parse("2024-10-31T00:00:00Z"));
+
+                        when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
+                        when(yieldRepository.findByUserIdAndYieldAtBetween(USER_ID, "202408", "202410"))
+                                        .thenReturn(List.of());
+
+                        yieldService.fetchAllYieldsByTimeInterval(TOKEN, payload);
+                        yieldService.fetchAllYieldsByTimeInterval(TOKEN, payload);
+                        yieldCache.evictUsers(List.of("other-user"));
+                        yieldService.fetchAllYieldsByTimeInterval(TOKEN, payload);
+
+                        verify(yieldRepository, times(1)).findByUserIdAndYieldAtBetween(USER_ID, "202408", "202410");
+
+                        yieldCache.evictUsers(List.of(USER_ID));
+                        yieldService.fetchAllYieldsByTimeInterval(TOKEN, payload);
+
+                        verify(yieldRepository, times(2)).findByUserIdAndYieldAtBetween(USER_ID, "202408", "202410");
                 }
 
                 @Test
@@ -119,9 +184,7 @@ public class YieldServiceUnitTest {
                         YieldTimeIntervalRequestDto payload = new YieldTimeIntervalRequestDto(startAt, endAt);
 
                         when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
-                        when(yieldRepository.findByUserIdAndYieldAt(USER_ID, "202409"))
-                                        .thenReturn(List.of());
-                        when(yieldRepository.findByUserIdAndYieldAt(USER_ID, "202410"))
+                        when(yieldRepository.findByUserIdAndYieldAtBetween(USER_ID, "202409", "202410"))
                                         .thenReturn(List.of());
 
                         Map<String, List<YieldInfoByYieldAtResponseDto>> result = yieldService
@@ -189,9 +252,17 @@ public class YieldServiceUnitTest {
         @Nested
         class RegisterManyYieldsReceivedByCsv {
 
+                private final List<YieldEntity> writtenYields = new ArrayList<>();
+
                 @BeforeEach
                 void setUp() {
                         when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
+
+                        lenient().when(yieldBulkWriter.write(any())).thenAnswer(invocation -> {
+                                List<YieldEntity> written = invocation.<Stream<YieldEntity>>getArgument(0).toList();
+                                writtenYields.addAll(written);
+                                return new YieldWriteResultDto(written.size(), 0);
+                        });
                 }
 
                 @Test
@@ -213,13 +284,14 @@ public class YieldServiceUnitTest {
                         when(assetService.getAssetTypeByAssetName("ASSET1")).thenReturn("fundos-imobiliarios");
                         when(assetService.getAssetTypeByAssetName("ASSET2")).thenReturn("fundos-imobiliarios");
 
-                        @SuppressWarnings("unchecked")
-                        ArgumentCaptor<List<YieldEntity>> yieldListCaptor = ArgumentCaptor.forClass(List.class);
-
                         int result = yieldService.registerManyYieldsReceivedByCsv(TOKEN, file);
 
                         assertEquals(2, result);
-                        verify(yieldRepository).saveAll(yieldListCaptor.capture());
+                        assertEquals(List.of(USER_ID + "ASSET1202311", USER_ID + "ASSET2202311"),
+                                        writtenYields.stream().map(YieldEntity::getUserAssetYieldAt).toList());
+                        verify(yieldRepository, never()).saveAll(anyList());
+                        verify(yieldTotalService).refreshUserMonths(List.of(USER_ID), Set.of("202311"));
+                        verify(yieldCache).evictUsers(List.of(USER_ID));
                 }
 
                 @Test
@@ -237,18 +309,90 @@ public class YieldServiceUnitTest {
                                         "text/csv",
                                         csvContent.getBytes());
 
-                        YieldEntity existingEntity = new YieldEntity();
-                        existingEntity.setUserId(USER_ID);
-
                         when(assetService.getAssetTypeByAssetName("ASSET1")).thenReturn("fundos-imobiliarios");
 
-                        @SuppressWarnings("unchecked")
-                        ArgumentCaptor<List<YieldEntity>> yieldListCaptor = ArgumentCaptor.forClass(List.class);
-
                         int result = yieldService.registerManyYieldsReceivedByCsv(TOKEN, file);
 
                         assertEquals(1, result);
-                        verify(yieldRepository).saveAll(yieldListCaptor.capture());
+                        assertEquals(1, writtenYields.size());
+                }
+
+                @Test
+                @DisplayName("Should be able to check each asset of the file only once")
+                void shouldBeAbleToCheckEachAssetOfTheFileOnlyOnce() {
+
+                        String csvContent = """
+                                        Asset Name, Yield At, Base Date, Payment Date, Base Price, Income Value, Yield Value
+                                        ASSET1, 202311, 01/11/2023, 15/11/2023, 100.00, 5.00, 0.05
+                                        ASSET1, 202312, 01/12/2023, 15/12/2023, 100.00, 5.00, 0.05
+                                        ASSET1, 202401, 01/01/2024, 15/01/2024, 100.00, 5.00, 0.05
+                                        """;
+
+                        MultipartFile file = new MockMultipartFile(
+                                        "test.csv",
+                                        "test.csv",
+                                        "text/csv",
+                                        csvContent.getBytes());
+
+                        when(assetService.getAssetTypeByAssetName("ASSET1")).thenReturn("fundos-imobiliarios");
+
+                        int result = yieldService.registerManyYieldsReceivedByCsv(TOKEN, file);
+
+                        assertEquals(3, result);
+                        verify(assetService, times(1)).getAssetTypeByAssetName("ASSET1");
+                        verify(yieldTotalService).refreshUserMonths(List.of(USER_ID), Set.of("202311", "202312", "202401"));
+                }
+
+                @Test
+                @DisplayName("Should not be able to write any yield when a later row of the file is invalid")
+                void shouldNotBeAbleToWriteAnyYieldWhenALaterRowOfTheFileIsInvalid() {
+
+                        String csvContent = """
+                                        Asset Name, Yield At, Base Date, Payment Date, Base Price, Income Value, Yield Value
+                                        ASSET1, 202311, 01/11/2023, 15/11/2023, 100.00, 5.00, 0.05
+                                        ASSET1, 202312, 01/12/2023, 15/12/2023, abc, 5.00, 0.05
+                                        """;
+
+                        MultipartFile file = new MockMultipartFile(
+                                        "test.csv",
+                                        "test.csv",
+                                        "text/csv",
+                                        csvContent.getBytes());
+
+                        when(assetService.getAssetTypeByAssetName("ASSET1")).thenReturn("fundos-imobiliarios");
+
+                        assertThrows(InvalidNumberFormatException.class,
+                                        () -> yieldService.registerManyYieldsReceivedByCsv(TOKEN, file));
+
+                        verifyNoInteractions(yieldBulkWriter, yieldTotalService);
+                }
+
+                @Test
+                @DisplayName("Should not be able to register yields by file when all of them are already registered")
+                void shouldNotBeAbleToRegisterYieldsByFileWhenAllOfThemAreAlreadyRegistered() {
+
+                        String csvContent = """
+                                        Asset Name, Yield At, Base Date, Payment Date, Base Price, Income Value, Yield Value
+                                        ASSET1, 202311, 01/11/2023, 15/11/2023, 100.00, 5.00, 0.05
+                                        """;
+
+                        MultipartFile file = new MockMultipartFile(
+                                        "test.csv",
+                                        "test.csv",
+                                        "text/csv",
+                                        csvContent.getBytes());
+
+                        when(assetService.getAssetTypeByAssetName("ASSET1")).thenReturn("fundos-imobiliarios");
+                        doAnswer(invocation -> {
+                                long rows = invocation.<Stream<YieldEntity>>getArgument(0).count();
+                                return new YieldWriteResultDto(0, (int) rows);
+                        }).when(yieldBulkWriter).write(any());
+
+                        BadRequestException exception = assertThrows(BadRequestException.class,
+                                        () -> yieldService.registerManyYieldsReceivedByCsv(TOKEN, file));
+
+                        assertEquals("O(s) dividendo(s) enviado(s) já estão registrados.", exception.getMessage());
+                        verifyNoInteractions(yieldTotalService);
                 }
 
                 @Test
@@ -711,8 +855,8 @@ public class YieldServiceUnitTest {
 
                         when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
                         when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
-                        when(yieldRepository.existsByUserAssetYieldAt(userAssetYieldAt))
-                                        .thenReturn(true);
+                        when(yieldRepository.findExistingUserAssetYieldAt(List.of(userAssetYieldAt)))
+                                        .thenReturn(Set.of(userAssetYieldAt));
 
                         BadRequestException exception = assertThrows(BadRequestException.class,
                                         () -> yieldService.registerManyYieldsReceived(TOKEN, payload));
@@ -721,62 +865,449 @@ public class YieldServiceUnitTest {
                                         "O(s) dividendo(s) enviado(s) já estão registrados.",
                                         exception.getMessage());
                 }
+
+                @Test
+                @DisplayName("Should be able to register only new yields resolving registered ones in a single lookup")
+                void shouldBeAbleToRegisterOnlyNewYieldsResolvingRegisteredOnesInASingleLookup() {
+
+                        YieldRequestDto yield1 = new YieldRequestDto(
+                                        "ABCD11",
+                                        Instant.parse("2024-08-31T00:00:00Z"),
+                                        Instant.parse("2024-09-15T00:00:00Z"),
+                                        new BigDecimal("10.00"),
+                                        new BigDecimal("100.00"),
+                                        new BigDecimal("0.1"));
+                        YieldRequestDto yield2 = new YieldRequestDto(
+                                        "ABCD11",
+                                        Instant.parse("2024-07-31T00:00:00Z"),
+                                        Instant.parse("2024-08-15T00:00:00Z"),
+                                        new BigDecimal("10.00"),
+                                        new BigDecimal("100.00"),
+                                        new BigDecimal("0.1"));
+
+                        List<YieldRequestDto> payload = List.of(yield1, yield2, yield2);
+
+                        String registeredKey = USER_ID + "ABCD11" + "202408";
+
+                        when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
+                        when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
+                        when(yieldRepository.findExistingUserAssetYieldAt(anyList())).thenReturn(Set.of(registeredKey));
+
+                        int result = yieldService.registerManyYieldsReceived(TOKEN, payload);
+
+                        assertEquals(1, result);
+                        verify(yieldRepository, times(1)).findExistingUserAssetYieldAt(anyList());
+                        verify(assetService, times(1)).getAssetTypeByAssetName("ABCD11");
+                }
         }
 
         @Nested
         class RegisterManyFIIYieldsReceivedInCurrentMonthByWebScraping {
 
+                private final Instant baseDate = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant();
+                private final Instant paymentDate = LocalDate.now().plusDays(15).atStartOfDay(ZoneId.systemDefault())
+                                .toInstant();
+
+                private static final String RUN_ID = "fii-yield-scraping:" + getYieldAt();
+
+                private final List<List<YieldEntity>> writtenYields = new ArrayList<>();
+
+                @BeforeEach
+                void setUp() {
+                        lenient().doAnswer(invocation -> {
+                                Consumer<List<String>> worker = invocation.getArgument(3);
+                                worker.accept(invocation.getArgument(2));
+                                return null;
+                        }).when(jobCoordinator).runPartitioned(eq("fii-yield-scraping"), eq(LocalDate.now().toString()),
+                                        anyList(), any());
+                        lenient().when(jobCheckpointService.startRun("fii-yield-scraping", getYieldAt()))
+                                        .thenReturn(RUN_ID);
+                        lenient().when(jobCheckpointService.getCompletedItems(RUN_ID)).thenReturn(Set.of());
+                        lenient().when(yieldBulkWriter.write(any())).thenAnswer(invocation -> {
+                                Stream<YieldEntity> yields = invocation.getArgument(0);
+                                List<YieldEntity> written = yields.toList();
+                                writtenYields.add(written);
+                                return new YieldWriteResultDto(written.size(), 0);
+                        });
+                }
+
                 @Test
                 @DisplayName("Should be able to register many FII yields received in current month by web scraping")
                 void shouldBeAbleToRegisterManyFIIYieldsReceivedInCurrentMonthByWebScraping() {
 
-                        Instant baseDate = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant();
-                        Instant paymentDate = LocalDate.now().plusDays(15).atStartOfDay(ZoneId.systemDefault())
-                                        .toInstant();
+                        ScraperResponseDto scraperResponseDto1 = scraperResponse("ABCD11");
+                        ScraperResponseDto scraperResponseDto2 = scraperResponse("XYZW11");
 
-                        ScraperResponseDto scraperResponseDto1 = new ScraperResponseDto(
-                                        "ABCD11",
+                        when(walletService.getAllAssetNames()).thenReturn(List.of("ABCD11", "XYZW11"));
+                        when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
+                        when(assetService.getAssetTypeByAssetName("XYZW11")).thenReturn("fundos-imobiliarios");
+                        when(announcementService.getAllAnnouncementsByYieldAt(getYieldAt(), List.of("ABCD11", "XYZW11")))
+                                        .thenReturn(List.of());
+                        when(announcementService.registerScrapedAnnouncement("ABCD11", scraperResponseDto1))
+                                        .thenReturn(announcement("ABCD11"));
+                        when(announcementService.registerScrapedAnnouncement("XYZW11", scraperResponseDto2))
+                                        .thenReturn(announcement("XYZW11"));
+                        scrapes(List.of("ABCD11", "XYZW11"),
+                                        ScraperResultDto.success("ABCD11", scraperResponseDto1),
+                                        ScraperResultDto.success("XYZW11", scraperResponseDto2));
+                        when(walletService.getAllHoldersByAssetNameAt(eq("ABCD11"), any()))
+                                        .thenReturn(List.of(new AssetHolderDto(USER_ID, 100)));
+                        when(walletService.getAllHoldersByAssetNameAt(eq("XYZW11"), any()))
+                                        .thenReturn(List.of(new AssetHolderDto(USER_ID, 100)));
+
+                        yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+
+                        // Cada ativo é gravado e marcado assim que termina, sem esperar os demais
+                        assertEquals(2, writtenYields.size());
+                        assertEquals("ABCD11", writtenYields.get(0).get(0).getAssetName());
+                        assertEquals("XYZW11", writtenYields.get(1).get(0).getAssetName());
+                        verify(jobCheckpointService).markItem(RUN_ID, "ABCD11", JobRunEntity.ItemCheckpoint.DONE,
+                                        "1 dividendos registrados");
+                        verify(jobCheckpointService).markItem(RUN_ID, "XYZW11", JobRunEntity.ItemCheckpoint.DONE,
+                                        "1 dividendos registrados");
+                        verify(jobCheckpointService).finishRun(RUN_ID);
+                }
+
+                @Test
+                @DisplayName("Should be able to register FII yields of successful assets when scraping of another asset fails")
+                void shouldBeAbleToRegisterFIIYieldsOfSuccessfulAssetsWhenScrapingOfAnotherAssetFails() {
+
+                        ScraperResponseDto scraperResponseDto = scraperResponse("ABCD11");
+
+                        when(walletService.getAllAssetNames()).thenReturn(List.of("ABCD11", "XYZW11", "PETR4"));
+                        when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
+                        when(assetService.getAssetTypeByAssetName("XYZW11")).thenReturn("fundos-imobiliarios");
+                        when(assetService.getAssetTypeByAssetName("PETR4")).thenReturn("acoes");
+                        when(announcementService.getAllAnnouncementsByYieldAt(getYieldAt(), List.of("ABCD11", "XYZW11")))
+                                        .thenReturn(List.of());
+                        when(announcementService.registerScrapedAnnouncement("ABCD11", scraperResponseDto))
+                                        .thenReturn(announcement("ABCD11"));
+                        scrapes(List.of("ABCD11", "XYZW11"),
+                                        ScraperResultDto.success("ABCD11", scraperResponseDto),
+                                        ScraperResultDto.failure("XYZW11", "Read timed out"));
+                        when(walletService.getAllHoldersByAssetNameAt(eq("ABCD11"), any()))
+                                        .thenReturn(List.of(new AssetHolderDto(USER_ID, 10)));
+
+                        yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+
+                        verify(walletService, never()).getAllHoldersByAssetName("XYZW11");
+                        verify(announcementService, never()).registerScrapedAnnouncement(eq("XYZW11"), any());
+                        verify(jobCheckpointService).markItem(RUN_ID, "XYZW11", JobRunEntity.ItemCheckpoint.FAILED,
+                                        "Read timed out");
+
+                        assertEquals(1, writtenYields.size());
+                        assertEquals("ABCD11", writtenYields.get(0).get(0).getAssetName());
+                        assertEquals(new BigDecimal("1000.00"), writtenYields.get(0).get(0).getYieldValue());
+                        assertEquals(1, meterRegistry.timer("yield.scraping.asset", "outcome", "success").count());
+                        assertEquals(1, meterRegistry.timer("yield.scraping.asset", "outcome", "failure").count());
+                }
+
+                @Test
+                @DisplayName("Should not be able to scrape again an asset whose announcement is already stored")
+                void shouldNotBeAbleToScrapeAgainAnAssetWhoseAnnouncementIsAlreadyStored() {
+
+                        when(walletService.getAllAssetNames()).thenReturn(List.of("ABCD11"));
+                        when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
+                        when(announcementService.getAllAnnouncementsByYieldAt(getYieldAt(), List.of("ABCD11")))
+                                        .thenReturn(List.of(announcement("ABCD11")));
+                        when(walletService.getAllHoldersByAssetNameAt(eq("ABCD11"), any()))
+                                        .thenReturn(List.of(new AssetHolderDto(USER_ID, 3)));
+
+                        yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+
+                        assertEquals(1, writtenYields.size());
+                        assertEquals(1, writtenYields.get(0).size());
+                        verify(jobCheckpointService).markItem(RUN_ID, "ABCD11", JobRunEntity.ItemCheckpoint.DONE,
+                                        "1 dividendos registrados");
+                        verifyNoInteractions(scraperEngine);
+                }
+
+                @Test
+                @DisplayName("Should be able to resume a run skipping the assets already checkpointed")
+                void shouldBeAbleToResumeARunSkippingTheAssetsAlreadyCheckpointed() {
+
+                        ScraperResponseDto scraperResponseDto = scraperResponse("XYZW11");
+
+                        when(walletService.getAllAssetNames()).thenReturn(List.of("ABCD11", "XYZW11"));
+                        when(jobCheckpointService.getCompletedItems(RUN_ID)).thenReturn(Set.of("ABCD11"));
+                        when(assetService.getAssetTypeByAssetName("XYZW11")).thenReturn("fundos-imobiliarios");
+                        when(announcementService.getAllAnnouncementsByYieldAt(getYieldAt(), List.of("XYZW11")))
+                                        .thenReturn(List.of());
+                        when(announcementService.registerScrapedAnnouncement("XYZW11", scraperResponseDto))
+                                        .thenReturn(announcement("XYZW11"));
+                        scrapes(List.of("XYZW11"), ScraperResultDto.success("XYZW11", scraperResponseDto));
+                        when(walletService.getAllHoldersByAssetNameAt(eq("XYZW11"), any()))
+                                        .thenReturn(List.of(new AssetHolderDto(USER_ID, 1)));
+
+                        yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+
+                        verify(assetService, never()).getAssetTypeByAssetName("ABCD11");
+                        verify(jobCheckpointService, never()).markItem(eq(RUN_ID), eq("ABCD11"), anyString(), any());
+                        assertEquals(1, writtenYields.size());
+                        assertEquals("XYZW11", writtenYields.get(0).get(0).getAssetName());
+                }
+
+                @Test
+                @DisplayName("Should be able to mark the asset as failed and rethrow when registering its yields fails")
+                void shouldBeAbleToMarkTheAssetAsFailedAndRethrowWhenRegisteringItsYieldsFails() {
+
+                        ScraperResponseDto scraperResponseDto = scraperResponse("ABCD11");
+
+                        when(walletService.getAllAssetNames()).thenReturn(List.of("ABCD11"));
+                        when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
+                        when(announcementService.getAllAnnouncementsByYieldAt(getYieldAt(), List.of("ABCD11")))
+                                        .thenReturn(List.of());
+                        when(announcementService.registerScrapedAnnouncement("ABCD11", scraperResponseDto))
+                                        .thenThrow(new IllegalStateException("Mongo indisponível"));
+                        scrapes(List.of("ABCD11"), ScraperResultDto.success("ABCD11", scraperResponseDto));
+
+                        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                                        () -> yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping());
+
+                        assertEquals("Mongo indisponível", exception.getMessage());
+                        verify(jobCheckpointService).markItem(RUN_ID, "ABCD11", JobRunEntity.ItemCheckpoint.FAILED,
+                                        "Mongo indisponível");
+                        verify(jobCheckpointService, never()).finishRun(RUN_ID);
+                        assertEquals(1, meterRegistry.timer("yield.scraping.asset", "outcome", "error").count());
+                }
+
+                @Test
+                @DisplayName("Should be able to resume the run of the month left unfinished on startup")
+                void shouldBeAbleToResumeTheRunOfTheMonthLeftUnfinishedOnStartup() {
+
+                        when(jobCheckpointService.isRunning("fii-yield-scraping", getYieldAt())).thenReturn(true);
+                        when(walletService.getAllAssetNames()).thenReturn(List.of());
+
+                        yieldService.resumeUnfinishedFIIYieldScraping();
+
+                        verify(jobCoordinator).runPartitioned(eq("fii-yield-scraping"), eq(LocalDate.now().toString()),
+                                        eq(List.of()), any());
+                        verify(jobCheckpointService).finishRun(RUN_ID);
+                }
+
+                @Test
+                @DisplayName("Should not be able to start a run on startup when the run of the month is not unfinished")
+                void shouldNotBeAbleToStartARunOnStartupWhenTheRunOfTheMonthIsNotUnfinished() {
+
+                        when(jobCheckpointService.isRunning("fii-yield-scraping", getYieldAt())).thenReturn(false);
+
+                        yieldService.resumeUnfinishedFIIYieldScraping();
+
+                        verify(jobCheckpointService, never()).startRun(anyString(), anyString());
+                        verifyNoInteractions(walletService, jobCoordinator);
+                }
+
+                @Test
+                @DisplayName("Should not be able to register FII yields when the scraped announcement is from another month")
+                void shouldNotBeAbleToRegisterFIIYieldsWhenTheScrapedAnnouncementIsFromAnotherMonth() {
+
+                        ScraperResponseDto scraperResponseDto = scraperResponse("ABCD11");
+                        AnnouncementEntity previousMonth = announcement("ABCD11");
+                        previousMonth.setYieldAt("200001");
+
+                        when(walletService.getAllAssetNames()).thenReturn(List.of("ABCD11"));
+                        when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
+                        when(announcementService.getAllAnnouncementsByYieldAt(getYieldAt(), List.of("ABCD11")))
+                                        .thenReturn(List.of());
+                        when(announcementService.registerScrapedAnnouncement("ABCD11", scraperResponseDto))
+                                        .thenReturn(previousMonth);
+                        scrapes(List.of("ABCD11"), ScraperResultDto.success("ABCD11", scraperResponseDto));
+
+                        yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+
+                        assertTrue(writtenYields.isEmpty());
+                        verify(jobCheckpointService).markItem(RUN_ID, "ABCD11", JobRunEntity.ItemCheckpoint.FAILED,
+                                        "Sem anúncio para " + getYieldAt());
+                }
+
+                @Test
+                @DisplayName("Should be able to generate FII yields inside Mongo when the aggregation engine is selected")
+                void shouldBeAbleToGenerateFIIYieldsInsideMongoWhenTheAggregationEngineIsSelected() {
+
+                        yieldService.yieldGenerationEngine = "aggregation";
+
+                        when(yieldRepository.findUserIdsByYieldAtAndAssetName(getYieldAt(), "ABCD11"))
+                                        .thenReturn(List.of(USER_ID));
+
+                        when(walletService.getAllAssetNames()).thenReturn(List.of("ABCD11"));
+                        when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
+                        when(announcementService.getAllAnnouncementsByYieldAt(getYieldAt(), List.of("ABCD11")))
+                                        .thenReturn(List.of(announcement("ABCD11")));
+
+                        yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+
+                        verify(yieldRepository).mergeYieldsFromAnnouncements(getYieldAt(), List.of("ABCD11"));
+                        verify(yieldTotalService).refreshAssetMonth(getYieldAt(), List.of("ABCD11"));
+                        verify(yieldCache).evictUsers(List.of(USER_ID));
+                        verify(walletService, never()).getAllHoldersByAssetNameAt(anyString(), any());
+                        verify(jobCheckpointService).markItem(RUN_ID, "ABCD11", JobRunEntity.ItemCheckpoint.DONE,
+                                        "dividendos gerados por agregação");
+                        assertTrue(writtenYields.isEmpty());
+                }
+
+                @Test
+                @DisplayName("Should be able to record the run duration when the run finishes")
+                void shouldBeAbleToRecordTheRunDurationWhenTheRunFinishes() {
+
+                        when(walletService.getAllAssetNames()).thenReturn(List.of());
+
+                        yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+
+                        verify(jobCheckpointService).finishRun(RUN_ID);
+                        assertEquals(1, meterRegistry.timer("yield.scraping.run", "outcome", "success").count());
+                }
+
+                @Test
+                @DisplayName("Should be able to record the run duration as an error and keep the run open when it fails")
+                void shouldBeAbleToRecordTheRunDurationAsAnErrorAndKeepTheRunOpenWhenItFails() {
+
+                        when(walletService.getAllAssetNames()).thenReturn(List.of());
+                        doThrow(new IllegalStateException("Mongo indisponível")).when(jobCoordinator)
+                                        .runPartitioned(anyString(), anyString(), anyList(), any());
+
+                        assertThrows(IllegalStateException.class,
+                                        () -> yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping());
+
+                        verify(jobCheckpointService, never()).finishRun(RUN_ID);
+                        assertEquals(1, meterRegistry.timer("yield.scraping.run", "outcome", "error").count());
+                        assertEquals(0, meterRegistry.timer("yield.scraping.run", "outcome", "success").count());
+                }
+
+                private void scrapes(List<String> assetNames, ScraperResultDto... results) {
+                        doAnswer(invocation -> {
+                                Consumer<ScraperResultDto> onResult = invocation.getArgument(2);
+                                for (ScraperResultDto result : results)
+                                        onResult.accept(result);
+                                return List.of(results);
+                        }).when(scraperEngine).fiiYieldScrapingMany(eq("fundos-imobiliarios"), eq(assetNames), any());
+                }
+
+                private ScraperResponseDto scraperResponse(String assetName) {
+                        return new ScraperResponseDto(
+                                        assetName,
                                         new BigDecimal("100.00"),
                                         new BigDecimal("0.05"),
                                         baseDate,
                                         paymentDate,
                                         getYieldAt());
-                        ScraperResponseDto scraperResponseDto2 = new ScraperResponseDto(
-                                        "XYZW11",
+                }
+
+                private AnnouncementEntity announcement(String assetName) {
+                        return new AnnouncementEntity(
+                                        null,
+                                        assetName,
+                                        getYieldAt(),
                                         new BigDecimal("100.00"),
                                         new BigDecimal("0.05"),
                                         baseDate,
                                         paymentDate,
-                                        getYieldAt());
+                                        Instant.now());
+                }
+        }
 
-                        when(walletService.getAllAssetNames()).thenReturn(List.of("ABCD11", "XYZW11"));
-                        when(assetService.getAssetTypeByAssetName("ABCD11")).thenReturn("fundos-imobiliarios");
-                        when(assetService.getAssetTypeByAssetName("XYZW11")).thenReturn("fundos-imobiliarios");
-                        when(walletService.getAllUserIdsWithWalletCreatedByAssetName("ABCD11"))
-                                        .thenReturn(List.of(USER_ID));
-                        when(walletService.getAllUserIdsWithWalletCreatedByAssetName("XYZW11"))
-                                        .thenReturn(List.of(USER_ID));
-                        when(scraperService.fiiYieldScraping("fundos-imobiliarios", "ABCD11"))
-                                        .thenReturn(scraperResponseDto1);
-                        when(scraperService.fiiYieldScraping("fundos-imobiliarios", "XYZW11"))
-                                        .thenReturn(scraperResponseDto2);
-                        when(walletService.getQuotaAmountOfAssetByUserId(USER_ID, "ABCD11")).thenReturn(100);
-                        when(walletService.getQuotaAmountOfAssetByUserId(USER_ID, "XYZW11")).thenReturn(100);
+        @Nested
+        class RecomputeFIIYieldsOfUserAsset {
 
-                        yieldService.registerManyFIIYieldsReceivedInCurrentMonthByWebScraping();
+                @Test
+                @DisplayName("Should be able to recompute only the yields with base date after the wallet change")
+                void shouldBeAbleToRecomputeOnlyTheYieldsWithBaseDateAfterTheWalletChange() {
+
+                        Instant changedAt = Instant.parse("2024-08-10T00:00:00Z");
+                        WalletChangedEvent event = new WalletChangedEvent(USER_ID, "ABCD11", changedAt, List.of());
+
+                        when(announcementService.getAllAnnouncementsByAssetNameFrom("ABCD11", changedAt)).thenReturn(List.of(
+                                        announcementAt("202408", Instant.parse("2024-08-30T00:00:00Z")),
+                                        announcementAt("202409", Instant.parse("2024-09-30T00:00:00Z"))));
+                        when(walletService.getPositionIndexOfUserAsset(USER_ID, "ABCD11")).thenReturn(List.of(
+                                        new WalletEntity.Asset.PositionEntry(changedAt, 10),
+                                        new WalletEntity.Asset.PositionEntry(Instant.parse("2024-09-05T00:00:00Z"), 0)));
+                        when(yieldBulkWriter.overwrite(anyList(), anyList())).thenReturn(2);
+
+                        yieldService.recomputeFIIYieldsOfUserAsset(event);
+
+                        @SuppressWarnings("unchecked")
+                        ArgumentCaptor<List<YieldEntity>> yieldsCaptor = ArgumentCaptor.forClass(List.class);
+                        @SuppressWarnings("unchecked")
+                        ArgumentCaptor<List<YieldEntity>> removedCaptor = ArgumentCaptor.forClass(List.class);
+                        verify(yieldBulkWriter).overwrite(yieldsCaptor.capture(), removedCaptor.capture());
+
+                        List<YieldEntity> yields = yieldsCaptor.getValue();
+                        assertEquals(1, yields.size());
+                        assertEquals(USER_ID + "ABCD11202408", yields.get(0).getUserAssetYieldAt());
+                        assertEquals(new BigDecimal("10.00"), yields.get(0).getYieldValue());
+
+                        // A remoção leva a data base e o valor por cota do anúncio para não alcançar dividendos manuais
+                        List<YieldEntity> removedYields = removedCaptor.getValue();
+                        assertEquals(1, removedYields.size());
+                        assertEquals(USER_ID + "ABCD11202409", removedYields.get(0).getUserAssetYieldAt());
+                        assertEquals(Instant.parse("2024-09-30T00:00:00Z"), removedYields.get(0).getBaseDate());
+                        assertEquals(new BigDecimal("1.00"), removedYields.get(0).getIncomeValue());
+                        verify(yieldTotalService).refreshUserMonths(List.of(USER_ID), List.of("202408", "202409"));
+                }
+
+                @Test
+                @DisplayName("Should be able to recompute with the current wallet position instead of the event snapshot")
+                void shouldBeAbleToRecomputeWithTheCurrentWalletPositionInsteadOfTheEventSnapshot() {
+
+                        Instant changedAt = Instant.parse("2024-08-10T00:00:00Z");
+                        // O evento é de uma compra anterior; outra compra já elevou a posição para 25 cotas
+                        WalletChangedEvent event = new WalletChangedEvent(USER_ID, "ABCD11", changedAt, List.of(
+                                        new WalletEntity.Asset.PositionEntry(changedAt, 10)));
+
+                        when(announcementService.getAllAnnouncementsByAssetNameFrom("ABCD11", changedAt)).thenReturn(List.of(
+                                        announcementAt("202408", Instant.parse("2024-08-30T00:00:00Z"))));
+                        when(walletService.getPositionIndexOfUserAsset(USER_ID, "ABCD11")).thenReturn(List.of(
+                                        new WalletEntity.Asset.PositionEntry(changedAt, 10),
+                                        new WalletEntity.Asset.PositionEntry(Instant.parse("2024-08-20T00:00:00Z"), 25)));
+                        when(yieldBulkWriter.overwrite(anyList(), anyList())).thenReturn(1);
+
+                        yieldService.recomputeFIIYieldsOfUserAsset(event);
 
                         @SuppressWarnings("unchecked")
-                        ArgumentCaptor<List<YieldEntity>> captor = ArgumentCaptor.forClass(List.class);
-                        verify(yieldRepository, times(1)).saveAll(captor.capture());
+                        ArgumentCaptor<List<YieldEntity>> yieldsCaptor = ArgumentCaptor.forClass(List.class);
+                        verify(yieldBulkWriter).overwrite(yieldsCaptor.capture(), eq(List.of()));
+
+                        assertEquals(new BigDecimal("25.00"), yieldsCaptor.getValue().get(0).getYieldValue());
+                }
+
+                @Test
+                @DisplayName("Should not be able to touch yields when the asset has no announcement after the change")
+                void shouldNotBeAbleToTouchYieldsWhenTheAssetHasNoAnnouncementAfterTheChange() {
+
+                        Instant changedAt = Instant.parse("2024-08-10T00:00:00Z");
+                        when(announcementService.getAllAnnouncementsByAssetNameFrom("PETR4", changedAt)).thenReturn(List.of());
 
-                        List<YieldEntity> savedEntities = captor.getValue();
-                        assertEquals(2, savedEntities.size());
+                        yieldService.recomputeFIIYieldsOfUserAsset(new WalletChangedEvent(USER_ID, "PETR4", changedAt,
+                                        List.of()));
 
-                        YieldEntity firstEntity = savedEntities.get(0);
-                        YieldEntity secondEntity = savedEntities.get(1);
+                        verifyNoInteractions(yieldBulkWriter, yieldTotalService);
+                        verify(yieldCache).evictUsers(List.of(USER_ID));
+                }
+
+                @Test
+                @DisplayName("Should be able to evict the user queries when the change leaves every yield unchanged")
+                void shouldBeAbleToEvictTheUserQueriesWhenTheChangeLeavesEveryYieldUnchanged() {
+
+                        Instant changedAt = Instant.parse("2024-08-10T00:00:00Z");
+
+                        when(announcementService.getAllAnnouncementsByAssetNameFrom("ABCD11", changedAt)).thenReturn(List.of(
+                                        announcementAt("202408", Instant.parse("2024-08-30T00:00:00Z"))));
+                        when(walletService.getPositionIndexOfUserAsset(USER_ID, "ABCD11")).thenReturn(List.of(
+                                        new WalletEntity.Asset.PositionEntry(changedAt, 10)));
+                        when(yieldBulkWriter.overwrite(anyList(), anyList())).thenReturn(0);
+
+                        yieldService.recomputeFIIYieldsOfUserAsset(new WalletChangedEvent(USER_ID, "ABCD11", changedAt,
+                                        List.of()));
+
+                        // O valor investido do resumo mudou com a movimentação, mesmo sem dividendos regravados
+                        verifyNoInteractions(yieldTotalService);
+                        verify(yieldCache).evictUsers(List.of(USER_ID));
+                }
 
-                        assertEquals("ABCD11", firstEntity.getAssetName());
-                        assertEquals("XYZW11", secondEntity.getAssetName());
+                private AnnouncementEntity announcementAt(String yieldAt, Instant basePriceDate) {
+                        return new AnnouncementEntity(null, "ABCD11", yieldAt, new BigDecimal("1.00"),
+                                        new BigDecimal("100.00"), basePriceDate, basePriceDate.plusSeconds(864000),
+                                        Instant.now());
                 }
         }
 
@@ -0,0 +1,143 @@
+package personal.investwallet.modules.yield;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class YieldTotalRepositoryImplUnitTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private YieldTotalRepositoryImpl yieldTotalRepository;
+
+    @BeforeEach
+    void setUp() {
+        yieldTotalRepository = new YieldTotalRepositoryImpl(mongoTemplate);
+    }
+
+    @Nested
+    class RefreshTotalsOfUsers {
+
+        @Test
+        @DisplayName("Should be able to regroup the yields of the user months and merge them into the totals")
+        void shouldBeAbleToRegroupTheYieldsOfTheUserMonthsAndMergeThemIntoTheTotals() {
+
+            when(mongoTemplate.getCollectionName(YieldEntity.class)).thenReturn("yields");
+            when(mongoTemplate.getCollectionName(YieldTotalEntity.class)).thenReturn("yield_totals");
+            when(mongoTemplate.aggregate(any(Aggregation.class), eq("yields"), eq(Document.class)))
+                    .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+            yieldTotalRepository.refreshTotalsOfUsers(List.of("user1234"), List.of("202401"));
+
+            ArgumentCaptor<Aggregation> aggregationCaptor = ArgumentCaptor.forClass(Aggregation.class);
+            verify(mongoTemplate).aggregate(aggregationCaptor.capture(), eq("yields"), eq(Document.class));
+
+            List<Document> pipeline = aggregationCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+            Document match = pipeline.get(0).get("$match", Document.class);
+            Document merge = pipeline.get(pipeline.size() - 1).get("$merge", Document.class);
+
+            assertEquals(new Document("$in", List.of("user1234")), match.get("user_id"));
+            assertEquals(new Document("$in", List.of("202401")), match.get("yield_at"));
+            assertEquals("yield_totals", merge.getString("into"));
+            assertEquals(List.of("user_id", "yield_at", "asset_name"), merge.get("on"));
+            assertEquals("replace", merge.getString("whenMatched"));
+
+            // Os totais do escopo que não foram regravados por esta execução são removidos
+            Document project = pipeline.get(pipeline.size() - 2).get("$project", Document.class);
+            Object refreshId = project.get("refresh_id", Document.class).get("$literal");
+
+            ArgumentCaptor<Query> removeCaptor = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate).remove(removeCaptor.capture(), eq(YieldTotalEntity.class));
+            List<?> removeScope = removeCaptor.getValue().getQueryObject().get("$and", List.class);
+            assertEquals(match, removeScope.get(0));
+            assertEquals(new Document("refresh_id", new Document("$ne", refreshId)), removeScope.get(1));
+        }
+
+        @Test
+        @DisplayName("Should be able to mark each refresh with its own id")
+        void shouldBeAbleToMarkEachRefreshWithItsOwnId() {
+
+            when(mongoTemplate.getCollectionName(YieldEntity.class)).thenReturn("yields");
+            when(mongoTemplate.getCollectionName(YieldTotalEntity.class)).thenReturn("yield_totals");
+            when(mongoTemplate.aggregate(any(Aggregation.class), eq("yields"), eq(Document.class)))
+                    .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+            yieldTotalRepository.refreshTotalsOfUsers(List.of("user1234"), List.of("202401"));
+            yieldTotalRepository.refreshTotalsOfUsers(List.of("user1234"), List.of("202401"));
+
+            ArgumentCaptor<Query> removeCaptor = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate, times(2)).remove(removeCaptor.capture(), eq(YieldTotalEntity.class));
+            List<Object> refreshIds = removeCaptor.getAllValues().stream()
+                    .map(query -> query.getQueryObject().get("$and", List.class).get(1))
+                    .toList();
+
+            assertTrue(refreshIds.get(0) instanceof Document);
+            assertNotEquals(refreshIds.get(0), refreshIds.get(1));
+        }
+
+        @Test
+        @DisplayName("Should not be able to run the pipeline without months")
+        void shouldNotBeAbleToRunThePipelineWithoutMonths() {
+
+            yieldTotalRepository.refreshTotalsOfUsers(List.of("user1234"), List.of());
+
+            verifyNoInteractions(mongoTemplate);
+        }
+    }
+
+    @Nested
+    class RefreshAllTotalsOfUsers {
+
+        @Test
+        @DisplayName("Should be able to regroup every month of the users")
+        void shouldBeAbleToRegroupEveryMonthOfTheUsers() {
+
+            when(mongoTemplate.getCollectionName(YieldEntity.class)).thenReturn("yields");
+            when(mongoTemplate.getCollectionName(YieldTotalEntity.class)).thenReturn("yield_totals");
+            when(mongoTemplate.aggregate(any(Aggregation.class), eq("yields"), eq(Document.class)))
+                    .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+            yieldTotalRepository.refreshAllTotalsOfUsers(List.of("user1234"));
+
+            ArgumentCaptor<Aggregation> aggregationCaptor = ArgumentCaptor.forClass(Aggregation.class);
+            verify(mongoTemplate).aggregate(aggregationCaptor.capture(), eq("yields"), eq(Document.class));
+
+            Document match = aggregationCaptor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(0)
+                    .get("$match", Document.class);
+
+            assertEquals(new Document("user_id", new Document("$in", List.of("user1234"))), match);
+        }
+
+        @Test
+        @DisplayName("Should not be able to run the pipeline without users")
+        void shouldNotBeAbleToRunThePipelineWithoutUsers() {
+
+            yieldTotalRepository.refreshAllTotalsOfUsers(List.of());
+
+            verifyNoInteractions(mongoTemplate);
+        }
+    }
+}
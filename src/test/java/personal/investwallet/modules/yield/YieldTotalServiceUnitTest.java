@@ -0,0 +1,243 @@
+package personal.investwallet.modules.yield;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import personal.investwallet.config.cache.CacheConfig;
+import personal.investwallet.modules.job.JobCoordinator;
+import personal.investwallet.modules.wallet.WalletEntity;
+import personal.investwallet.modules.wallet.WalletService;
+import personal.investwallet.modules.yield.dto.YieldAssetSummaryDto;
+import personal.investwallet.modules.yield.dto.YieldPeriodSummaryDto;
+import personal.investwallet.modules.yield.dto.YieldSummaryResponseDto;
+import personal.investwallet.modules.yield.dto.YieldAssetTotalResponseDto;
+import personal.investwallet.modules.yield.dto.YieldTimeIntervalRequestDto;
+import personal.investwallet.modules.yield.dto.YieldTotalResponseDto;
+import personal.investwallet.modules.yield.dto.YieldTotalsResponseDto;
+import personal.investwallet.security.TokenService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("unit")
+public class YieldTotalServiceUnitTest {
+
+    private static final String TOKEN = "validToken";
+    private static final String USER_ID = "user1234";
+
+    @Mock
+    private YieldTotalRepository yieldTotalRepository;
+
+    @Mock
+    private YieldRepository yieldRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    @Spy
+    private YieldCache yieldCache = new YieldCache(new CaffeineCacheManager(CacheConfig.YIELDS_CACHE));
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private JobCoordinator jobCoordinator;
+
+    @InjectMocks
+    private YieldTotalService yieldTotalService;
+
+    @Nested
+    class FetchTotalsByTimeInterval {
+
+        @Test
+        @DisplayName("Should be able to sum the asset totals by month and by year")
+        void shouldBeAbleToSumTheAssetTotalsByMonthAndByYear() {
+
+            YieldTimeIntervalRequestDto payload = new YieldTimeIntervalRequestDto(
+                    Instant.parse("2023-12-01T12:00:00Z"), Instant.parse("2024-02-29T12:00:00Z"));
+
+            when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
+            when(yieldTotalRepository.findByUserIdAndYieldAtBetween(USER_ID, "202312", "202402")).thenReturn(List.of(
+                    total("202401", "XYZW11", "5.00", 1),
+                    total("202312", "ABCD11", "10.00", 1),
+                    total("202401", "ABCD11", "12.50", 2)));
+
+            YieldTotalsResponseDto result = yieldTotalService.fetchTotalsByTimeInterval(TOKEN, payload);
+
+            assertEquals(List.of(
+                    new YieldTotalResponseDto("202312", new BigDecimal("10.00"), 1, List.of(
+                            new YieldAssetTotalResponseDto("ABCD11", new BigDecimal("10.00"), 1))),
+                    new YieldTotalResponseDto("202401", new BigDecimal("17.50"), 3, List.of(
+                            new YieldAssetTotalResponseDto("ABCD11", new BigDecimal("12.50"), 2),
+                            new YieldAssetTotalResponseDto("XYZW11", new BigDecimal("5.00"), 1)))),
+                    result.months());
+            assertEquals(List.of(
+                    new YieldTotalResponseDto("2023", new BigDecimal("10.00"), 1, List.of(
+                            new YieldAssetTotalResponseDto("ABCD11", new BigDecimal("10.00"), 1))),
+                    new YieldTotalResponseDto("2024", new BigDecimal("17.50"), 3, List.of(
+                            new YieldAssetTotalResponseDto("ABCD11", new BigDecimal("12.50"), 2),
+                            new YieldAssetTotalResponseDto("XYZW11", new BigDecimal("5.00"), 1)))),
+                    result.years());
+        }
+    }
+
+    @Nested
+    class FetchSummaryByTimeInterval {
+
+        private final YieldTimeIntervalRequestDto payload = new YieldTimeIntervalRequestDto(
+                Instant.parse("2024-01-15T12:00:00Z"), Instant.parse("2024-06-15T12:00:00Z"));
+
+        @Test
+        @DisplayName("Should be able to combine the aggregated totals with the yield on cost of each asset")
+        void shouldBeAbleToCombineTheAggregatedTotalsWithTheYieldOnCostOfEachAsset() {
+
+            WalletEntity.Asset asset = new WalletEntity.Asset("ABCD11", 15, List.of(
+                    purchase("1000.00", "2023-12-01T00:00:00Z"),
+                    purchase("500.00", "2024-12-01T00:00:00Z")), List.of());
+            Map<String, WalletEntity.Asset> assets = new HashMap<>();
+            assets.put("ABCD11", asset);
+
+            when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
+            when(yieldRepository.summarizeByUserIdAndYieldAtBetween(USER_ID, "202401", "202406")).thenReturn(
+                    new YieldSummaryFacets(
+                            List.of(new YieldPeriodSummaryDto("202401", new BigDecimal("10.00"), 2),
+                                    new YieldPeriodSummaryDto("202402", new BigDecimal("15.00"), 1)),
+                            List.of(new YieldPeriodSummaryDto("2024", new BigDecimal("25.00"), 3)),
+                            List.of(new YieldPeriodSummaryDto("ABCD11", new BigDecimal("20.00"), 2),
+                                    new YieldPeriodSummaryDto("XYZW11", new BigDecimal("5.00"), 1))));
+            when(walletService.getWalletByUserId(USER_ID)).thenReturn(Optional.of(new WalletEntity(null, USER_ID,
+                    assets)));
+
+            YieldSummaryResponseDto summary = yieldTotalService.fetchSummaryByTimeInterval(TOKEN, payload);
+
+            assertEquals(new BigDecimal("25.00"), summary.yieldValue());
+            assertEquals(3, summary.yieldCount());
+            assertEquals(new BigDecimal("1000.00"), summary.investedValue());
+            assertEquals(new BigDecimal("0.025000"), summary.yieldOnCost());
+            assertEquals(2, summary.months().size());
+            assertEquals(List.of(
+                    new YieldAssetSummaryDto("ABCD11", new BigDecimal("20.00"), 2, new BigDecimal("1000.00"),
+                            new BigDecimal("0.020000")),
+                    new YieldAssetSummaryDto("XYZW11", new BigDecimal("5.00"), 1, BigDecimal.ZERO, null)),
+                    summary.assets());
+        }
+
+        @Test
+        @DisplayName("Should be able to discount the average cost of the quotas sold until the end of the interval")
+        void shouldBeAbleToDiscountTheAverageCostOfTheQuotasSoldUntilTheEndOfTheInterval() {
+
+            // 20 cotas por 1500.00: a venda de 5 cotas retira um quarto do custo e a de dezembro fica fora do intervalo
+            WalletEntity.Asset asset = new WalletEntity.Asset("ABCD11", 5, List.of(
+                    purchase("1000.00", "2023-12-01T00:00:00Z"),
+                    purchase("500.00", "2024-02-01T00:00:00Z")), List.of(
+                    sale(5, "2024-03-01T00:00:00Z"),
+                    sale(10, "2024-12-01T00:00:00Z")));
+            Map<String, WalletEntity.Asset> assets = new HashMap<>();
+            assets.put("ABCD11", asset);
+
+            when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
+            when(yieldRepository.summarizeByUserIdAndYieldAtBetween(USER_ID, "202401", "202406")).thenReturn(
+                    new YieldSummaryFacets(List.of(), List.of(),
+                            List.of(new YieldPeriodSummaryDto("ABCD11", new BigDecimal("22.50"), 3))));
+            when(walletService.getWalletByUserId(USER_ID)).thenReturn(Optional.of(new WalletEntity(null, USER_ID,
+                    assets)));
+
+            YieldSummaryResponseDto summary = yieldTotalService.fetchSummaryByTimeInterval(TOKEN, payload);
+
+            assertEquals(new BigDecimal("1125.00"), summary.investedValue());
+            assertEquals(new BigDecimal("0.020000"), summary.yieldOnCost());
+        }
+
+        @Test
+        @DisplayName("Should be able to return an empty summary without yields and wallet")
+        void shouldBeAbleToReturnAnEmptySummaryWithoutYieldsAndWallet() {
+
+            when(tokenService.extractUserIdFromToken(TOKEN)).thenReturn(USER_ID);
+            when(yieldRepository.summarizeByUserIdAndYieldAtBetween(USER_ID, "202401", "202406"))
+                    .thenReturn(new YieldSummaryFacets(List.of(), List.of(), List.of()));
+            when(walletService.getWalletByUserId(USER_ID)).thenReturn(Optional.empty());
+
+            YieldSummaryResponseDto summary = yieldTotalService.fetchSummaryByTimeInterval(TOKEN, payload);
+
+            assertEquals(BigDecimal.ZERO, summary.yieldValue());
+            assertNull(summary.yieldOnCost());
+        }
+
+        private static WalletEntity.Asset.PurchasesInfo purchase(String price, String date) {
+            return new WalletEntity.Asset.PurchasesInfo(null, 10, new BigDecimal(price), BigDecimal.ONE,
+                    Instant.parse(date));
+        }
+
+        private static WalletEntity.Asset.SalesInfo sale(int amount, String date) {
+            return new WalletEntity.Asset.SalesInfo(null, amount, BigDecimal.TEN, BigDecimal.ONE,
+                    Instant.parse(date));
+        }
+    }
+
+    @Nested
+    class RefreshUserMonths {
+
+        @Test
+        @DisplayName("Should be able to propagate a failure while refreshing the totals")
+        void shouldBeAbleToPropagateAFailureWhileRefreshingTheTotals() {
+
+            doThrow(new RuntimeException("timeout")).when(yieldTotalRepository)
+                    .refreshTotalsOfUsers(List.of(USER_ID), List.of("202401"));
+
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> yieldTotalService.refreshUserMonths(List.of(USER_ID), List.of("202401")));
+
+            assertEquals("timeout", exception.getMessage());
+        }
+    }
+
+    @Nested
+    class RefreshAllTotals {
+
+        @Test
+        @DisplayName("Should be able to refresh the totals of the users of each claimed partition")
+        void shouldBeAbleToRefreshTheTotalsOfTheUsersOfEachClaimedPartition() {
+
+            when(walletService.getAllUserIds()).thenReturn(List.of(USER_ID, "user5678"));
+            doAnswer(invocation -> {
+                Consumer<List<String>> worker = invocation.getArgument(3);
+                worker.accept(List.of(USER_ID));
+                worker.accept(List.of("user5678"));
+                return null;
+            }).when(jobCoordinator).runPartitioned(eq("yield-totals-refresh"), eq(LocalDate.now().toString()),
+                    eq(List.of(USER_ID, "user5678")), any());
+
+            yieldTotalService.refreshAllTotals();
+
+            verify(yieldTotalRepository).refreshAllTotalsOfUsers(List.of(USER_ID));
+            verify(yieldTotalRepository).refreshAllTotalsOfUsers(List.of("user5678"));
+            verify(yieldTotalRepository, never()).refreshAllTotals();
+        }
+    }
+
+    private static YieldTotalEntity total(String yieldAt, String assetName, String yieldValue, int yieldCount) {
+        return new YieldTotalEntity(null, USER_ID, yieldAt, assetName, new BigDecimal(yieldValue), yieldCount,
+                Instant.now(), null);
+    }
+}